@@ -0,0 +1,37 @@
+package com.Diagnostic.benchmark;
+
+import com.Diagnostic.utility.TimeOrderedAppointmentIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ID generation throughput under concurrent bookings: random UUIDs (SecureRandom) against time-ordered UUIDv7.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class AppointmentIdGenerationBenchmark {
+
+    private TimeOrderedAppointmentIdGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new TimeOrderedAppointmentIdGenerator(1);
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String timeOrdered() {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,127 @@
+package com.Diagnostic.benchmark;
+
+import com.Diagnostic.utility.TimeOrderedAppointmentIdGenerator;
+import com.Diagnostic.utility.UuidBinaryConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert and lookup latency of the previous key scheme (random UUID in VARCHAR(36)) against the current one
+ * (UUIDv7 in BINARY(16)), both behind a unique index. Defaults to H2 in MySQL mode; pass
+ * {@code -p jdbcUrl=jdbc:mysql://... -p user=... -p password=...} to measure against a real MySQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppointmentIdStorageBenchmark {
+
+    @Param({"random-varchar", "ordered-binary"})
+    public String scheme;
+
+    @Param({"jdbc:h2:mem:ids;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"})
+    public String jdbcUrl;
+
+    @Param({"sa"})
+    public String user;
+
+    @Param({""})
+    public String password;
+
+    @Param({"200000"})
+    public int preloadedRows;
+
+    private final TimeOrderedAppointmentIdGenerator generator = new TimeOrderedAppointmentIdGenerator(1);
+    private final UuidBinaryConverter converter = new UuidBinaryConverter();
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private PreparedStatement lookup;
+    private List<String> existingIds;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(jdbcUrl, user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists id_benchmark");
+            statement.execute("create table id_benchmark (id bigint auto_increment primary key, appointment_id "
+                    + (isBinary() ? "binary(16)" : "varchar(36)") + " not null, patient_name varchar(255))");
+            statement.execute("create unique index ux_id_benchmark on id_benchmark (appointment_id)");
+        }
+        insert = connection.prepareStatement("insert into id_benchmark (appointment_id, patient_name) values (?, ?)");
+        lookup = connection.prepareStatement("select id, patient_name from id_benchmark where appointment_id = ?");
+
+        existingIds = new ArrayList<>(preloadedRows);
+        connection.setAutoCommit(false);
+        for (int i = 0; i < preloadedRows; i++) {
+            String id = nextId();
+            existingIds.add(id);
+            bind(insert, id);
+            insert.addBatch();
+            if (i % 1000 == 999) {
+                insert.executeBatch();
+                connection.commit();
+            }
+        }
+        insert.executeBatch();
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table id_benchmark");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int insert() throws SQLException {
+        bind(insert, nextId());
+        return insert.executeUpdate();
+    }
+
+    @Benchmark
+    public long lookup() throws SQLException {
+        String id = existingIds.get(ThreadLocalRandom.current().nextInt(existingIds.size()));
+        if (isBinary()) {
+            lookup.setBytes(1, converter.convertToDatabaseColumn(id));
+        } else {
+            lookup.setString(1, id);
+        }
+        try (ResultSet resultSet = lookup.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+
+    private boolean isBinary() {
+        return "ordered-binary".equals(scheme);
+    }
+
+    private String nextId() {
+        return isBinary() ? generator.nextId() : UUID.randomUUID().toString();
+    }
+
+    private void bind(PreparedStatement statement, String id) throws SQLException {
+        if (isBinary()) {
+            statement.setBytes(1, converter.convertToDatabaseColumn(id));
+        } else {
+            statement.setString(1, id);
+        }
+        statement.setString(2, "Patient");
+    }
+}
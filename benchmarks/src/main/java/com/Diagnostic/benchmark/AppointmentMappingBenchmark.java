@@ -0,0 +1,54 @@
+package com.Diagnostic.benchmark;
+
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.entity.Appointment;
+import com.Diagnostic.service.AppointmentMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/DTO mapping done on every booking, update and read.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppointmentMappingBenchmark {
+
+    private Appointment appointment;
+    private AppointmentCheckupRequest request;
+
+    @Setup
+    public void setUp() {
+        appointment = BenchmarkData.appointment(1);
+        request = BenchmarkData.request(2);
+    }
+
+    @Benchmark
+    public AppointmentCheckupResponse toResponse() {
+        return AppointmentMapper.toResponse(appointment);
+    }
+
+    /**
+     * Mapping done by bookAppointment: a fresh entity populated from the request.
+     */
+    @Benchmark
+    public Appointment bookRequestToEntity() {
+        Appointment booked = new Appointment();
+        AppointmentMapper.applyRequest(booked, request);
+        return booked;
+    }
+
+    /**
+     * Mapping done by updateAppointment: an existing entity overwritten from the request.
+     */
+    @Benchmark
+    public Appointment updateRequestToEntity() {
+        AppointmentMapper.applyRequest(appointment, request);
+        return appointment;
+    }
+}
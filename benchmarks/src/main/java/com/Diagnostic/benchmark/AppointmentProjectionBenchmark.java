@@ -0,0 +1,76 @@
+package com.Diagnostic.benchmark;
+
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.entity.Appointment;
+import com.Diagnostic.repository.AppointmentRepository;
+import com.Diagnostic.service.AppointmentMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity reads (hydrate, track and map the whole row) against the summary projections the service now uses,
+ * for one appointment and for the whole table. Run with {@code -prof gc} to see the bytes allocated per operation
+ * ({@code gc.alloc.rate.norm}) next to the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppointmentProjectionBenchmark {
+
+    @Param({"1000", "10000"})
+    public int appointments;
+
+    private ConfigurableApplicationContext context;
+    private AppointmentRepository repository;
+    private String[] appointmentIds;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        repository = context.getBean(AppointmentRepository.class);
+
+        List<Appointment> rows = new ArrayList<>(appointments);
+        for (int i = 0; i < appointments; i++) {
+            rows.add(BenchmarkData.appointment(i));
+        }
+        repository.saveAll(rows);
+        appointmentIds = rows.stream().map(Appointment::getAppointmentId).toArray(String[]::new);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    private String randomId() {
+        return appointmentIds[ThreadLocalRandom.current().nextInt(appointmentIds.length)];
+    }
+
+    @Benchmark
+    public AppointmentCheckupResponse byIdEntity() {
+        return AppointmentMapper.toResponse(repository.findByAppointmentId(randomId()).orElseThrow());
+    }
+
+    @Benchmark
+    public AppointmentCheckupResponse byIdProjection() {
+        return AppointmentMapper.toResponse(repository.findSummaryByAppointmentId(randomId()).orElseThrow());
+    }
+
+    @Benchmark
+    public List<AppointmentCheckupResponse> allEntities() {
+        return repository.findAll().stream().map(AppointmentMapper::toResponse).toList();
+    }
+
+    @Benchmark
+    public List<AppointmentCheckupResponse> allProjections() {
+        return repository.findAllSummaries().stream().map(AppointmentMapper::toResponse).toList();
+    }
+}
@@ -0,0 +1,62 @@
+package com.Diagnostic.benchmark;
+
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.entity.Appointment;
+import com.Diagnostic.repository.AppointmentRepository;
+import com.Diagnostic.service.AppointmentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The GET /appointment/{id} service path with the appointment cache on and off.
+ * Sample-time mode reports the p50/p90/p99/p99.9 latency distribution, not just the mean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class AppointmentReadBenchmark {
+
+    @Param({"caffeine", "none"})
+    public String cacheType;
+
+    @Param({"10000"})
+    public int appointments;
+
+    private ConfigurableApplicationContext context;
+    private AppointmentService appointmentService;
+    private String[] appointmentIds;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("spring.cache.type=" + cacheType);
+        appointmentService = context.getBean(AppointmentService.class);
+        AppointmentRepository repository = context.getBean(AppointmentRepository.class);
+
+        List<Appointment> rows = new ArrayList<>(appointments);
+        for (int i = 0; i < appointments; i++) {
+            rows.add(BenchmarkData.appointment(i));
+        }
+        repository.saveAll(rows);
+        appointmentIds = rows.stream().map(Appointment::getAppointmentId).toArray(String[]::new);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AppointmentCheckupResponse getAppointmentById() {
+        String id = appointmentIds[ThreadLocalRandom.current().nextInt(appointmentIds.length)];
+        return appointmentService.getAppointmentById(id);
+    }
+}
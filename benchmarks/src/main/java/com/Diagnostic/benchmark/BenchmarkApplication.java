@@ -0,0 +1,36 @@
+package com.Diagnostic.benchmark;
+
+import com.Diagnostic.DiagnosticApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the real application context, without a web server, on an in-memory H2 database in MySQL mode.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        // Passed as command-line arguments so they take precedence over the bundled application.properties
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--logging.level.root=WARN"));
+        for (String property : extraProperties) {
+            arguments.add("--" + property);
+        }
+        return new SpringApplicationBuilder(DiagnosticApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(new String[0]));
+    }
+}
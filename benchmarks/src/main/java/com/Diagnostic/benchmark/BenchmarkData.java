@@ -0,0 +1,53 @@
+package com.Diagnostic.benchmark;
+
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.entity.Appointment;
+import com.Diagnostic.service.AppointmentMapper;
+import com.Diagnostic.utility.TimeOrderedAppointmentIdGenerator;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Realistic fixtures shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private static final String[] CHECKUP_TYPES = {"Blood Test", "X-Ray", "MRI", "Ultrasound", "ECG"};
+    private static final TimeOrderedAppointmentIdGenerator ID_GENERATOR = new TimeOrderedAppointmentIdGenerator(1);
+
+    private BenchmarkData() {
+    }
+
+    static AppointmentCheckupRequest request(int i) {
+        AppointmentCheckupRequest request = new AppointmentCheckupRequest();
+        request.setPatientName("Patient Number " + i);
+        request.setAge(20 + i % 60);
+        request.setGender(i % 2 == 0 ? "Female" : "Male");
+        request.setMobile("98765" + String.format("%05d", i % 100_000));
+        request.setEmail("patient" + i + "@example.com");
+        request.setCheckupType(CHECKUP_TYPES[i % CHECKUP_TYPES.length]);
+        request.setPreferredDate(LocalDate.now().plusDays(1 + i % 14));
+        request.setPreferredTime(LocalTime.of(8 + i % 10, (i % 2) * 30));
+        return request;
+    }
+
+    static Appointment appointment(int i) {
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentId(ID_GENERATOR.nextId());
+        AppointmentMapper.applyRequest(appointment, request(i));
+        appointment.setStatus("Confirmed");
+        return appointment;
+    }
+
+    static List<AppointmentCheckupResponse> responses(int size) {
+        List<AppointmentCheckupResponse> responses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            responses.add(AppointmentMapper.toResponse(appointment(i)));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,28 @@
+package com.Diagnostic.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs JMH with JSON results by default, so runs from different commits can be diffed or fed to a JMH visualizer.
+ * Any JMH option can still be passed, e.g. {@code -rff before.json} or {@code SerializationBenchmark -p size=1000}.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf")) {
+            arguments.add("-rf");
+            arguments.add("json");
+        }
+        if (!arguments.contains("-rff")) {
+            arguments.add("-rff");
+            arguments.add("jmh-result.json");
+        }
+        org.openjdk.jmh.Main.main(arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,63 @@
+package com.Diagnostic.benchmark;
+
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.service.AppointmentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Concurrent single bookings through the synchronous path (one INSERT and commit per request) and the
+ * write-behind path (group-committed to the local booking log, inserted in batches in the background).
+ * The async figure is the acknowledgement rate; the benchmark ends with the drain still catching up.
+ * H2 commits are far cheaper than MySQL's, so the gap measured here understates the one in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class BookingThroughputBenchmark {
+
+    @Param({"sync", "async"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private AppointmentService appointmentService;
+    private Path walDirectory;
+
+    @Setup
+    public void setUp() throws IOException {
+        walDirectory = Files.createTempDirectory("booking-wal");
+        context = BenchmarkApplication.start(
+                "appointment.booking.async=" + "async".equals(mode),
+                "appointment.booking.wal-directory=" + walDirectory,
+                // Every booking is confirmed, so the slot counters never turn requests away
+                "appointment.slot.default-capacity=" + Integer.MAX_VALUE);
+        appointmentService = context.getBean(AppointmentService.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(walDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public AppointmentCheckupResponse bookAppointment() {
+        AppointmentCheckupRequest request = BenchmarkData.request(ThreadLocalRandom.current().nextInt(100_000));
+        return appointmentService.bookAppointment(request);
+    }
+}
@@ -0,0 +1,128 @@
+package com.Diagnostic.benchmark;
+
+import com.Diagnostic.Response.AppointmentJsonWriter;
+import com.Diagnostic.Response.AppointmentProtobufCodec;
+import com.Diagnostic.Response.CustomResponseModel;
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The response formats a client can negotiate, encoding a list of {@code size} appointments and decoding a
+ * booking request. Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+    private CustomResponseModel<List<AppointmentCheckupResponse>> response;
+
+    private byte[] jsonRequest;
+    private byte[] cborRequest;
+    private byte[] smileRequest;
+    private byte[] protobufRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = mapper().build();
+        cbor = mapper().factory(new CBORFactory()).build();
+        smile = mapper().factory(new SmileFactory()).build();
+        response = new CustomResponseModel<>(true, "Appointments fetched successfully", BenchmarkData.responses(size));
+
+        AppointmentCheckupRequest request = BenchmarkData.request(0);
+        jsonRequest = json.writeValueAsBytes(request);
+        cborRequest = cbor.writeValueAsBytes(request);
+        smileRequest = smile.writeValueAsBytes(request);
+        protobufRequest = protobuf(request);
+
+        System.out.printf("%n%d appointments: json %d B, cbor %d B, smile %d B, protobuf %d B%n", size,
+                jsonWriter().length, cborEncode().length, smileEncode().length, protobufEncode().length);
+        System.out.printf("request: json %d B, cbor %d B, smile %d B, protobuf %d B%n",
+                jsonRequest.length, cborRequest.length, smileRequest.length, protobufRequest.length);
+    }
+
+    private static Jackson2ObjectMapperBuilder mapper() {
+        return Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static byte[] protobuf(AppointmentCheckupRequest request) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        AppointmentProtobufCodec.writeRequest(request, out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] jsonWriter() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AppointmentJsonWriter.write(response, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] jsonJackson() throws IOException {
+        return json.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] cborEncode() throws IOException {
+        return cbor.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] smileEncode() throws IOException {
+        return smile.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] protobufEncode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes, 8192);
+        AppointmentProtobufCodec.writeEnvelope(response, out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public AppointmentCheckupRequest jsonDecodeRequest() throws IOException {
+        return json.readValue(jsonRequest, AppointmentCheckupRequest.class);
+    }
+
+    @Benchmark
+    public AppointmentCheckupRequest cborDecodeRequest() throws IOException {
+        return cbor.readValue(cborRequest, AppointmentCheckupRequest.class);
+    }
+
+    @Benchmark
+    public AppointmentCheckupRequest smileDecodeRequest() throws IOException {
+        return smile.readValue(smileRequest, AppointmentCheckupRequest.class);
+    }
+
+    @Benchmark
+    public AppointmentCheckupRequest protobufDecodeRequest() throws IOException {
+        return AppointmentProtobufCodec.readRequest(CodedInputStream.newInstance(protobufRequest));
+    }
+}
@@ -0,0 +1,64 @@
+package com.Diagnostic.benchmark;
+
+import com.Diagnostic.Response.AppointmentJsonWriter;
+import com.Diagnostic.Response.CustomResponseModel;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of list responses: an ObjectMapper configured the way Spring Boot configures it, against
+ * the hand-written {@link AppointmentJsonWriter} that the JSON converter uses for appointment responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1", "100", "1000", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private CustomResponseModel<List<AppointmentCheckupResponse>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        response = new CustomResponseModel<>(true, "Appointments fetched successfully", BenchmarkData.responses(size));
+    }
+
+    @Benchmark
+    public void jacksonToStream() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response);
+    }
+
+    @Benchmark
+    public byte[] jacksonToBytes() throws IOException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public void writerToStream() throws IOException {
+        AppointmentJsonWriter.write(response, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public byte[] writerToBytes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AppointmentJsonWriter.write(response, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,64 @@
+package com.Diagnostic.benchmark;
+
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.utility.NotPastDateValidator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation of the booking request as done for {@code @Valid} and for every item of a batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private AppointmentCheckupRequest validRequest;
+    private AppointmentCheckupRequest invalidRequest;
+    private NotPastDateValidator notPastDateValidator;
+    private LocalDate futureDate;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validRequest = BenchmarkData.request(1);
+        invalidRequest = BenchmarkData.request(2);
+        invalidRequest.setEmail("not-an-email");
+        invalidRequest.setPreferredDate(LocalDate.now().minusDays(1));
+        notPastDateValidator = new NotPastDateValidator();
+        futureDate = LocalDate.now().plusDays(3);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<AppointmentCheckupRequest>> validRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<AppointmentCheckupRequest>> invalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+
+    @Benchmark
+    public boolean notPastDateValidator() {
+        return notPastDateValidator.isValid(futureDate, null);
+    }
+}
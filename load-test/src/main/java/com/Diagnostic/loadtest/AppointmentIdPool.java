@@ -0,0 +1,48 @@
+package com.Diagnostic.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * IDs of appointments booked so far, for lookups, updates and cancellations to pick from. A cancelled ID is
+ * taken out so the same appointment is not cancelled twice.
+ */
+final class AppointmentIdPool {
+
+    private final List<String> ids = new ArrayList<>();
+
+    synchronized void add(String appointmentId) {
+        ids.add(appointmentId);
+    }
+
+    synchronized void addAll(List<String> appointmentIds) {
+        ids.addAll(appointmentIds);
+    }
+
+    /**
+     * A random ID, or null if nothing has been booked yet.
+     */
+    synchronized String pick(RandomGenerator random) {
+        return ids.isEmpty() ? null : ids.get(random.nextInt(ids.size()));
+    }
+
+    /**
+     * Removes and returns a random ID, or null if nothing has been booked yet.
+     */
+    synchronized String take(RandomGenerator random) {
+        if (ids.isEmpty()) {
+            return null;
+        }
+        int index = random.nextInt(ids.size());
+        String last = ids.remove(ids.size() - 1);
+        if (index == ids.size()) {
+            return last;
+        }
+        return ids.set(index, last);
+    }
+
+    synchronized int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,126 @@
+package com.Diagnostic.loadtest;
+
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Builds the HTTP requests for each {@link Operation} and reads appointment IDs back out of the responses.
+ */
+final class AppointmentRequests {
+
+    private static final String[] CHECKUP_TYPES = {"Blood Test", "X-Ray", "MRI", "Ultrasound", "ECG"};
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final String baseUrl;
+
+    AppointmentRequests(String baseUrl) {
+        this.baseUrl = baseUrl + "/appointment";
+    }
+
+    HttpRequest book(RandomGenerator random) {
+        return json(URI.create(baseUrl)).POST(body(request(random))).build();
+    }
+
+    HttpRequest bookBatch(RandomGenerator random, int size) {
+        List<AppointmentCheckupRequest> requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            requests.add(request(random));
+        }
+        return json(URI.create(baseUrl + "/batch")).POST(body(requests)).build();
+    }
+
+    HttpRequest get(String appointmentId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/" + appointmentId)).timeout(TIMEOUT).GET().build();
+    }
+
+    HttpRequest update(String appointmentId, RandomGenerator random) {
+        return json(URI.create(baseUrl + "/" + appointmentId)).PUT(body(request(random))).build();
+    }
+
+    HttpRequest cancel(String appointmentId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/" + appointmentId)).timeout(TIMEOUT).DELETE().build();
+    }
+
+    HttpRequest list(RandomGenerator random) {
+        // Half the listings filter by checkup type so both the plain and the filtered index paths are exercised
+        String query = random.nextBoolean()
+                ? "?limit=50"
+                : "?limit=50&checkupType=" + CHECKUP_TYPES[random.nextInt(CHECKUP_TYPES.length)].replace(" ", "%20");
+        return HttpRequest.newBuilder(URI.create(baseUrl + query)).timeout(TIMEOUT).GET().build();
+    }
+
+    /**
+     * The appointment ID of a single booking response, or null if the booking failed.
+     */
+    String bookedId(String responseBody) {
+        JsonNode id = readData(responseBody).path("appointmentId");
+        return id.isTextual() ? id.asText() : null;
+    }
+
+    List<String> batchBookedIds(String responseBody) {
+        List<String> ids = new ArrayList<>();
+        for (JsonNode result : readData(responseBody)) {
+            JsonNode id = result.path("appointment").path("appointmentId");
+            if (id.isTextual()) {
+                ids.add(id.asText());
+            }
+        }
+        return ids;
+    }
+
+    private JsonNode readData(String responseBody) {
+        try {
+            return objectMapper.readTree(responseBody).path("data");
+        } catch (JsonProcessingException e) {
+            return objectMapper.missingNode();
+        }
+    }
+
+    private HttpRequest.Builder json(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher body(Object value) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static AppointmentCheckupRequest request(RandomGenerator random) {
+        int i = random.nextInt(1_000_000);
+        AppointmentCheckupRequest request = new AppointmentCheckupRequest();
+        request.setPatientName("Load Test Patient " + i);
+        request.setAge(20 + i % 60);
+        request.setGender(i % 2 == 0 ? "Female" : "Male");
+        request.setMobile("98765" + String.format("%05d", i % 100_000));
+        request.setEmail("patient" + i + "@example.com");
+        request.setCheckupType(CHECKUP_TYPES[i % CHECKUP_TYPES.length]);
+        request.setPreferredDate(LocalDate.now().plusDays(1 + i % 14));
+        request.setPreferredTime(LocalTime.of(8 + i % 10, (i % 2) * 30));
+        return request;
+    }
+}
@@ -0,0 +1,56 @@
+package com.Diagnostic.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed number of clients, each sending its next request as soon as the previous one completed (a closed model,
+ * like a connection pool in front of the service). The number of requests in flight never exceeds the number of
+ * clients, which is what makes it the right model for comparing how the server copes with 1,000 or 10,000
+ * concurrent connections. Throughput is whatever the server sustains; latency is measured from the actual send,
+ * since a closed-model client never has a request that is due but not sent.
+ */
+final class ClosedModelLoadGenerator extends LoadGenerator {
+
+    private volatile long measureFrom;
+    private volatile long end;
+    private CountDownLatch finished;
+
+    ClosedModelLoadGenerator(LoadTestOptions options, String baseUrl) {
+        super(options, baseUrl);
+    }
+
+    @Override
+    Map<Operation, OperationStats> run() throws InterruptedException {
+        long start = System.nanoTime();
+        measureFrom = start + options.warmup().toNanos();
+        end = measureFrom + options.duration().toNanos();
+        finished = new CountDownLatch(options.clients());
+
+        SplittableRandom seeds = new SplittableRandom();
+        for (int i = 0; i < options.clients(); i++) {
+            // Each client's requests run one after another, so a client can keep a random of its own
+            sendNext(seeds.split());
+        }
+        // Clients stop once the measured period is over and their last request has completed (or timed out)
+        finished.await(options.duration().toMillis() + TimeUnit.MINUTES.toMillis(1), TimeUnit.MILLISECONDS);
+        return stats;
+    }
+
+    private void sendNext(SplittableRandom random) {
+        long sentAt = System.nanoTime();
+        if (sentAt >= end) {
+            finished.countDown();
+            return;
+        }
+        Planned planned = plan(options.mix().next(random), random);
+        // Async, so a request that fails straight away does not recurse into the next one on the same stack
+        client.sendAsync(planned.request(), HttpResponse.BodyHandlers.ofString()).whenCompleteAsync((response, error) -> {
+            completed(planned.operation(), response, error, System.nanoTime() - sentAt, sentAt >= measureFrom);
+            sendNext(random);
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.Diagnostic.loadtest;
+
+import com.Diagnostic.DiagnosticApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the real application, with its web server on a random port, on an in-memory H2 database in MySQL mode.
+ */
+final class EmbeddedApplication {
+
+    private EmbeddedApplication() {
+    }
+
+    static ConfigurableApplicationContext start(List<String> extraProperties) {
+        // Passed as command-line arguments so they take precedence over the bundled application.properties
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--appointment.booking.wal-directory=target/load-test-wal",
+                "--appointment.import.directory=target/load-test-import",
+                "--logging.level.root=WARN",
+                // Waitlisting and similar per-request warnings would drown the report
+                "--logging.level.com.Diagnostic=ERROR"));
+        for (String property : extraProperties) {
+            arguments.add("--" + property);
+        }
+        return new SpringApplicationBuilder(DiagnosticApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(arguments.toArray(new String[0]));
+    }
+
+    static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+    }
+}
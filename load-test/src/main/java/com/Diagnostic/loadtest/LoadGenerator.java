@@ -0,0 +1,111 @@
+package com.Diagnostic.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * What both load models share: the HTTP client, the seed appointments, the pool of booked IDs to pick from and
+ * the stats per operation.
+ */
+abstract class LoadGenerator {
+
+    private static final int SEED_BATCH_SIZE = 50;
+
+    protected final LoadTestOptions options;
+    protected final AppointmentRequests requests;
+    protected final AppointmentIdPool idPool = new AppointmentIdPool();
+    protected final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    protected final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    LoadGenerator(LoadTestOptions options, String baseUrl) {
+        this.options = options;
+        this.requests = new AppointmentRequests(baseUrl);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * Books the seed appointments in batches, one request at a time.
+     */
+    void seed() throws IOException, InterruptedException {
+        SplittableRandom random = new SplittableRandom();
+        int remaining = options.seed();
+        while (remaining > 0) {
+            int size = Math.min(remaining, SEED_BATCH_SIZE);
+            HttpResponse<String> response = client.send(requests.bookBatch(random, size), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                throw new IOException("Seeding failed with " + response.statusCode() + ": " + response.body());
+            }
+            idPool.addAll(requests.batchBookedIds(response.body()));
+            remaining -= size;
+        }
+    }
+
+    /**
+     * Runs the warm-up and the measured period back to back and waits for outstanding requests.
+     *
+     * @return the stats of the measured period, per operation
+     */
+    abstract Map<Operation, OperationStats> run() throws InterruptedException;
+
+    /**
+     * A request to send and the operation it is counted under.
+     */
+    protected record Planned(Operation operation, HttpRequest request) {
+    }
+
+    protected Planned plan(Operation operation, SplittableRandom random) {
+        HttpRequest request = switch (operation) {
+            case BOOK -> requests.book(random);
+            case LIST -> requests.list(random);
+            case GET -> withId(idPool.pick(random), requests::get);
+            case UPDATE -> withId(idPool.pick(random), id -> requests.update(id, random));
+            case CANCEL -> withId(idPool.take(random), requests::cancel);
+        };
+        if (request == null) {
+            // Nothing booked yet to look up, update or cancel; book instead so the load holds
+            return new Planned(Operation.BOOK, requests.book(random));
+        }
+        return new Planned(operation, request);
+    }
+
+    /**
+     * Records the outcome and keeps the ID of a new booking for later lookups.
+     */
+    protected void completed(Operation operation, HttpResponse<String> response, Throwable error, long latencyNanos,
+                             boolean measured) {
+        int status = error == null ? response.statusCode() : OperationStats.NO_RESPONSE;
+        if (measured) {
+            stats.get(operation).record(latencyNanos, status);
+        }
+        if (operation == Operation.BOOK && error == null && status < 400) {
+            String appointmentId = requests.bookedId(response.body());
+            if (appointmentId != null) {
+                idPool.add(appointmentId);
+            }
+        }
+    }
+
+    private static HttpRequest withId(String appointmentId, Function<String, HttpRequest> builder) {
+        return appointmentId == null ? null : builder.apply(appointmentId);
+    }
+
+    List<Operation> measuredOperations() {
+        return stats.entrySet().stream()
+                .filter(entry -> entry.getValue().getAttempted() > 0)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
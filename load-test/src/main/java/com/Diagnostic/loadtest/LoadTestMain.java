@@ -0,0 +1,62 @@
+package com.Diagnostic.loadtest;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Runs one load test: starts the application unless --target is given, seeds it, drives the configured mix at the
+ * target rate (or from --clients concurrent clients) and reports per operation, with the server's peak memory and
+ * thread count. Exits with 1 when a --baseline comparison finds a regression.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        List<String> regressions;
+        try {
+            String baseUrl = options.target();
+            if (baseUrl == null) {
+                context = EmbeddedApplication.start(options.applicationProperties());
+                baseUrl = EmbeddedApplication.baseUrl(context);
+            }
+            LoadGenerator generator = options.clients() > 0
+                    ? new ClosedModelLoadGenerator(options, baseUrl)
+                    : new OpenModelLoadGenerator(options, baseUrl);
+            System.out.printf("Seeding %d appointments at %s%n", options.seed(), baseUrl);
+            generator.seed();
+            System.out.printf("Warming up for %s, then measuring for %s%n", options.warmup(), options.duration());
+            ServerResourceSampler sampler = new ServerResourceSampler(baseUrl, context != null);
+            Map<Operation, OperationStats> stats;
+            try {
+                sampler.start(options.warmup());
+                stats = generator.run();
+            } finally {
+                sampler.close();
+            }
+
+            LoadTestReport report = new LoadTestReport(options, stats, generator.measuredOperations());
+            Properties summary = report.summary();
+            sampler.addTo(summary);
+            report.print(summary, System.out);
+            report.write(summary);
+            System.out.println("Reports written to " + options.output().toAbsolutePath());
+            regressions = options.baseline() == null ? List.of() : report.compare(summary, options.baseline(), System.out);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        if (!regressions.isEmpty()) {
+            System.out.println(regressions.size() + " regression(s) against the baseline");
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+}
@@ -0,0 +1,108 @@
+package com.Diagnostic.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command-line options, all in {@code --name=value} form:
+ * <ul>
+ *     <li>{@code --rate} requests per second started, whatever the latency (default 100)</li>
+ *     <li>{@code --clients} run a closed model instead: this many clients, each sending its next request when the
+ *     previous one completes; {@code --rate} and {@code --max-in-flight} are then ignored (default 0, open model)</li>
+ *     <li>{@code --duration} measured part of the run, e.g. {@code 60s} or {@code 5m} (default 60s)</li>
+ *     <li>{@code --warmup} run at the same rate before measuring, not reported (default 10s)</li>
+ *     <li>{@code --mix} relative weights, e.g. {@code book:20,get:50,update:10,cancel:5,list:15} (the default)</li>
+ *     <li>{@code --arrival} {@code poisson} (exponential gaps, the default) or {@code uniform}</li>
+ *     <li>{@code --target} base URL of a running instance; without it the application is started in this JVM</li>
+ *     <li>{@code --seed} appointments booked before the run so reads and updates have something to hit (default 1000)</li>
+ *     <li>{@code --max-in-flight} outstanding requests before new ones are counted as dropped (default 2000)</li>
+ *     <li>{@code --output} directory for the reports (default load-test-results)</li>
+ *     <li>{@code --save-baseline} also copy the summary to this file</li>
+ *     <li>{@code --baseline} compare with a saved summary; exits with 1 if an endpoint regressed</li>
+ *     <li>{@code --tolerance} allowed slowdown of a percentile before it counts as a regression (default 0.2)</li>
+ *     <li>{@code --app.<property>} passed to the embedded application, e.g. {@code --app.appointment.booking.async=true}</li>
+ * </ul>
+ * Virtual against platform threads, on a JDK 21 build: the same {@code --clients} (say 1000, then 10000) once with
+ * {@code --app.spring.threads.virtual.enabled=true} and once with {@code false}, comparing total.throughput and the
+ * server.* memory and thread figures of the two summaries. Add {@code --app.appointment.admission.enabled=false} to
+ * drop the adaptive limit and see how each model queues the excess (virtual threads are still held to the JDBC pool
+ * less the reserved connections); against MySQL ({@code --target}) the requests spend real time waiting on the
+ * database, which the in-memory H2 of the embedded run hardly does.
+ */
+record LoadTestOptions(double rate,
+                       int clients,
+                       Duration duration,
+                       Duration warmup,
+                       OperationMix mix,
+                       boolean poissonArrivals,
+                       String target,
+                       int seed,
+                       int maxInFlight,
+                       Path output,
+                       Path saveBaseline,
+                       Path baseline,
+                       double tolerance,
+                       List<String> applicationProperties) {
+
+    static LoadTestOptions parse(String[] args) {
+        double rate = 100;
+        int clients = 0;
+        Duration duration = Duration.ofSeconds(60);
+        Duration warmup = Duration.ofSeconds(10);
+        OperationMix mix = OperationMix.parse("book:20,get:50,update:10,cancel:5,list:15");
+        boolean poissonArrivals = true;
+        String target = null;
+        int seed = 1000;
+        int maxInFlight = 2000;
+        Path output = Path.of("load-test-results");
+        Path saveBaseline = null;
+        Path baseline = null;
+        double tolerance = 0.2;
+        List<String> applicationProperties = new ArrayList<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            if (name.startsWith("app.")) {
+                applicationProperties.add(name.substring("app.".length()) + "=" + value);
+                continue;
+            }
+            switch (name) {
+                case "rate" -> rate = Double.parseDouble(value);
+                case "clients" -> clients = Integer.parseInt(value);
+                case "duration" -> duration = DurationStyle.detectAndParse(value);
+                case "warmup" -> warmup = DurationStyle.detectAndParse(value);
+                case "mix" -> mix = OperationMix.parse(value);
+                case "arrival" -> poissonArrivals = switch (value) {
+                    case "poisson" -> true;
+                    case "uniform" -> false;
+                    default -> throw new IllegalArgumentException("Unknown arrival " + value + ", expected poisson or uniform");
+                };
+                case "target" -> target = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "seed" -> seed = Integer.parseInt(value);
+                case "max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                case "output" -> output = Path.of(value);
+                case "save-baseline" -> saveBaseline = Path.of(value);
+                case "baseline" -> baseline = Path.of(value);
+                case "tolerance" -> tolerance = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        if (clients < 0) {
+            throw new IllegalArgumentException("--clients must not be negative");
+        }
+        return new LoadTestOptions(rate, clients, duration, warmup, mix, poissonArrivals, target, seed, maxInFlight,
+                output, saveBaseline, baseline, tolerance, applicationProperties);
+    }
+}
@@ -0,0 +1,224 @@
+package com.Diagnostic.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Percentiles, throughput and error rate per operation. The summary is a properties file so a saved baseline can
+ * be read back and compared with a later run; the full latency distributions are written as .hgrm files, which
+ * the HdrHistogram plotter can overlay.
+ */
+final class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String TOTAL = "total";
+    // Differences below this are noise on any machine and never count as a regression
+    private static final double MIN_REGRESSION_MS = 1.0;
+    // Fewer requests than this make the high percentiles little more than the maximum
+    private static final long MIN_SAMPLES = 100;
+
+    private final LoadTestOptions options;
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+    private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+    private final double measuredSeconds;
+
+    LoadTestReport(LoadTestOptions options, Map<Operation, OperationStats> stats, List<Operation> operations) {
+        this.options = options;
+        this.measuredSeconds = options.duration().toNanos() / 1e9;
+        Histogram total = new Histogram(3);
+        for (Operation operation : operations) {
+            OperationStats operationStats = stats.get(operation);
+            this.stats.put(operation.getKey(), operationStats);
+            latencies.put(operation.getKey(), operationStats.getLatencies());
+            total.add(operationStats.getLatencies());
+        }
+        latencies.put(TOTAL, total);
+    }
+
+    Properties summary() {
+        Properties summary = new Properties();
+        summary.setProperty("run.timestamp", Instant.now().toString());
+        summary.setProperty("run.target", options.target() == null ? "embedded" : options.target());
+        summary.setProperty("run.rate", options.clients() > 0 ? "closed" : String.valueOf(options.rate()));
+        summary.setProperty("run.clients", String.valueOf(options.clients()));
+        summary.setProperty("run.duration", options.duration().toString());
+        summary.setProperty("run.mix", options.mix().toString());
+        summary.setProperty("run.arrival", options.poissonArrivals() ? "poisson" : "uniform");
+
+        long totalAttempted = 0;
+        long totalErrors = 0;
+        for (Map.Entry<String, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            putOutcomes(summary, entry.getKey(), operationStats.getCompleted(), operationStats.getAttempted(),
+                    operationStats.getErrors());
+            summary.setProperty(entry.getKey() + ".dropped", String.valueOf(operationStats.getDropped()));
+            operationStats.getStatusCounts().forEach((status, count) ->
+                    summary.setProperty(entry.getKey() + ".status." + status, String.valueOf(count)));
+            totalAttempted += operationStats.getAttempted();
+            totalErrors += operationStats.getErrors();
+        }
+        putOutcomes(summary, TOTAL, latencies.get(TOTAL).getTotalCount(), totalAttempted, totalErrors);
+
+        latencies.forEach((name, histogram) -> {
+            for (double percentile : PERCENTILES) {
+                summary.setProperty(name + "." + percentileKey(percentile), formatMillis(histogram.getValueAtPercentile(percentile)));
+            }
+            summary.setProperty(name + ".max-ms", formatMillis(histogram.getMaxValue()));
+        });
+        return summary;
+    }
+
+    private void putOutcomes(Properties summary, String name, long completed, long attempted, long errors) {
+        summary.setProperty(name + ".count", String.valueOf(completed));
+        summary.setProperty(name + ".throughput", String.format("%.1f", completed / measuredSeconds));
+        summary.setProperty(name + ".error-rate", String.format("%.4f", attempted == 0 ? 0.0 : (double) errors / attempted));
+    }
+
+    void print(Properties summary, PrintStream out) {
+        if (options.clients() > 0) {
+            out.printf("%n%d concurrent clients for %s, mix %s%n%n", options.clients(), options.duration(), options.mix());
+        } else {
+            out.printf("%nTarget %.0f req/s for %s (%s arrivals), mix %s%n%n", options.rate(), options.duration(),
+                    summary.getProperty("run.arrival"), options.mix());
+        }
+        out.printf("%-8s %9s %10s %8s %9s %9s %9s %9s %9s%n",
+                "", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (String name : latencies.keySet()) {
+            out.printf("%-8s %9s %10s %7.2f%% %9s %9s %9s %9s %9s%n",
+                    name,
+                    summary.getProperty(name + ".count"),
+                    summary.getProperty(name + ".throughput"),
+                    Double.parseDouble(summary.getProperty(name + ".error-rate")) * 100,
+                    summary.getProperty(name + ".p50-ms"),
+                    summary.getProperty(name + ".p90-ms"),
+                    summary.getProperty(name + ".p99-ms"),
+                    summary.getProperty(name + ".p99.9-ms"),
+                    summary.getProperty(name + ".max-ms"));
+        }
+        stats.forEach((name, operationStats) -> {
+            if (operationStats.getDropped() > 0) {
+                out.printf("%n%s: %d requests dropped at --max-in-flight; the target rate was not sustained%n",
+                        name, operationStats.getDropped());
+            }
+        });
+        if (summary.getProperty("server.heap-used-max-mb") != null) {
+            out.printf("%nServer peaks: heap %s MB, non-heap %s MB, %s live platform threads%s%n",
+                    summary.getProperty("server.heap-used-max-mb"), summary.getProperty("server.nonheap-used-max-mb"),
+                    summary.getProperty("server.threads-live-max"),
+                    summary.getProperty("process.rss-max-mb") == null ? ""
+                            : ", process RSS " + summary.getProperty("process.rss-max-mb") + " MB");
+        }
+        out.println();
+    }
+
+    /**
+     * Writes summary.properties and one .hgrm file per operation (values in milliseconds) to the output directory.
+     */
+    void write(Properties summary) throws IOException {
+        Files.createDirectories(options.output());
+        Path summaryFile = options.output().resolve("summary.properties");
+        try (Writer writer = Files.newBufferedWriter(summaryFile, StandardCharsets.UTF_8)) {
+            summary.store(writer, "Load test summary");
+        }
+        for (Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+            try (OutputStream out = Files.newOutputStream(options.output().resolve(entry.getKey() + ".hgrm"));
+                 PrintStream printStream = new PrintStream(out, false, StandardCharsets.UTF_8)) {
+                entry.getValue().outputPercentileDistribution(printStream, 1000.0);
+            }
+        }
+        if (options.saveBaseline() != null) {
+            Path parent = options.saveBaseline().toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Files.copy(summaryFile, options.saveBaseline(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Compares percentiles, throughput and error rate with a saved baseline and prints the differences.
+     *
+     * @return the regressions found, empty if the run is within tolerance
+     */
+    List<String> compare(Properties summary, Path baselineFile, PrintStream out) throws IOException {
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(baselineFile, StandardCharsets.UTF_8)) {
+            baseline.load(reader);
+        }
+        out.printf("Compared with %s (%s, %s req/s, mix %s)%n", baselineFile, baseline.getProperty("run.timestamp"),
+                baseline.getProperty("run.rate"), baseline.getProperty("run.mix"));
+        if (!summary.getProperty("run.rate").equals(baseline.getProperty("run.rate"))
+                || !summary.getProperty("run.mix").equals(baseline.getProperty("run.mix"))
+                || !summary.getProperty("run.clients").equals(baseline.getProperty("run.clients", "0"))) {
+            out.println("Warning: the baseline was recorded with a different rate, mix or number of clients");
+        }
+
+        List<String> regressions = new ArrayList<>();
+        for (String name : latencies.keySet()) {
+            if (baseline.getProperty(name + ".count") == null) {
+                continue;
+            }
+            long samples = Math.min(Long.parseLong(baseline.getProperty(name + ".count")),
+                    Long.parseLong(summary.getProperty(name + ".count")));
+            if (samples < MIN_SAMPLES) {
+                out.printf("  %-22s too few requests to compare latencies (%d)%n", name, samples);
+            } else {
+                for (double percentile : PERCENTILES) {
+                    String key = name + "." + percentileKey(percentile);
+                    double before = Double.parseDouble(baseline.getProperty(key));
+                    double now = Double.parseDouble(summary.getProperty(key));
+                    boolean regressed = now > before * (1 + options.tolerance()) && now - before > MIN_REGRESSION_MS;
+                    report(out, key, before, now, regressed, regressions);
+                }
+            }
+            if (TOTAL.equals(name)) {
+                // Per operation the throughput only follows the random draw of the mix
+                String throughputKey = name + ".throughput";
+                double throughputBefore = Double.parseDouble(baseline.getProperty(throughputKey));
+                double throughputNow = Double.parseDouble(summary.getProperty(throughputKey));
+                report(out, throughputKey, throughputBefore, throughputNow,
+                        throughputNow < throughputBefore * (1 - options.tolerance()), regressions);
+            }
+            String errorKey = name + ".error-rate";
+            double errorsBefore = Double.parseDouble(baseline.getProperty(errorKey));
+            double errorsNow = Double.parseDouble(summary.getProperty(errorKey));
+            // Error rates are compared in absolute terms: one extra failure in a hundred is a regression
+            report(out, errorKey, errorsBefore, errorsNow, errorsNow > errorsBefore + 0.01, regressions);
+        }
+        return regressions;
+    }
+
+    private static void report(PrintStream out, String key, double before, double now, boolean regressed,
+                               List<String> regressions) {
+        String change = before == 0 ? "" : String.format("%+.1f%%", (now - before) / before * 100);
+        out.printf("  %-22s %10s -> %-10s %8s%s%n", key, trim(before), trim(now), change, regressed ? "  REGRESSION" : "");
+        if (regressed) {
+            regressions.add(key + " went from " + trim(before) + " to " + trim(now));
+        }
+    }
+
+    private static String percentileKey(double percentile) {
+        return "p" + trim(percentile) + "-ms";
+    }
+
+    private static String formatMillis(long micros) {
+        return String.format("%.3f", micros / 1000.0);
+    }
+
+    private static String trim(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
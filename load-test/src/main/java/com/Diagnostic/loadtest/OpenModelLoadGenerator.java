@@ -0,0 +1,72 @@
+package com.Diagnostic.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts requests on a fixed schedule, whether or not earlier ones have finished (an open model, like real users
+ * arriving independently). Each latency is measured from the time the request was scheduled to start, not from
+ * when it was actually sent, so a stall in the service or in this generator shows up in the percentiles instead
+ * of silently lowering the request rate (coordinated omission).
+ */
+final class OpenModelLoadGenerator extends LoadGenerator {
+
+    private final Semaphore inFlight;
+
+    // Only touched by the scheduling thread
+    private final SplittableRandom random = new SplittableRandom();
+
+    OpenModelLoadGenerator(LoadTestOptions options, String baseUrl) {
+        super(options, baseUrl);
+        this.inFlight = new Semaphore(options.maxInFlight());
+    }
+
+    @Override
+    Map<Operation, OperationStats> run() throws InterruptedException {
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+
+        double next = start;
+        while ((long) next < end) {
+            long intendedStart = (long) next;
+            parkUntil(intendedStart);
+            send(options.mix().next(random), intendedStart, intendedStart >= measureFrom);
+            next += options.poissonArrivals()
+                    ? -Math.log(1 - random.nextDouble()) * meanGapNanos
+                    : meanGapNanos;
+        }
+        // Requests still outstanding are recorded when they complete (or time out)
+        if (inFlight.tryAcquire(options.maxInFlight(), 1, TimeUnit.MINUTES)) {
+            inFlight.release(options.maxInFlight());
+        }
+        return stats;
+    }
+
+    private void send(Operation operation, long intendedStart, boolean measured) {
+        Planned planned = plan(operation, random);
+        if (!inFlight.tryAcquire()) {
+            if (measured) {
+                stats.get(planned.operation()).drop();
+            }
+            return;
+        }
+        client.sendAsync(planned.request(), HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            long latency = System.nanoTime() - intendedStart;
+            inFlight.release();
+            completed(planned.operation(), response, error, latency, measured);
+        });
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
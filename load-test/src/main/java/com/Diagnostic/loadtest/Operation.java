@@ -0,0 +1,31 @@
+package com.Diagnostic.loadtest;
+
+/**
+ * The calls the generator makes against /appointment. Names double as the keys in --mix and in the reports.
+ */
+enum Operation {
+    BOOK("book"),
+    GET("get"),
+    UPDATE("update"),
+    CANCEL("cancel"),
+    LIST("list");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key.trim())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + key + ", expected book, get, update, cancel or list");
+    }
+}
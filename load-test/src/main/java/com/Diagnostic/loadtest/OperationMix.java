@@ -0,0 +1,73 @@
+package com.Diagnostic.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted choice of the next operation, e.g. {@code book:20,get:50} sends 20 bookings for every 50 lookups.
+ */
+final class OperationMix {
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private OperationMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        this.operations = weights.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    static OperationMix parse(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in --mix but got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + parts[0] + " can not be negative");
+            }
+            if (weight > 0) {
+                weights.merge(Operation.fromKey(parts[0]), weight, Integer::sum);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("--mix needs at least one operation with a positive weight");
+        }
+        return new OperationMix(weights);
+    }
+
+    Operation next(RandomGenerator random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    Iterable<Operation> operations() {
+        return weights.keySet();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        weights.forEach((operation, weight) -> {
+            if (!builder.isEmpty()) {
+                builder.append(',');
+            }
+            builder.append(operation.getKey()).append(':').append(weight);
+        });
+        return builder.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package com.Diagnostic.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies (in microseconds, measured from the intended start) and outcomes of one operation during the
+ * measured part of the run.
+ */
+final class OperationStats {
+
+    /** Status recorded for requests that failed without a response (connection refused, timeout). */
+    static final int NO_RESPONSE = 0;
+
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+
+    void record(long latencyNanos, int status) {
+        latencies.recordValue(Math.max(latencyNanos / 1000, 1));
+        completed.increment();
+        if (status == NO_RESPONSE || status >= 400) {
+            errors.increment();
+        }
+        statusCounts.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    /**
+     * A request that was due but not sent because too many were still outstanding; the generator could not keep
+     * the open-model rate, so it counts as an error and the run is not a valid measurement of the target rate.
+     */
+    void drop() {
+        dropped.increment();
+    }
+
+    Histogram getLatencies() {
+        return latencies;
+    }
+
+    long getCompleted() {
+        return completed.sum();
+    }
+
+    long getErrors() {
+        return errors.sum() + dropped.sum();
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    long getAttempted() {
+        return completed.sum() + dropped.sum();
+    }
+
+    Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+}
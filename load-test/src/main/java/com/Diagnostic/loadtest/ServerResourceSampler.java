@@ -0,0 +1,134 @@
+package com.Diagnostic.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Samples the server's memory and threads once a second during the measured period, through its
+ * /actuator/metrics endpoint, and keeps the peaks. The live thread count only covers platform threads; virtual
+ * threads keep their stacks on the heap, so the two thread models are compared by heap and, for the embedded
+ * application, by the resident set size of the whole process (load generator included, the same in both runs).
+ */
+final class ServerResourceSampler implements AutoCloseable {
+
+    private static final Duration INTERVAL = Duration.ofSeconds(1);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    private static final double MB = 1024.0 * 1024.0;
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    private final String metricsUrl;
+    private final boolean embedded;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "server-resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAccumulator heapUsed = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator nonHeapUsed = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator threadsLive = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator residentSetSize = new LongAccumulator(Math::max, 0);
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    ServerResourceSampler(String baseUrl, boolean embedded) {
+        this.metricsUrl = baseUrl + "/actuator/metrics/";
+        this.embedded = embedded;
+    }
+
+    /**
+     * Starts sampling after {@code delay}, i.e. once the warm-up is over.
+     */
+    void start(Duration delay) {
+        scheduler.scheduleAtFixedRate(this::sample, delay.toMillis(), INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void sample() {
+        try {
+            heapUsed.accumulate((long) metric("jvm.memory.used", "area:heap"));
+            nonHeapUsed.accumulate((long) metric("jvm.memory.used", "area:nonheap"));
+            threadsLive.accumulate((long) metric("jvm.threads.live", null));
+            if (embedded) {
+                residentSetSize.accumulate(residentSetSize());
+            }
+            samples.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double metric(String name, String tag) throws IOException, InterruptedException {
+        URI uri = URI.create(metricsUrl + name + (tag == null ? "" : "?tag=" + tag));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).timeout(TIMEOUT).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException(uri + " answered " + response.statusCode());
+        }
+        JsonNode measurements = objectMapper.readTree(response.body()).path("measurements");
+        for (JsonNode measurement : measurements) {
+            if ("VALUE".equals(measurement.path("statistic").asText())) {
+                return measurement.path("value").asDouble();
+            }
+        }
+        throw new IOException(uri + " has no VALUE measurement");
+    }
+
+    // VmRSS of this process in bytes; 0 where /proc is not available
+    private static long residentSetSize() throws IOException {
+        if (!Files.isReadable(PROC_STATUS)) {
+            return 0;
+        }
+        List<String> lines = Files.readAllLines(PROC_STATUS);
+        for (String line : lines) {
+            if (line.startsWith("VmRSS:")) {
+                String kilobytes = line.substring("VmRSS:".length()).replace("kB", "").trim();
+                return Long.parseLong(kilobytes) * 1024;
+            }
+        }
+        return 0;
+    }
+
+    void addTo(Properties summary) {
+        summary.setProperty("server.samples", String.valueOf(samples.get()));
+        summary.setProperty("server.sample-failures", String.valueOf(failures.get()));
+        if (samples.get() == 0) {
+            // Shorter than a sampling interval, or the metrics endpoint is not exposed
+            return;
+        }
+        summary.setProperty("server.heap-used-max-mb", megabytes(heapUsed.get()));
+        summary.setProperty("server.nonheap-used-max-mb", megabytes(nonHeapUsed.get()));
+        summary.setProperty("server.threads-live-max", String.valueOf(threadsLive.get()));
+        if (embedded && residentSetSize.get() > 0) {
+            summary.setProperty("process.rss-max-mb", megabytes(residentSetSize.get()));
+        }
+    }
+
+    private static String megabytes(long bytes) {
+        return String.format("%.1f", bytes / MB);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -2,12 +2,22 @@ package com.Diagnostic;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
 public class DiagnosticApplication {
 
+	static final int STARTUP_STEPS = 20_000;
+
 	public static void main(String[] args) {
-		SpringApplication.run(DiagnosticApplication.class, args);
+		SpringApplication application = new SpringApplication(DiagnosticApplication.class);
+		// Records startup steps for StartupTimingReport, which drains the buffer once the application is ready
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,85 @@
+package com.Diagnostic.Response;
+
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.dto.AppointmentPageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Replaces Spring Boot's JSON converter: appointment responses are written by {@link AppointmentJsonWriter},
+ * everything else (and every request body) still goes through Jackson.
+ * <p>
+ * At startup a sample response is written both ways; if the configured ObjectMapper would produce different
+ * bytes (e.g. after a spring.jackson.* property change) the fast path is switched off rather than changing the API.
+ */
+@Component
+public class AppointmentJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final boolean fastPathEnabled;
+
+    public AppointmentJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+        this.fastPathEnabled = matchesObjectMapper(objectMapper);
+        if (!fastPathEnabled) {
+            logger.warn("ObjectMapper output differs from AppointmentJsonWriter, appointment responses will use Jackson");
+        }
+    }
+
+    public boolean isFastPathEnabled() {
+        return fastPathEnabled;
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (fastPathEnabled && object instanceof CustomResponseModel<?> response
+                && AppointmentJsonWriter.supports(response) && isUtf8(outputMessage.getHeaders().getContentType())) {
+            AppointmentJsonWriter.write(response, outputMessage.getBody());
+            return;
+        }
+        super.writeInternal(object, type, outputMessage);
+    }
+
+    private static boolean isUtf8(@Nullable MediaType contentType) {
+        Charset charset = contentType == null ? null : contentType.getCharset();
+        return charset == null || StandardCharsets.UTF_8.equals(charset);
+    }
+
+    private static boolean matchesObjectMapper(ObjectMapper objectMapper) {
+        AppointmentCheckupResponse appointment = new AppointmentCheckupResponse();
+        appointment.setAppointmentId("0190a6f2-8c3e-7000-8000-000000000001");
+        appointment.setPatientName("Zoë \"Q\" O'Brien\t☃ 😀");
+        appointment.setCheckupType("Blood Test");
+        appointment.setAppointmentDate(LocalDate.of(2024, 1, 5));
+        appointment.setAppointmentTime(LocalTime.of(9, 30, 15, 500_000_000));
+        appointment.setStatus("Confirmed");
+        CustomResponseModel<AppointmentPageResponse> sample = new CustomResponseModel<>(true, "Sample",
+                new AppointmentPageResponse(Arrays.asList(appointment, new AppointmentCheckupResponse(), null), "cursor"));
+        try {
+            ByteArrayOutputStream fast = new ByteArrayOutputStream();
+            AppointmentJsonWriter.write(sample, fast);
+            ByteArrayOutputStream single = new ByteArrayOutputStream();
+            AppointmentJsonWriter.write(new CustomResponseModel<>(false, null, List.of(appointment)), single);
+            return Arrays.equals(fast.toByteArray(), objectMapper.writeValueAsBytes(sample))
+                    && Arrays.equals(single.toByteArray(),
+                    objectMapper.writeValueAsBytes(new CustomResponseModel<>(false, null, List.of(appointment))));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
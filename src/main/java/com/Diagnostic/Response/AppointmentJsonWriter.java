@@ -0,0 +1,326 @@
+package com.Diagnostic.Response;
+
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.dto.AppointmentPageResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Hand-written JSON for the appointment responses, producing exactly the bytes Jackson produces with Spring Boot's
+ * defaults (declaration order, nulls included, ISO-8601 dates and times, Jackson's escaping rules) without reflection
+ * or per-field allocation. Property names are pre-encoded, dates and times are written digit by digit, and the
+ * output goes through one buffer straight to the response stream.
+ * <p>
+ * Only {@link #supports supported} shapes may be written; everything else stays with Jackson.
+ */
+public final class AppointmentJsonWriter {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    // Worst case for one char: a 6-byte \\uXXXX escape
+    private static final int MAX_BYTES_PER_CHAR = 6;
+
+    private static final byte[] SUCCESS = ascii("{\"success\":");
+    private static final byte[] MESSAGE = ascii(",\"message\":");
+    private static final byte[] DATA = ascii(",\"data\":");
+    private static final byte[] APPOINTMENTS = ascii("{\"appointments\":");
+    private static final byte[] NEXT_CURSOR = ascii(",\"nextCursor\":");
+    private static final byte[] HAS_NEXT = ascii(",\"hasNext\":");
+    private static final byte[] APPOINTMENT_ID = ascii("{\"appointmentId\":");
+    private static final byte[] PATIENT_NAME = ascii(",\"patientName\":");
+    private static final byte[] CHECKUP_TYPE = ascii(",\"checkupType\":");
+    private static final byte[] APPOINTMENT_DATE = ascii(",\"appointmentDate\":");
+    private static final byte[] APPOINTMENT_TIME = ascii(",\"appointmentTime\":");
+    private static final byte[] STATUS = ascii(",\"status\":");
+    private static final byte[] REMARK = ascii(",\"remark\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    /**
+     * Per ASCII char: 0 to copy as is, a letter for a two-char escape, -1 for a \\u00XX escape (same table as Jackson).
+     */
+    private static final int[] ESCAPES = new int[128];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = -1;
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+    }
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    private AppointmentJsonWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * True if the response holds nothing but appointments (single, list or page), so it can be written here.
+     */
+    public static boolean supports(CustomResponseModel<?> response) {
+        if (response.getClass() != CustomResponseModel.class) {
+            return false;
+        }
+        Object data = response.getData();
+        if (data == null || data.getClass() == AppointmentCheckupResponse.class) {
+            return true;
+        }
+        if (data.getClass() == AppointmentPageResponse.class) {
+            List<AppointmentCheckupResponse> appointments = ((AppointmentPageResponse) data).getAppointments();
+            return appointments == null || onlyAppointments(appointments);
+        }
+        return data instanceof List<?> list && onlyAppointments(list);
+    }
+
+    private static boolean onlyAppointments(List<?> list) {
+        for (Object element : list) {
+            if (element != null && element.getClass() != AppointmentCheckupResponse.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes a {@link #supports supported} response and flushes it to {@code out}, leaving the stream open.
+     */
+    public static void write(CustomResponseModel<?> response, OutputStream out) throws IOException {
+        AppointmentJsonWriter writer = new AppointmentJsonWriter(out);
+        writer.writeResponse(response);
+        writer.flushBuffer();
+        out.flush();
+    }
+
+    private void writeResponse(CustomResponseModel<?> response) throws IOException {
+        writeRaw(SUCCESS);
+        writeRaw(response.isSuccess() ? TRUE : FALSE);
+        writeRaw(MESSAGE);
+        writeString(response.getMessage());
+        writeRaw(DATA);
+        Object data = response.getData();
+        if (data instanceof AppointmentCheckupResponse appointment) {
+            writeAppointment(appointment);
+        } else if (data instanceof AppointmentPageResponse page) {
+            writeRaw(APPOINTMENTS);
+            writeList(page.getAppointments());
+            writeRaw(NEXT_CURSOR);
+            writeString(page.getNextCursor());
+            writeRaw(HAS_NEXT);
+            writeRaw(page.isHasNext() ? TRUE : FALSE);
+            writeByte('}');
+        } else if (data instanceof List<?> list) {
+            writeList(list);
+        } else {
+            writeRaw(NULL);
+        }
+        writeByte('}');
+    }
+
+    private void writeList(List<?> appointments) throws IOException {
+        if (appointments == null) {
+            writeRaw(NULL);
+            return;
+        }
+        writeByte('[');
+        boolean first = true;
+        for (Object appointment : appointments) {
+            if (!first) {
+                writeByte(',');
+            }
+            first = false;
+            if (appointment == null) {
+                writeRaw(NULL);
+            } else {
+                writeAppointment((AppointmentCheckupResponse) appointment);
+            }
+        }
+        writeByte(']');
+    }
+
+    private void writeAppointment(AppointmentCheckupResponse appointment) throws IOException {
+        writeRaw(APPOINTMENT_ID);
+        writeString(appointment.getAppointmentId());
+        writeRaw(PATIENT_NAME);
+        writeString(appointment.getPatientName());
+        writeRaw(CHECKUP_TYPE);
+        writeString(appointment.getCheckupType());
+        writeRaw(APPOINTMENT_DATE);
+        writeDate(appointment.getAppointmentDate());
+        writeRaw(APPOINTMENT_TIME);
+        writeTime(appointment.getAppointmentTime());
+        writeRaw(STATUS);
+        writeString(appointment.getStatus());
+        writeRaw(REMARK);
+        writeString(appointment.getRemark());
+        writeByte('}');
+    }
+
+    /**
+     * Same text as {@link DateTimeFormatter#ISO_LOCAL_DATE}; years outside 0..9999 (signed or 5+ digits) take the slow path.
+     */
+    private void writeDate(LocalDate date) throws IOException {
+        if (date == null) {
+            writeRaw(NULL);
+            return;
+        }
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            writeString(date.toString());
+            return;
+        }
+        ensureCapacity(12);
+        byte[] b = buffer;
+        int p = position;
+        b[p++] = '"';
+        b[p++] = (byte) ('0' + year / 1000);
+        b[p++] = (byte) ('0' + year / 100 % 10);
+        b[p++] = (byte) ('0' + year / 10 % 10);
+        b[p++] = (byte) ('0' + year % 10);
+        b[p++] = '-';
+        p = putTwoDigits(b, p, date.getMonthValue());
+        b[p++] = '-';
+        p = putTwoDigits(b, p, date.getDayOfMonth());
+        b[p++] = '"';
+        position = p;
+    }
+
+    /**
+     * Same text as {@link DateTimeFormatter#ISO_LOCAL_TIME} (what Jackson uses): seconds always, and the fraction
+     * only when non-zero, without trailing zeros.
+     */
+    private void writeTime(LocalTime time) throws IOException {
+        if (time == null) {
+            writeRaw(NULL);
+            return;
+        }
+        ensureCapacity(20);
+        byte[] b = buffer;
+        int p = position;
+        b[p++] = '"';
+        p = putTwoDigits(b, p, time.getHour());
+        b[p++] = ':';
+        p = putTwoDigits(b, p, time.getMinute());
+        b[p++] = ':';
+        p = putTwoDigits(b, p, time.getSecond());
+        int nano = time.getNano();
+        if (nano > 0) {
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            b[p++] = '.';
+            p = putDigits(b, p, nano, digits);
+        }
+        b[p++] = '"';
+        position = p;
+    }
+
+    private static int putTwoDigits(byte[] b, int p, int value) {
+        b[p] = (byte) ('0' + value / 10);
+        b[p + 1] = (byte) ('0' + value % 10);
+        return p + 2;
+    }
+
+    private static int putDigits(byte[] b, int p, int value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            b[p + i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return p + digits;
+    }
+
+    /**
+     * UTF-8 with Jackson's escaping: quote, backslash and control chars are escaped, and so is each half of a
+     * surrogate pair (Jackson writes supplementary characters as two \\uXXXX escapes rather than four UTF-8 bytes).
+     */
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeRaw(NULL);
+            return;
+        }
+        writeByte('"');
+        for (int i = 0, length = value.length(); i < length; i++) {
+            if (position + MAX_BYTES_PER_CHAR > buffer.length) {
+                flushBuffer();
+            }
+            char c = value.charAt(i);
+            byte[] b = buffer;
+            if (c < 0x80) {
+                int escape = ESCAPES[c];
+                if (escape == 0) {
+                    b[position++] = (byte) c;
+                } else if (escape > 0) {
+                    b[position++] = '\\';
+                    b[position++] = (byte) escape;
+                } else {
+                    writeUnicodeEscape(c);
+                }
+            } else if (c < 0x800) {
+                b[position++] = (byte) (0xc0 | (c >> 6));
+                b[position++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                writeUnicodeEscape(c);
+            } else {
+                b[position++] = (byte) (0xe0 | (c >> 12));
+                b[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                b[position++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeUnicodeEscape(char c) {
+        byte[] b = buffer;
+        b[position++] = '\\';
+        b[position++] = 'u';
+        b[position++] = HEX[(c >> 12) & 0xf];
+        b[position++] = HEX[(c >> 8) & 0xf];
+        b[position++] = HEX[(c >> 4) & 0xf];
+        b[position++] = HEX[c & 0xf];
+    }
+
+    private void writeByte(char c) throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = (byte) c;
+    }
+
+    private void writeRaw(byte[] bytes) throws IOException {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
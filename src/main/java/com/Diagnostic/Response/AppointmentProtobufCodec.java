@@ -0,0 +1,227 @@
+package com.Diagnostic.Response;
+
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.dto.AppointmentPageResponse;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the messages of {@code src/main/proto/appointment.proto} directly on protobuf's coded streams,
+ * so the DTOs need no generated twins and no copying between the two. Field numbers here must match the schema.
+ */
+public final class AppointmentProtobufCodec {
+
+    // AppointmentCheckupRequest
+    private static final int REQUEST_PATIENT_NAME = 1;
+    private static final int REQUEST_AGE = 2;
+    private static final int REQUEST_GENDER = 3;
+    private static final int REQUEST_MOBILE = 4;
+    private static final int REQUEST_EMAIL = 5;
+    private static final int REQUEST_CHECKUP_TYPE = 6;
+    private static final int REQUEST_PREFERRED_DATE = 7;
+    private static final int REQUEST_PREFERRED_TIME = 8;
+
+    // AppointmentCheckupResponse
+    private static final int APPOINTMENT_ID = 1;
+    private static final int PATIENT_NAME = 2;
+    private static final int CHECKUP_TYPE = 3;
+    private static final int APPOINTMENT_DATE = 4;
+    private static final int APPOINTMENT_TIME = 5;
+    private static final int STATUS = 6;
+    private static final int REMARK = 7;
+
+    // AppointmentPage and AppointmentList
+    private static final int APPOINTMENTS = 1;
+    private static final int NEXT_CURSOR = 2;
+    private static final int HAS_NEXT = 3;
+
+    // AppointmentEnvelope
+    private static final int SUCCESS = 1;
+    private static final int MESSAGE = 2;
+    private static final int DATA_APPOINTMENT = 3;
+    private static final int DATA_PAGE = 4;
+    private static final int DATA_LIST = 5;
+    private static final int ERRORS = 6;
+
+    private static final int MAP_KEY = 1;
+    private static final int MAP_VALUE = 2;
+
+    private AppointmentProtobufCodec() {
+    }
+
+    /**
+     * True if the envelope's data is something the schema has a field for (nothing, an appointment, a page,
+     * a list of appointments or a map of field errors).
+     */
+    public static boolean supports(Object data) {
+        if (data == null || data instanceof AppointmentCheckupResponse || data instanceof AppointmentPageResponse) {
+            return true;
+        }
+        if (data instanceof List<?> list) {
+            return list.stream().allMatch(AppointmentCheckupResponse.class::isInstance);
+        }
+        if (data instanceof Map<?, ?> map) {
+            return map.entrySet().stream().allMatch(entry -> entry.getKey() instanceof String
+                    && (entry.getValue() == null || entry.getValue() instanceof String));
+        }
+        return false;
+    }
+
+    public static void writeEnvelope(CustomResponseModel<?> response, CodedOutputStream out) throws IOException {
+        if (response.isSuccess()) {
+            out.writeBool(SUCCESS, true);
+        }
+        writeString(out, MESSAGE, response.getMessage());
+        Object data = response.getData();
+        if (data instanceof AppointmentCheckupResponse appointment) {
+            out.writeTag(DATA_APPOINTMENT, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(appointmentSize(appointment));
+            writeAppointment(appointment, out);
+        } else if (data instanceof AppointmentPageResponse page) {
+            List<AppointmentCheckupResponse> appointments = page.getAppointments() == null ? List.of() : page.getAppointments();
+            int[] sizes = appointmentSizes(appointments);
+            int pageSize = listSize(sizes) + stringSize(NEXT_CURSOR, page.getNextCursor())
+                    + (page.isHasNext() ? CodedOutputStream.computeBoolSize(HAS_NEXT, true) : 0);
+            out.writeTag(DATA_PAGE, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(pageSize);
+            writeList(appointments, sizes, out);
+            writeString(out, NEXT_CURSOR, page.getNextCursor());
+            if (page.isHasNext()) {
+                out.writeBool(HAS_NEXT, true);
+            }
+        } else if (data instanceof List<?> list) {
+            @SuppressWarnings("unchecked")
+            List<AppointmentCheckupResponse> appointments = (List<AppointmentCheckupResponse>) list;
+            int[] sizes = appointmentSizes(appointments);
+            out.writeTag(DATA_LIST, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(listSize(sizes));
+            writeList(appointments, sizes, out);
+        } else if (data instanceof Map<?, ?> errors) {
+            for (Map.Entry<?, ?> error : errors.entrySet()) {
+                String key = (String) error.getKey();
+                String value = error.getValue() == null ? "" : (String) error.getValue();
+                out.writeTag(ERRORS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(CodedOutputStream.computeStringSize(MAP_KEY, key)
+                        + CodedOutputStream.computeStringSize(MAP_VALUE, value));
+                out.writeString(MAP_KEY, key);
+                out.writeString(MAP_VALUE, value);
+            }
+        } else if (data != null) {
+            throw new IllegalArgumentException("No protobuf field for " + data.getClass().getSimpleName());
+        }
+    }
+
+    public static AppointmentCheckupRequest readRequest(CodedInputStream in) throws IOException {
+        AppointmentCheckupRequest request = new AppointmentCheckupRequest();
+        while (true) {
+            int tag = in.readTag();
+            if (tag == 0) {
+                return request;
+            }
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case REQUEST_PATIENT_NAME -> request.setPatientName(in.readString());
+                case REQUEST_AGE -> request.setAge(in.readInt32());
+                case REQUEST_GENDER -> request.setGender(in.readString());
+                case REQUEST_MOBILE -> request.setMobile(in.readString());
+                case REQUEST_EMAIL -> request.setEmail(in.readString());
+                case REQUEST_CHECKUP_TYPE -> request.setCheckupType(in.readString());
+                case REQUEST_PREFERRED_DATE -> request.setPreferredDate(LocalDate.ofEpochDay(in.readInt32()));
+                case REQUEST_PREFERRED_TIME -> request.setPreferredTime(LocalTime.ofSecondOfDay(in.readInt32()));
+                default -> in.skipField(tag);
+            }
+        }
+    }
+
+    /**
+     * Encodes a request as a client would, for tests and benchmarks.
+     */
+    public static void writeRequest(AppointmentCheckupRequest request, CodedOutputStream out) throws IOException {
+        writeString(out, REQUEST_PATIENT_NAME, request.getPatientName());
+        if (request.getAge() != 0) {
+            out.writeInt32(REQUEST_AGE, request.getAge());
+        }
+        writeString(out, REQUEST_GENDER, request.getGender());
+        writeString(out, REQUEST_MOBILE, request.getMobile());
+        writeString(out, REQUEST_EMAIL, request.getEmail());
+        writeString(out, REQUEST_CHECKUP_TYPE, request.getCheckupType());
+        if (request.getPreferredDate() != null) {
+            out.writeInt32(REQUEST_PREFERRED_DATE, (int) request.getPreferredDate().toEpochDay());
+        }
+        if (request.getPreferredTime() != null) {
+            out.writeInt32(REQUEST_PREFERRED_TIME, request.getPreferredTime().toSecondOfDay());
+        }
+    }
+
+    private static void writeList(List<AppointmentCheckupResponse> appointments, int[] sizes, CodedOutputStream out)
+            throws IOException {
+        for (int i = 0; i < sizes.length; i++) {
+            out.writeTag(APPOINTMENTS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(sizes[i]);
+            writeAppointment(appointments.get(i), out);
+        }
+    }
+
+    private static void writeAppointment(AppointmentCheckupResponse appointment, CodedOutputStream out) throws IOException {
+        writeString(out, APPOINTMENT_ID, appointment.getAppointmentId());
+        writeString(out, PATIENT_NAME, appointment.getPatientName());
+        writeString(out, CHECKUP_TYPE, appointment.getCheckupType());
+        if (appointment.getAppointmentDate() != null) {
+            out.writeInt32(APPOINTMENT_DATE, (int) appointment.getAppointmentDate().toEpochDay());
+        }
+        if (appointment.getAppointmentTime() != null) {
+            out.writeInt32(APPOINTMENT_TIME, appointment.getAppointmentTime().toSecondOfDay());
+        }
+        writeString(out, STATUS, appointment.getStatus());
+        writeString(out, REMARK, appointment.getRemark());
+    }
+
+    // Sub-messages are length-prefixed, so their sizes are computed before anything is written
+    private static int[] appointmentSizes(List<AppointmentCheckupResponse> appointments) {
+        int[] sizes = new int[appointments.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = appointmentSize(appointments.get(i));
+        }
+        return sizes;
+    }
+
+    private static int listSize(int[] sizes) {
+        int total = 0;
+        for (int size : sizes) {
+            total += CodedOutputStream.computeTagSize(APPOINTMENTS) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+        }
+        return total;
+    }
+
+    private static int appointmentSize(AppointmentCheckupResponse appointment) {
+        int size = stringSize(APPOINTMENT_ID, appointment.getAppointmentId())
+                + stringSize(PATIENT_NAME, appointment.getPatientName())
+                + stringSize(CHECKUP_TYPE, appointment.getCheckupType())
+                + stringSize(STATUS, appointment.getStatus())
+                + stringSize(REMARK, appointment.getRemark());
+        if (appointment.getAppointmentDate() != null) {
+            size += CodedOutputStream.computeInt32Size(APPOINTMENT_DATE, (int) appointment.getAppointmentDate().toEpochDay());
+        }
+        if (appointment.getAppointmentTime() != null) {
+            size += CodedOutputStream.computeInt32Size(APPOINTMENT_TIME, appointment.getAppointmentTime().toSecondOfDay());
+        }
+        return size;
+    }
+
+    private static int stringSize(int field, String value) {
+        return value == null ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null) {
+            out.writeString(field, value);
+        }
+    }
+}
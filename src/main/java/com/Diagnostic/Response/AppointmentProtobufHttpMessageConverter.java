@@ -0,0 +1,93 @@
+package com.Diagnostic.Response;
+
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.dto.AppointmentPageResponse;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.DateTimeException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code application/x-protobuf} for appointment requests and responses, in the messages of
+ * {@code src/main/proto/appointment.proto}. Only appointment payloads have a schema; anything else is not writable
+ * in this format, so content negotiation falls back to another converter or answers 406.
+ */
+public class AppointmentProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    public AppointmentProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == AppointmentCheckupRequest.class || clazz == CustomResponseModel.class;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return type == AppointmentCheckupRequest.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (clazz != CustomResponseModel.class || !canWrite(mediaType)) {
+            return false;
+        }
+        if (type == null) {
+            return true;
+        }
+        ResolvableType data = ResolvableType.forType(type).as(CustomResponseModel.class).getGeneric(0);
+        Class<?> dataClass = data.resolve();
+        if (dataClass == AppointmentCheckupResponse.class || dataClass == AppointmentPageResponse.class) {
+            return true;
+        }
+        if (dataClass == List.class) {
+            return data.getGeneric(0).resolve() == AppointmentCheckupResponse.class;
+        }
+        if (dataClass == Map.class) {
+            return data.getGeneric(0).resolve() == String.class && data.getGeneric(1).resolve() == String.class;
+        }
+        return false;
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(AppointmentCheckupRequest.class, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return AppointmentProtobufCodec.readRequest(CodedInputStream.newInstance(inputMessage.getBody()));
+        } catch (DateTimeException | com.google.protobuf.InvalidProtocolBufferException e) {
+            throw new HttpMessageNotReadableException("Invalid protobuf appointment request: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        if (!(object instanceof CustomResponseModel<?> response) || !AppointmentProtobufCodec.supports(response.getData())) {
+            throw new HttpMessageNotWritableException("No protobuf schema for " + object.getClass().getSimpleName());
+        }
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody(), BUFFER_SIZE);
+        AppointmentProtobufCodec.writeEnvelope(response, out);
+        out.flush();
+    }
+}
@@ -0,0 +1,46 @@
+package com.Diagnostic.Response;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary formats for bulk clients, chosen by Accept / Content-Type: CBOR, Smile and protobuf. They are placed
+ * right after the JSON converter, so JSON stays the answer to requests that accept anything.
+ * <p>
+ * Spring MVC would register CBOR and Smile on its own once the Jackson modules are on the classpath, but with a
+ * plain ObjectMapper; these use Spring Boot's, so dates and every spring.jackson.* setting match the JSON output.
+ */
+@Configuration
+public class MessageConverterConfiguration implements WebMvcConfigurer {
+
+    @Autowired
+    private ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+
+        int json = 0;
+        while (json < converters.size() && !(converters.get(json) instanceof MappingJackson2HttpMessageConverter)) {
+            json++;
+        }
+        int position = Math.min(json + 1, converters.size());
+        converters.add(position, new AppointmentProtobufHttpMessageConverter());
+        converters.add(position, new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+        converters.add(position, new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.Diagnostic.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency (additive increase, multiplicative decrease): every request
+ * that completes within the latency threshold while the limit is in use raises it by roughly one per limit's
+ * worth of requests, and every slower request cuts it by {@link #BACKOFF_RATIO}. When the database slows down the
+ * limit shrinks within a few requests, and the excess is refused instead of queueing on Tomcat threads.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+    }
+
+    /**
+     * Takes a place if fewer requests are in flight than the priority's share of the limit allows.
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.getShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives the place back; {@code latencyNanos} is negative for requests whose duration should not move the limit.
+     */
+    public void release(long latencyNanos) {
+        int stillInFlight = inFlight.decrementAndGet();
+        if (latencyNanos >= 0) {
+            onSample(latencyNanos, stillInFlight + 1);
+        }
+    }
+
+    private synchronized void onSample(long latencyNanos, int inFlightAtCompletion) {
+        double current = limit;
+        if (latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, current * BACKOFF_RATIO);
+        } else if (inFlightAtCompletion * 2 >= current) {
+            // Only grow while the limit is actually being used, or an idle node would drift up to maxLimit
+            limit = Math.min(maxLimit, current + 1.0 / current);
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
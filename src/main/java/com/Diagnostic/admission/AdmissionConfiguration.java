@@ -0,0 +1,101 @@
+package com.Diagnostic.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+/**
+ * Admission control for the appointment API, when it is enabled. With virtual threads it is also kept when
+ * admission is disabled: Tomcat's thread pool no longer caps concurrent requests, so without it the excess would
+ * park on Hikari's connection timeout. It then holds requests to a fixed limit below the JDBC pool size and
+ * applies no endpoint caps.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+@Conditional(AdmissionConfiguration.AdmissionOrVirtualThreads.class)
+public class AdmissionConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionConfiguration.class);
+
+    static class AdmissionOrVirtualThreads extends AnyNestedCondition {
+
+        AdmissionOrVirtualThreads() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty(name = "appointment.admission.enabled", havingValue = "true", matchIfMissing = true)
+        static class AdmissionEnabled {
+        }
+
+        @ConditionalOnThreading(Threading.VIRTUAL)
+        static class VirtualThreads {
+        }
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter appointmentConcurrencyLimiter(AdmissionProperties properties, MeterRegistry meterRegistry,
+                                                                    Environment environment,
+                                                                    @Value("${spring.datasource.hikari.maximum-pool-size:10}") int jdbcPoolSize) {
+        AdaptiveConcurrencyLimiter limiter;
+        if (!properties.isEnabled()) {
+            int limit = virtualThreadLimit(Integer.MAX_VALUE, jdbcPoolSize, properties.getReservedConnections());
+            logger.info("Admission control disabled on virtual threads, holding appointment requests to a fixed {} "
+                    + "(JDBC pool size {} less {} reserved)", limit, jdbcPoolSize, properties.getReservedConnections());
+            limiter = new AdaptiveConcurrencyLimiter(limit, limit, limit, Long.MAX_VALUE);
+        } else {
+            int maxLimit = properties.getMaxLimit();
+            if (Threading.VIRTUAL.isActive(environment)) {
+                // With open-in-view an admitted request can hold a connection until it completes; refuse the excess
+                // here rather than park it on Hikari's timeout
+                maxLimit = virtualThreadLimit(maxLimit, jdbcPoolSize, properties.getReservedConnections());
+                logger.info("Virtual threads enabled, capping the appointment concurrency limit at {} "
+                        + "(JDBC pool size {} less {} reserved)", maxLimit, jdbcPoolSize, properties.getReservedConnections());
+            }
+            limiter = new AdaptiveConcurrencyLimiter(properties.getInitialLimit(),
+                    Math.min(properties.getMinLimit(), maxLimit), maxLimit, properties.getLatencyThreshold().toNanos());
+        }
+        Gauge.builder("appointment.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit of the appointment API")
+                .register(meterRegistry);
+        Gauge.builder("appointment.admission.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Appointment API requests currently admitted")
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    /**
+     * Most appointment requests admitted at once on virtual threads: the JDBC pool less the connections reserved for
+     * background work, so the booking log drain, imports and scheduled jobs are not starved by requests, and never
+     * more than {@code maxLimit}. At least one request is always admitted.
+     */
+    public static int virtualThreadLimit(int maxLimit, int jdbcPoolSize, int reservedConnections) {
+        return Math.max(1, Math.min(maxLimit, jdbcPoolSize - Math.max(0, reservedConnections)));
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdaptiveConcurrencyLimiter limiter,
+                                                                                 AdmissionProperties properties,
+                                                                                 ObjectMapper objectMapper,
+                                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(limiter, properties, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/appointment", "/appointment/*");
+        // Ahead of everything else, so a refused request costs as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,149 @@
+package com.Diagnostic.admission;
+
+import com.Diagnostic.Response.CustomResponseModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits appointment API requests only while there is capacity for them, and answers the rest straight away:
+ * 429 when the endpoint's own cap is reached, 503 when the node-wide adaptive limit is (both with Retry-After).
+ * A refused request costs a few microseconds instead of a Tomcat thread waiting on a slow database.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<AppointmentEndpoint, Semaphore> endpointLimits = new EnumMap<>(AppointmentEndpoint.class);
+    private final Map<AppointmentEndpoint, Counter[]> rejections = new EnumMap<>(AppointmentEndpoint.class);
+    private final String retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+
+    public AdmissionControlFilter(AdaptiveConcurrencyLimiter limiter, AdmissionProperties properties,
+                                  ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds()));
+        for (AppointmentEndpoint endpoint : AppointmentEndpoint.values()) {
+            Integer cap = properties.getEndpointLimit().get(endpoint.getEndpointName());
+            // With admission disabled the filter only holds requests to the JDBC pool (see AdmissionConfiguration)
+            if (cap != null && properties.isEnabled()) {
+                endpointLimits.put(endpoint, new Semaphore(cap));
+            }
+            rejections.put(endpoint, new Counter[]{
+                    rejectionCounter(meterRegistry, endpoint, "endpoint-limit"),
+                    rejectionCounter(meterRegistry, endpoint, "overload")});
+        }
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, AppointmentEndpoint endpoint, String reason) {
+        return Counter.builder("appointment.admission.rejected")
+                .description("Appointment API requests refused by admission control")
+                .tag("endpoint", endpoint.getEndpointName())
+                .tag("priority", endpoint.getPriority().name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        AppointmentEndpoint endpoint = AppointmentEndpoint.resolve(request.getMethod(), path);
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Semaphore endpointLimit = endpointLimits.get(endpoint);
+        if (endpointLimit != null && !endpointLimit.tryAcquire()) {
+            rejections.get(endpoint)[0].increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "Too many concurrent " + endpoint.getEndpointName() + " requests, please retry");
+            return;
+        }
+        if (!limiter.tryAcquire(endpoint.getPriority())) {
+            if (endpointLimit != null) {
+                endpointLimit.release();
+            }
+            rejections.get(endpoint)[1].increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, please retry");
+            return;
+        }
+
+        Permit permit = new Permit(endpoint, endpointLimit);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streaming responses keep their place until they are done
+                request.getAsyncContext().addListener(permit);
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new CustomResponseModel<>(false, message, null));
+    }
+
+    private final class Permit implements AsyncListener {
+
+        private final AppointmentEndpoint endpoint;
+        private final Semaphore endpointLimit;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(AppointmentEndpoint endpoint, Semaphore endpointLimit) {
+            this.endpoint = endpoint;
+            this.endpointLimit = endpointLimit;
+        }
+
+        void release() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            limiter.release(endpoint.isLatencySampled() ? System.nanoTime() - start : -1);
+            if (endpointLimit != null) {
+                endpointLimit.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.Diagnostic.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "appointment.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Concurrent appointment requests allowed at startup, before any latency has been observed.
+     */
+    private int initialLimit = 40;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 200;
+
+    /**
+     * Requests slower than this shrink the concurrency limit; faster ones let it grow.
+     */
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    /**
+     * Sent as Retry-After with 429 and 503 responses.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Fixed concurrency caps per endpoint name (get, cancel, book, update, bulk-cancel, list, batch, export),
+     * applied on top of the adaptive limit.
+     */
+    private Map<String, Integer> endpointLimit = new HashMap<>();
+
+    /**
+     * JDBC connections kept back from appointment requests when virtual threads are enabled, for the work that
+     * takes connections outside a request: the booking log drain, the CSV import job and the scheduled jobs (ID
+     * filter rebuild, cleanups).
+     */
+    private int reservedConnections = 4;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    public void setLatencyThreshold(Duration latencyThreshold) {
+        this.latencyThreshold = latencyThreshold;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+
+    public Map<String, Integer> getEndpointLimit() {
+        return endpointLimit;
+    }
+
+    public void setEndpointLimit(Map<String, Integer> endpointLimit) {
+        this.endpointLimit = endpointLimit;
+    }
+
+    public int getReservedConnections() {
+        return reservedConnections;
+    }
+
+    public void setReservedConnections(int reservedConnections) {
+        this.reservedConnections = reservedConnections;
+    }
+}
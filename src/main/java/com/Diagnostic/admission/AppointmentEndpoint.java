@@ -0,0 +1,79 @@
+package com.Diagnostic.admission;
+
+/**
+ * The appointment API endpoints as seen by admission control, with their priority class. The name is the key
+ * used for per-endpoint limits ({@code appointment.admission.endpoint-limit.<name>}).
+ */
+public enum AppointmentEndpoint {
+    GET_BY_ID("get", RequestPriority.CRITICAL, true),
+    CANCEL("cancel", RequestPriority.CRITICAL, true),
+    BOOK("book", RequestPriority.NORMAL, true),
+    UPDATE("update", RequestPriority.NORMAL, true),
+    // Bulk endpoints take as long as the page, batch or id list the client asked for, so their durations are not
+    // measured against the single latency threshold; otherwise a few large requests would shrink the limit and
+    // shed CRITICAL reads. They are still bounded by their priority share and any endpoint limit
+    BULK_CANCEL("bulk-cancel", RequestPriority.NORMAL, false),
+    LIST("list", RequestPriority.BULK, false),
+    BATCH("batch", RequestPriority.BULK, false),
+    // Streams for as long as the table takes to read, so its duration says nothing about overload
+    EXPORT("export", RequestPriority.BULK, false),
+    // Upload of an import file; its duration is the client's upload speed
+    IMPORT("import", RequestPriority.BULK, false);
+
+    private static final String BASE_PATH = "/appointment";
+
+    private final String endpointName;
+    private final RequestPriority priority;
+    private final boolean latencySampled;
+
+    AppointmentEndpoint(String endpointName, RequestPriority priority, boolean latencySampled) {
+        this.endpointName = endpointName;
+        this.priority = priority;
+        this.latencySampled = latencySampled;
+    }
+
+    /**
+     * Maps a request to its endpoint, or returns null for anything outside the appointment API.
+     */
+    public static AppointmentEndpoint resolve(String method, String path) {
+        if (!path.startsWith(BASE_PATH)) {
+            return null;
+        }
+        String rest = path.substring(BASE_PATH.length());
+        if (rest.isEmpty() || rest.equals("/")) {
+            return switch (method) {
+                case "GET" -> LIST;
+                case "POST" -> BOOK;
+                default -> null;
+            };
+        }
+        if (rest.charAt(0) != '/' || rest.indexOf('/', 1) >= 0) {
+            return null;
+        }
+        String segment = rest.substring(1);
+        return switch (method) {
+            case "GET" -> "export".equals(segment) ? EXPORT : GET_BY_ID;
+            case "POST" -> switch (segment) {
+                case "batch" -> BATCH;
+                case "bulk-cancel" -> BULK_CANCEL;
+                case "import" -> IMPORT;
+                default -> null;
+            };
+            case "DELETE" -> CANCEL;
+            case "PUT", "PATCH" -> UPDATE;
+            default -> null;
+        };
+    }
+
+    public String getEndpointName() {
+        return endpointName;
+    }
+
+    public RequestPriority getPriority() {
+        return priority;
+    }
+
+    public boolean isLatencySampled() {
+        return latencySampled;
+    }
+}
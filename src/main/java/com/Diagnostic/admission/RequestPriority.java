@@ -0,0 +1,21 @@
+package com.Diagnostic.admission;
+
+/**
+ * Priority classes for admission. Each class may only use its share of the concurrency limit, so as the limit
+ * fills up bulk work is refused first and reads by ID and cancellations keep the remaining headroom.
+ */
+public enum RequestPriority {
+    CRITICAL(1.0),
+    NORMAL(0.8),
+    BULK(0.5);
+
+    private final double share;
+
+    RequestPriority(double share) {
+        this.share = share;
+    }
+
+    public double getShare() {
+        return share;
+    }
+}
@@ -0,0 +1,400 @@
+package com.Diagnostic.booking;
+
+import com.Diagnostic.entity.Appointment;
+import com.Diagnostic.exception.BookingUnavailableException;
+import com.Diagnostic.repository.AppointmentRepository;
+import com.Diagnostic.service.SlotCapacityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind path for single bookings, enabled with {@code appointment.booking.async=true}.
+ * <p>
+ * Request threads hand their booking to a group-commit thread, which writes everything waiting to the
+ * {@link BookingWriteAheadLog} and fsyncs once; each request is answered once its booking is on disk.
+ * A drain thread then inserts the logged bookings in batched transactions. At startup, bookings left in the log
+ * by a previous run are inserted (skipping those that already made it) before any new booking is accepted.
+ * <p>
+ * At most {@code max-backlog} bookings are accepted but not yet stored; beyond that, and when the log does not
+ * confirm within {@code append-timeout}, bookings are refused with {@link BookingUnavailableException}. A booking
+ * the database rejects is set aside next to the log instead of being retried for ever.
+ */
+@Component
+@ConditionalOnProperty(name = "appointment.booking.async", havingValue = "true")
+public class AsyncBookingPipeline implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncBookingPipeline.class);
+
+    private static final long POLL_MILLIS = 100;
+    private static final long INITIAL_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    // Attempts while replaying at startup before giving up on an unavailable database and failing the start
+    static final int REPLAY_ATTEMPTS = 5;
+
+    @Autowired
+    private BookingProperties properties;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private SlotCapacityService slotCapacityService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private BookingWriteAheadLog log;
+    private BlockingQueue<PendingAppend> appendQueue;
+    private BlockingQueue<LoggedBooking> drainQueue;
+    // One permit per booking accepted but not yet stored (or set aside)
+    private Semaphore backlogPermits;
+    private Thread groupCommitThread;
+    private Thread drainThread;
+    private volatile boolean running;
+
+    /**
+     * @param taken set by whoever gets to it first: the group commit, to write it, or the request, to withdraw it
+     *              after waiting too long
+     */
+    private record PendingAppend(Appointment appointment, AtomicBoolean taken, CompletableFuture<Void> durable) {
+    }
+
+    /**
+     * Logs the booking and returns once it is fsync'd; it is inserted into the database later.
+     *
+     * @throws BookingUnavailableException if the backlog is full or the log does not confirm in time
+     */
+    public void submit(Appointment appointment) {
+        if (!running) {
+            throw new BookingUnavailableException("Booking log is not accepting bookings");
+        }
+        if (!backlogPermits.tryAcquire()) {
+            throw new BookingUnavailableException("Too many bookings are waiting for the database, please retry");
+        }
+        PendingAppend pending = new PendingAppend(appointment, new AtomicBoolean(), new CompletableFuture<>());
+        if (!appendQueue.offer(pending)) {
+            backlogPermits.release();
+            throw new BookingUnavailableException("Booking log is full, please retry");
+        }
+        awaitDurable(pending);
+    }
+
+    private void awaitDurable(PendingAppend pending) {
+        long timeoutNanos = properties.getAppendTimeout().toNanos();
+        try {
+            try {
+                pending.durable().get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException | InterruptedException e) {
+                boolean interrupted = e instanceof InterruptedException;
+                try {
+                    if (withdraw(pending)) {
+                        throw new BookingUnavailableException("Booking log did not confirm in time, please retry");
+                    }
+                    // The group commit is already writing it, so its outcome decides
+                    pending.durable().get(timeoutNanos, TimeUnit.NANOSECONDS);
+                } finally {
+                    if (interrupted) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw new UncheckedIOException("Could not write booking to the log", cause);
+            }
+            throw new IllegalStateException("Could not write booking to the log", e.getCause());
+        } catch (TimeoutException e) {
+            // The write is stuck on the disk; should it complete after all, the booking is still stored
+            throw new BookingUnavailableException("Booking log is not responding, please retry");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingUnavailableException("Interrupted while waiting for the booking log");
+        }
+    }
+
+    /**
+     * Takes a booking back out of the queue before the group commit gets to it; false if it already has.
+     */
+    private boolean withdraw(PendingAppend pending) {
+        if (!pending.taken().compareAndSet(false, true)) {
+            return false;
+        }
+        backlogPermits.release();
+        return true;
+    }
+
+    /**
+     * Bookings accepted but not yet stored in the database (or set aside).
+     */
+    public int backlog() {
+        return properties.getMaxBacklog() - backlogPermits.availablePermits();
+    }
+
+    @Override
+    public void start() {
+        try {
+            log = new BookingWriteAheadLog(Path.of(properties.getWalDirectory()), properties.getSegmentBytes(), objectMapper);
+            replay(log.replay());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the booking log in " + properties.getWalDirectory(), e);
+        }
+        appendQueue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        // Never fuller than the backlog permits allow, so adding to it cannot fail
+        drainQueue = new LinkedBlockingQueue<>(properties.getMaxBacklog());
+        backlogPermits = new Semaphore(properties.getMaxBacklog());
+        running = true;
+        groupCommitThread = new Thread(this::groupCommitLoop, "booking-group-commit");
+        drainThread = new Thread(this::drainLoop, "booking-drain");
+        groupCommitThread.start();
+        drainThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            groupCommitThread.join();
+            drainThread.join();
+            log.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.warn("Could not close the booking log", e);
+        }
+        if (drainQueue != null && !drainQueue.isEmpty()) {
+            logger.warn("{} logged bookings not yet stored; they will be replayed at the next start", drainQueue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the web server, so no request arrives while the log is closed.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void replay(List<LoggedBooking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        logger.info("Replaying {} bookings from the booking log", bookings.size());
+        for (int from = 0; from < bookings.size(); from += properties.getDrainBatchSize()) {
+            List<LoggedBooking> chunk = bookings.subList(from, Math.min(from + properties.getDrainBatchSize(), bookings.size()));
+            Set<String> stored = new HashSet<>(appointmentRepository.findExistingAppointmentIds(
+                    chunk.stream().map(booking -> booking.appointment().getAppointmentId()).toList()));
+            List<LoggedBooking> missing = new ArrayList<>(chunk.size());
+            for (LoggedBooking booking : chunk) {
+                if (stored.contains(booking.appointment().getAppointmentId())) {
+                    log.drained(booking.segment(), 1);
+                } else {
+                    missing.add(booking);
+                }
+            }
+            store(missing, false);
+        }
+        // The slot counters were built from the database before these rows were in it
+        slotCapacityService.warmUp();
+    }
+
+    private void groupCommitLoop() {
+        List<PendingAppend> polled = new ArrayList<>(properties.getGroupCommitSize());
+        List<PendingAppend> group = new ArrayList<>(properties.getGroupCommitSize());
+        List<Appointment> appointments = new ArrayList<>(properties.getGroupCommitSize());
+        while (running || !appendQueue.isEmpty()) {
+            try {
+                PendingAppend first = appendQueue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                polled.add(first);
+                appendQueue.drainTo(polled, properties.getGroupCommitSize() - 1);
+                for (PendingAppend pending : polled) {
+                    // Skips bookings whose request stopped waiting; they were withdrawn with their permit
+                    if (pending.taken().compareAndSet(false, true)) {
+                        group.add(pending);
+                        appointments.add(pending.appointment());
+                    }
+                }
+                if (group.isEmpty()) {
+                    continue;
+                }
+
+                long segment = log.append(appointments);
+                for (PendingAppend pending : group) {
+                    drainQueue.add(new LoggedBooking(segment, pending.appointment()));
+                    pending.durable().complete(null);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable e) {
+                // Anything, not only an IOException: a request must never wait for a thread that has died
+                logger.error("Could not write {} bookings to the log", group.size(), e);
+                for (PendingAppend pending : group) {
+                    if (pending.durable().completeExceptionally(e)) {
+                        backlogPermits.release();
+                    }
+                }
+            } finally {
+                polled.clear();
+                group.clear();
+                appointments.clear();
+            }
+        }
+    }
+
+    private void drainLoop() {
+        List<LoggedBooking> batch = new ArrayList<>(properties.getDrainBatchSize());
+        while (running || !appendQueue.isEmpty() || !drainQueue.isEmpty()) {
+            try {
+                LoggedBooking first = drainQueue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                drainQueue.drainTo(batch, properties.getDrainBatchSize() - 1);
+                if (!store(batch, true)) {
+                    // Stopped while the database was unavailable; leave the rest to the next replay
+                    return;
+                }
+                backlogPermits.release(batch.size());
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Inserts the bookings in one transaction, retrying while the database is unavailable. If the batch fails for
+     * any other reason, the bookings are inserted one by one and only the offending ones are set aside.
+     *
+     * @param draining called by the drain thread, which retries for as long as it runs and gives up (returning
+     *                 false) when the application is shutting down; otherwise this is the replay at startup,
+     *                 which fails the start after {@link #REPLAY_ATTEMPTS} rather than hang it
+     */
+    private boolean store(List<LoggedBooking> bookings, boolean draining) {
+        List<LoggedBooking> remaining = new ArrayList<>(bookings);
+        boolean oneByOne = false;
+        int attempts = 0;
+        long backoff = INITIAL_BACKOFF_MILLIS;
+        while (!remaining.isEmpty()) {
+            try {
+                if (!oneByOne) {
+                    insert(remaining);
+                    remaining.clear();
+                } else {
+                    LoggedBooking booking = remaining.get(0);
+                    try {
+                        insert(List.of(booking));
+                    } catch (RuntimeException e) {
+                        if (isUnavailable(e)) {
+                            throw e;
+                        }
+                        setAside(booking, e);
+                    }
+                    remaining.remove(0);
+                }
+                attempts = 0;
+                backoff = INITIAL_BACKOFF_MILLIS;
+            } catch (RuntimeException e) {
+                if (!isUnavailable(e)) {
+                    logger.warn("Batch of {} logged bookings was rejected, storing individually", remaining.size(), e);
+                    oneByOne = true;
+                    continue;
+                }
+                if (draining && !running) {
+                    return false;
+                }
+                if (!draining && ++attempts >= REPLAY_ATTEMPTS) {
+                    throw new IllegalStateException("Database unavailable while replaying the booking log; "
+                            + remaining.size() + " bookings stay in the log for the next start", e);
+                }
+                logger.warn("Could not store {} logged bookings, retrying in {} ms", remaining.size(), backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Failures worth retrying because the database (or the connection to it) is down, as opposed to a booking
+     * the database will not take however often it is sent.
+     */
+    private static boolean isUnavailable(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void setAside(LoggedBooking booking, RuntimeException cause) {
+        Appointment appointment = booking.appointment();
+        logger.error("Setting aside logged booking {} rejected by the database", appointment.getAppointmentId(), cause);
+        if ("Confirmed".equals(appointment.getStatus())) {
+            slotCapacityService.release(slotCapacityService.slotOf(appointment));
+        }
+        try {
+            log.setAside(booking);
+        } catch (IOException e) {
+            // Left outstanding, so its segment is kept and it is tried again at the next start
+            logger.error("Could not set aside logged booking {}", appointment.getAppointmentId(), e);
+        }
+    }
+
+    private void insert(List<LoggedBooking> bookings) {
+        List<Appointment> appointments = new ArrayList<>(bookings.size());
+        for (LoggedBooking booking : bookings) {
+            // Ids handed out by a failed attempt are not reused
+            booking.appointment().setId(null);
+            appointments.add(booking.appointment());
+        }
+        transactionTemplate.executeWithoutResult(status -> appointmentRepository.saveAll(appointments));
+        for (LoggedBooking booking : bookings) {
+            log.drained(booking.segment(), 1);
+        }
+    }
+}
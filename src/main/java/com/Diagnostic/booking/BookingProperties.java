@@ -0,0 +1,118 @@
+package com.Diagnostic.booking;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "appointment.booking")
+public class BookingProperties {
+
+    /**
+     * Accept single bookings into the local write-ahead log and insert them in the background (202 Accepted),
+     * instead of inserting each one before answering.
+     */
+    private boolean async = false;
+
+    /**
+     * Directory of the write-ahead log. It holds patient details until they are in the database, so it must be
+     * on local, persistent and access-restricted storage.
+     */
+    private String walDirectory = "data/booking-wal";
+
+    /**
+     * Most bookings written and fsync'd together by one group commit.
+     */
+    private int groupCommitSize = 256;
+
+    /**
+     * Most bookings inserted per background transaction.
+     */
+    private int drainBatchSize = 200;
+
+    /**
+     * Bookings that may wait for the log before new ones are refused.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Bookings accepted but not yet stored in the database before new ones are refused with 503, so an outage of
+     * the database cannot fill the heap.
+     */
+    private int maxBacklog = 50_000;
+
+    /**
+     * How long a request waits for its booking to be written to the log before it is refused.
+     */
+    private Duration appendTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Size after which the log moves on to a new segment; a segment is deleted once all its bookings are stored.
+     */
+    private long segmentBytes = 16 * 1024 * 1024;
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public String getWalDirectory() {
+        return walDirectory;
+    }
+
+    public void setWalDirectory(String walDirectory) {
+        this.walDirectory = walDirectory;
+    }
+
+    public int getGroupCommitSize() {
+        return groupCommitSize;
+    }
+
+    public void setGroupCommitSize(int groupCommitSize) {
+        this.groupCommitSize = groupCommitSize;
+    }
+
+    public int getDrainBatchSize() {
+        return drainBatchSize;
+    }
+
+    public void setDrainBatchSize(int drainBatchSize) {
+        this.drainBatchSize = drainBatchSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxBacklog() {
+        return maxBacklog;
+    }
+
+    public void setMaxBacklog(int maxBacklog) {
+        this.maxBacklog = maxBacklog;
+    }
+
+    public Duration getAppendTimeout() {
+        return appendTimeout;
+    }
+
+    public void setAppendTimeout(Duration appendTimeout) {
+        this.appendTimeout = appendTimeout;
+    }
+
+    public long getSegmentBytes() {
+        return segmentBytes;
+    }
+
+    public void setSegmentBytes(long segmentBytes) {
+        this.segmentBytes = segmentBytes;
+    }
+}
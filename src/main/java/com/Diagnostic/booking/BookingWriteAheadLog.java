@@ -0,0 +1,202 @@
+package com.Diagnostic.booking;
+
+import com.Diagnostic.entity.Appointment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of accepted bookings, split into numbered segment files. Each record is a 4-byte length,
+ * a 4-byte CRC32 and the booking as JSON, so a record torn by a crash is recognised and dropped on replay.
+ * <p>
+ * {@link #append} is called by a single group-commit thread; {@link #drained} may be called from any thread.
+ * A segment is deleted once the log has moved past it and every booking in it has been stored.
+ */
+public class BookingWriteAheadLog implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingWriteAheadLog.class);
+
+    private static final String SEGMENT_PREFIX = "bookings-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    public static final String SET_ASIDE_FILE = "rejected-bookings.ndjson";
+    private static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final ObjectMapper objectMapper;
+
+    private FileChannel active;
+    private long activeSegment;
+    // Bookings per segment that are logged but not yet stored; guarded by this
+    private final Map<Long, Integer> outstanding = new HashMap<>();
+
+    public BookingWriteAheadLog(Path directory, long segmentBytes, ObjectMapper objectMapper) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.objectMapper = objectMapper;
+        Files.createDirectories(directory);
+        List<Long> segments = segments();
+        // Always start a fresh segment, so the ones being replayed can be deleted as soon as they are stored
+        activeSegment = segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1;
+        active = open(activeSegment);
+    }
+
+    /**
+     * Reads every intact record of the existing segments, oldest first, and counts them as outstanding.
+     */
+    public synchronized List<LoggedBooking> replay() throws IOException {
+        List<LoggedBooking> bookings = new ArrayList<>();
+        for (long segment : segments()) {
+            if (segment == activeSegment) {
+                continue;
+            }
+            List<Appointment> appointments = read(segmentPath(segment));
+            for (Appointment appointment : appointments) {
+                bookings.add(new LoggedBooking(segment, appointment));
+            }
+            outstanding.merge(segment, appointments.size(), Integer::sum);
+            deleteIfDone(segment);
+        }
+        return bookings;
+    }
+
+    /**
+     * Writes the bookings and forces them to disk with a single fsync. Returns the segment they were written to.
+     */
+    public long append(List<Appointment> appointments) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(appointments.size() * 256);
+        CRC32 crc = new CRC32();
+        for (Appointment appointment : appointments) {
+            byte[] payload = objectMapper.writeValueAsBytes(appointment);
+            crc.reset();
+            crc.update(payload);
+            buffer.write(ByteBuffer.allocate(HEADER_BYTES).putInt(payload.length).putInt((int) crc.getValue()).array());
+            buffer.write(payload);
+        }
+
+        long segment;
+        synchronized (this) {
+            if (active.size() >= segmentBytes) {
+                roll();
+            }
+            segment = activeSegment;
+            outstanding.merge(segment, appointments.size(), Integer::sum);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            active.write(bytes);
+        }
+        active.force(false);
+        return segment;
+    }
+
+    /**
+     * Records that {@code count} bookings of the segment are now stored in the database.
+     */
+    public synchronized void drained(long segment, int count) {
+        outstanding.computeIfPresent(segment, (key, current) -> current - count);
+        deleteIfDone(segment);
+    }
+
+    /**
+     * Moves a booking the database will not take out of the log: it is appended to {@value #SET_ASIDE_FILE} next
+     * to the segments, so the patient's details are kept for follow-up, and counted as drained.
+     */
+    public synchronized void setAside(LoggedBooking booking) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        line.write(objectMapper.writeValueAsBytes(booking.appointment()));
+        line.write('\n');
+        try (FileChannel channel = FileChannel.open(directory.resolve(SET_ASIDE_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(line.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+        drained(booking.segment(), 1);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        active.close();
+    }
+
+    private void roll() throws IOException {
+        long previous = activeSegment;
+        active.close();
+        activeSegment++;
+        active = open(activeSegment);
+        deleteIfDone(previous);
+    }
+
+    private void deleteIfDone(long segment) {
+        if (segment == activeSegment || outstanding.getOrDefault(segment, 0) > 0) {
+            return;
+        }
+        outstanding.remove(segment);
+        try {
+            Files.deleteIfExists(segmentPath(segment));
+        } catch (IOException e) {
+            logger.warn("Could not delete booking log segment {}", segment, e);
+        }
+    }
+
+    private List<Appointment> read(Path path) throws IOException {
+        List<Appointment> appointments = new ArrayList<>();
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(path));
+        CRC32 crc = new CRC32();
+        while (data.remaining() >= HEADER_BYTES) {
+            int length = data.getInt();
+            int checksum = data.getInt();
+            if (length < 0 || length > data.remaining()) {
+                logger.warn("Ignoring torn record at the end of {}", path);
+                break;
+            }
+            byte[] payload = new byte[length];
+            data.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                logger.warn("Ignoring corrupt record at the end of {}", path);
+                break;
+            }
+            appointments.add(objectMapper.readValue(payload, Appointment.class));
+        }
+        return appointments;
+    }
+
+    private List<Long> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(SEGMENT_PREFIX + String.format("%012d", segment) + SEGMENT_SUFFIX);
+    }
+
+    private FileChannel open(long segment) throws IOException {
+        return FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
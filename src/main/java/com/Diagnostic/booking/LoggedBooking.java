@@ -0,0 +1,9 @@
+package com.Diagnostic.booking;
+
+import com.Diagnostic.entity.Appointment;
+
+/**
+ * A booking that is durable in the given log segment but not yet stored in the database.
+ */
+public record LoggedBooking(long segment, Appointment appointment) {
+}
@@ -3,33 +3,110 @@ package com.Diagnostic.controller;
 import com.Diagnostic.Response.CustomResponseModel;
 import com.Diagnostic.dto.AppointmentCheckupRequest;
 import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.dto.AppointmentPageResponse;
+import com.Diagnostic.dto.AppointmentPatchRequest;
+import com.Diagnostic.dto.AppointmentSearchCriteria;
+import com.Diagnostic.dto.BatchBookingResult;
+import com.Diagnostic.dto.BulkCancelRequest;
+import com.Diagnostic.dto.BulkCancelResult;
+import com.Diagnostic.dto.ExportFormat;
+import com.Diagnostic.exception.AppointmentNotFoundException;
+import com.Diagnostic.exception.BookingUnavailableException;
+import com.Diagnostic.exception.IdempotencyKeyInProgressException;
+import com.Diagnostic.exception.IdempotencyKeyMismatchException;
+import com.Diagnostic.exception.UnsupportedExportFormatException;
 import com.Diagnostic.service.AppointmentService;
+import com.Diagnostic.service.IdempotencyService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
 @RequestMapping("/appointment")
 public class AppointmentController {
 
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
     @Autowired
     private AppointmentService appointmentService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Value("${appointment.booking.async:false}")
+    private boolean asyncBooking;
+
     @PostMapping("")
     public ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>> apply(
-            @Valid @RequestBody AppointmentCheckupRequest request) {
+            @Valid @RequestBody AppointmentCheckupRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) {
+        if (idempotencyKey == null) {
+            return book(request);
+        }
+        try {
+            // A retry with the same key gets the first response back without booking again
+            return idempotencyService.execute(clientId(httpRequest), idempotencyKey, request, () -> book(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
+        } catch (IdempotencyKeyMismatchException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
+        } catch (IdempotencyKeyInProgressException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
+        }
+    }
+
+    /**
+     * Who an Idempotency-Key belongs to: the authenticated user if there is one, else the client's own
+     * {@value #CLIENT_ID_HEADER}, else its address.
+     */
+    private static String clientId(HttpServletRequest httpRequest) {
+        if (httpRequest.getUserPrincipal() != null) {
+            return "user:" + httpRequest.getUserPrincipal().getName();
+        }
+        String clientId = httpRequest.getHeader(CLIENT_ID_HEADER);
+        if (clientId != null && !clientId.isBlank()) {
+            return "client:" + clientId;
+        }
+        return "address:" + httpRequest.getRemoteAddr();
+    }
+
+    private ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>> book(AppointmentCheckupRequest request) {
         try {
             AppointmentCheckupResponse response = appointmentService.bookAppointment(request);
+            if (asyncBooking) {
+                // Durable in the booking log; it is stored in the database shortly after
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(new CustomResponseModel<>(true, "Appointment accepted", response));
+            }
             CustomResponseModel<AppointmentCheckupResponse> customResponse = new CustomResponseModel<>(
                     true,
                     "Appointment booked successfully",
                     response
             );
             return ResponseEntity.status(HttpStatus.CREATED).body(customResponse);
+        } catch (BookingUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
         } catch (Exception e) {
             CustomResponseModel<AppointmentCheckupResponse> errorResponse = new CustomResponseModel<>(
                     false,
@@ -40,23 +117,74 @@ public class AppointmentController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<CustomResponseModel<List<BatchBookingResult>>> applyBatch(
+            @RequestBody List<AppointmentCheckupRequest> requests) {
+        try {
+            List<BatchBookingResult> results = appointmentService.bookAppointments(requests);
+            long booked = results.stream().filter(BatchBookingResult::isSuccess).count();
+            HttpStatus status = booked == results.size() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(new CustomResponseModel<>(
+                    booked > 0,
+                    booked + " of " + results.size() + " appointments booked",
+                    results
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new CustomResponseModel<>(false, "Error while booking appointments: " + e.getMessage(), null));
+        }
+    }
+
     @DeleteMapping("/{appointmentId}")
     public ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>> deleteAppointment(@PathVariable String appointmentId) {
         try {
             AppointmentCheckupResponse response = appointmentService.cancelAppointmentById(appointmentId);
-            return ResponseEntity.ok(new CustomResponseModel<>(true, "Appointment deleted successfully", response));
+            return ResponseEntity.ok(new CustomResponseModel<>(true, "Appointment cancelled successfully", response));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new CustomResponseModel<>(false, e.getMessage(), null));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new CustomResponseModel<>(false, e.getMessage(), null));
         }
     }
 
+    @PostMapping("/bulk-cancel")
+    public ResponseEntity<CustomResponseModel<BulkCancelResult>> cancelAppointments(
+            @RequestBody BulkCancelRequest request) {
+        try {
+            BulkCancelResult result = appointmentService.cancelAppointments(request);
+            return ResponseEntity.ok(new CustomResponseModel<>(
+                    true,
+                    result.getCancelled() + " appointments cancelled",
+                    result
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new CustomResponseModel<>(false, "Error while cancelling appointments: " + e.getMessage(), null));
+        }
+    }
+
     @GetMapping("/{appointmentId}")
     public ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>> getAppointmentDetails(@PathVariable String appointmentId) {
         try {
             AppointmentCheckupResponse response = appointmentService.getAppointmentById(appointmentId);
 
-            return ResponseEntity.ok(new CustomResponseModel<>(true, "Appointment found successfully", response));
+            // With an ETag (and Last-Modified) set, Spring answers matching conditional GETs with 304 and no body.
+            // The ETag is the row version whatever the format, so caches must also key on Accept
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .eTag(Long.toString(response.getVersion()))
+                    .varyBy(HttpHeaders.ACCEPT);
+            if (response.getLastModified() != null) {
+                builder.lastModified(response.getLastModified());
+            }
+            return builder.body(new CustomResponseModel<>(true, "Appointment found successfully", response));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
@@ -64,15 +192,38 @@ public class AppointmentController {
     }
 
     @GetMapping("")
-    public ResponseEntity<CustomResponseModel<List<AppointmentCheckupResponse>>> getAllAppointments() {
+    public ResponseEntity<CustomResponseModel<AppointmentPageResponse>> getAllAppointments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String checkupType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            NativeWebRequest webRequest) {
         try {
-            List<AppointmentCheckupResponse> responses = appointmentService.getAllAppointments();
+            AppointmentSearchCriteria criteria = new AppointmentSearchCriteria(fromDate, toDate, status, checkupType);
+            HttpServletResponse httpResponse = webRequest.getNativeResponse(HttpServletResponse.class);
+            if (httpResponse != null) {
+                // The page ETag is the same for every format, so caches must also key on Accept
+                httpResponse.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+            if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                    && webRequest.checkNotModified(appointmentService.getAppointmentsEtag(criteria, cursor, limit))) {
+                // checkNotModified has already set the 304 status and the ETag header
+                return null;
+            }
+            AppointmentPageResponse response = appointmentService.getAppointments(criteria, cursor, limit);
 
-            return ResponseEntity.ok(new CustomResponseModel<>(
-                    true,
-                    "Appointments fetched successfully",
-                    responses
-            ));
+            return ResponseEntity.ok()
+                    .eTag(response.getEtag())
+                    .body(new CustomResponseModel<>(
+                            true,
+                            "Appointments fetched successfully",
+                            response
+                    ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new CustomResponseModel<>(
@@ -83,6 +234,21 @@ public class AppointmentController {
         }
     }
 
+    // Declared as StreamingResponseBody so the streaming return value handler picks it up; an unknown
+    // format is reported by handleUnsupportedExportFormat
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.from(format);
+
+        // Rows are written while the database cursor is still open, on the async request thread
+        StreamingResponseBody body = outputStream -> appointmentService.exportAppointments(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"appointments." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
     @PutMapping("/{appointmentId}")
     public ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>> updateAppointment(
             @Valid @PathVariable String appointmentId,
@@ -90,12 +256,49 @@ public class AppointmentController {
         try {
             AppointmentCheckupResponse response = appointmentService.updateAppointment(appointmentId, request);
             return ResponseEntity.ok(new CustomResponseModel<>(true, "Appointment updated successfully", response));
-        } catch (RuntimeException e) {
+        } catch (AppointmentNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new CustomResponseModel<>(false, "Appointment is being updated by another request, please retry", null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new CustomResponseModel<>(false, "Internal server error: " + e.getMessage(), null));
         }
     }
+
+    @PatchMapping("/{appointmentId}")
+    public ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>> patchAppointment(
+            @PathVariable String appointmentId,
+            @Valid @RequestBody AppointmentPatchRequest request) {
+        try {
+            AppointmentCheckupResponse response = appointmentService.patchAppointment(appointmentId, request);
+            return ResponseEntity.ok(new CustomResponseModel<>(true, "Appointment updated successfully", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
+        } catch (AppointmentNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new CustomResponseModel<>(false, "Appointment is being updated by another request, please retry", null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new CustomResponseModel<>(false, "Internal server error: " + e.getMessage(), null));
+        }
+    }
+
+    @ExceptionHandler(UnsupportedExportFormatException.class)
+    public ResponseEntity<CustomResponseModel<Object>> handleUnsupportedExportFormat(UnsupportedExportFormatException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
+    }
 }
@@ -0,0 +1,83 @@
+package com.Diagnostic.controller;
+
+import com.Diagnostic.Response.CustomResponseModel;
+import com.Diagnostic.importer.AppointmentImporter;
+import com.Diagnostic.importer.ImportJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/appointment/import")
+public class AppointmentImportController {
+
+    @Autowired
+    private AppointmentImporter importer;
+
+    /**
+     * Accepts a CSV file (the request body, streamed to disk) and imports it in the background. Rows dated in the
+     * past are rejected as for single bookings; historical data is migrated with the command-line runner.
+     */
+    @PostMapping(value = "", consumes = {"text/csv", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<CustomResponseModel<ImportJob>> startImport(InputStream body) {
+        try {
+            ImportJob job = importer.submit(body);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/appointment/import/" + job.getJobId()))
+                    .body(new CustomResponseModel<>(true, "Import accepted", job));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new CustomResponseModel<>(false, "Error while storing import file: " + e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<CustomResponseModel<ImportJob>> getImport(@PathVariable String jobId) throws IOException {
+        ImportJob job = importer.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new CustomResponseModel<>(false, "Import not found: " + jobId, null));
+        }
+        return ResponseEntity.ok(new CustomResponseModel<>(true, "Import " + job.getState(), job));
+    }
+
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<CustomResponseModel<ImportJob>> resumeImport(@PathVariable String jobId) throws IOException {
+        try {
+            ImportJob job = importer.resume(jobId);
+            if (job == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new CustomResponseModel<>(false, "Import not found: " + jobId, null));
+            }
+            return ResponseEntity.accepted().body(new CustomResponseModel<>(true, "Import resumed", job));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new CustomResponseModel<>(false, "Error: " + e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/{jobId}/errors")
+    public ResponseEntity<?> getImportErrors(@PathVariable String jobId) {
+        Path report = importer.getErrorReport(jobId);
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new CustomResponseModel<>(false, "No error report for import: " + jobId, null));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + jobId + "-errors.csv\"")
+                .body(new FileSystemResource(report));
+    }
+}
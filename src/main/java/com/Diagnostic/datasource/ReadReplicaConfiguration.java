@@ -0,0 +1,77 @@
+package com.Diagnostic.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single datasource with a primary pool (spring.datasource.*) and one pool per
+ * {@code appointment.datasource.replicas[n]}, routed by {@link ReadWriteRoutingDataSource}. Only active when at
+ * least one replica is configured.
+ */
+@Configuration
+@EnableConfigurationProperties({DataSourceProperties.class, ReadReplicaProperties.class})
+@ConditionalOnProperty(name = "appointment.datasource.replicas[0].url")
+public class ReadReplicaConfiguration {
+
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                 ReadReplicaProperties replicaProperties,
+                                                                 Environment environment,
+                                                                 MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory poolMetrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        primary.setMetricsTrackerFactory(poolMetrics);
+
+        List<ReadWriteRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (ReadReplicaProperties.Replica properties : replicaProperties.getReplicas()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (replicas.size() + 1));
+            pool.setJdbcUrl(properties.getUrl());
+            pool.setUsername(properties.getUsername());
+            pool.setPassword(properties.getPassword());
+            if (properties.getDriverClassName() != null) {
+                pool.setDriverClassName(properties.getDriverClassName());
+            }
+            pool.setMaximumPoolSize(properties.getMaximumPoolSize());
+            pool.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+            pool.setReadOnly(true);
+            // Start even if the replica is down; the health check takes it out of rotation
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(poolMetrics);
+            ReadWriteRoutingDataSource.Replica replica = new ReadWriteRoutingDataSource.Replica(pool.getPoolName(), pool);
+            Gauge.builder("appointment.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .description("1 while the read replica is used for read-only transactions")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+            replicas.add(replica);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, HEALTH_CHECK_TIMEOUT_SECONDS);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
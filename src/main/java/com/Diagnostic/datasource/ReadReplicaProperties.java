@@ -0,0 +1,103 @@
+package com.Diagnostic.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "appointment.datasource")
+public class ReadReplicaProperties {
+
+    /**
+     * Replica databases for read-only transactions; the primary is still configured with spring.datasource.*.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Time between connection checks of the replicas. A replica that fails one is skipped until it passes again.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(10);
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public void setHealthCheckInterval(Duration healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private String driverClassName;
+
+        private int maximumPoolSize = 10;
+
+        /**
+         * How long a read waits for a replica connection before it goes to the primary instead.
+         */
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getDriverClassName() {
+            return driverClassName;
+        }
+
+        public void setDriverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+    }
+}
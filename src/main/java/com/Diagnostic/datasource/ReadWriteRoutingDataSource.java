@@ -0,0 +1,173 @@
+package com.Diagnostic.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections everywhere else.
+ * Replicas are used round-robin; one that fails a health check or a connection attempt is skipped until it
+ * passes a health check again, and with no replica available reads go to the primary.
+ * <p>
+ * The routing decision is made when the connection is opened, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: JPA transactions ask for their
+ * connection before the read-only flag of the transaction is published.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    // Set for the rest of a read-only transaction that has to see this node's latest writes
+    private static final ThreadLocal<Boolean> primaryRequired = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final int healthCheckTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+    }
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<Replica> replicas, int healthCheckTimeoutSeconds) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.healthCheckTimeoutSeconds = healthCheckTimeoutSeconds;
+    }
+
+    /**
+     * Sends the current read-only transaction to the primary, if it has not opened its connection yet.
+     */
+    public static void usePrimaryForCurrentTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || primaryRequired.get() != null) {
+            return;
+        }
+        primaryRequired.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                primaryRequired.remove();
+            }
+        });
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = readReplica();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = readReplica();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection(username, password);
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Tries a connection to every replica and updates which ones reads may use.
+     */
+    @Scheduled(fixedDelayString = "${appointment.datasource.health-check-interval:10s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(healthCheckTimeoutSeconds);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                logger.warn("Read replica {} is {}", replica.name, healthy ? "back" : "down, reading from the primary");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    /**
+     * Closes the pools; the routing datasource is closed after everything that uses it.
+     */
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable pool) {
+                pool.close();
+            }
+        }
+        if (primary instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    private Replica readReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || primaryRequired.get() != null) {
+            return null;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void markDown(Replica replica, SQLException e) {
+        if (replica.healthy) {
+            logger.warn("Read replica {} refused a connection, reading from the primary until it recovers: {}",
+                    replica.name, e.getMessage());
+        }
+        replica.healthy = false;
+    }
+}
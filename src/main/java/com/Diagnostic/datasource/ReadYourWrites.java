@@ -0,0 +1,46 @@
+package com.Diagnostic.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Remembers which appointments this node wrote recently, so reads of them go to the primary for
+ * {@code appointment.datasource.read-your-writes} instead of to a replica that may not have the change yet.
+ * Without it a cancellation followed by a lookup could read the old row from a replica and cache it.
+ */
+@Component
+public class ReadYourWrites {
+
+    private static final int MAX_TRACKED = 100_000;
+
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWrites(@Value("${appointment.datasource.read-your-writes:5s}") Duration window) {
+        this.recentWrites = window.isZero() ? null
+                : Caffeine.newBuilder().expireAfterWrite(window).maximumSize(MAX_TRACKED).build();
+    }
+
+    public void written(String appointmentId) {
+        if (recentWrites != null && appointmentId != null) {
+            recentWrites.put(appointmentId, Boolean.TRUE);
+        }
+    }
+
+    public void written(Collection<String> appointmentIds) {
+        appointmentIds.forEach(this::written);
+    }
+
+    /**
+     * Called at the start of a read-only transaction that reads this appointment.
+     */
+    public void beforeRead(String appointmentId) {
+        if (recentWrites != null && appointmentId != null && recentWrites.getIfPresent(appointmentId) != null) {
+            ReadWriteRoutingDataSource.usePrimaryForCurrentTransaction();
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.Diagnostic.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
@@ -66,6 +69,12 @@ public class AppointmentCheckupResponse {
     private String status;
     private String remark;
 
+    // Validators for conditional GETs (ETag and Last-Modified headers), not part of the body
+    @JsonIgnore
+    private long version;
+    @JsonIgnore
+    private Instant lastModified;
+
     public String getRemark() {
         return remark;
     }
@@ -74,4 +83,20 @@ public class AppointmentCheckupResponse {
         this.remark = remark;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
 }
@@ -0,0 +1,56 @@
+package com.Diagnostic.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+public class AppointmentPageResponse {
+
+    private List<AppointmentCheckupResponse> appointments;
+    private String nextCursor;
+    private boolean hasNext;
+    // Sent as the ETag header rather than in the body
+    @JsonIgnore
+    private String etag;
+
+    public AppointmentPageResponse() {
+    }
+
+    public AppointmentPageResponse(List<AppointmentCheckupResponse> appointments, String nextCursor) {
+        this.appointments = appointments;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    public List<AppointmentCheckupResponse> getAppointments() {
+        return appointments;
+    }
+
+    public void setAppointments(List<AppointmentCheckupResponse> appointments) {
+        this.appointments = appointments;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+}
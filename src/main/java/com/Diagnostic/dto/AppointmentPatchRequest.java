@@ -0,0 +1,102 @@
+package com.Diagnostic.dto;
+
+import com.Diagnostic.utility.NotPastDate;
+import com.Diagnostic.utility.NullOrNotBlank;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Min;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Partial update of an appointment: only the fields that are present (non-null) are changed. A text field that
+ * is present must not be blank, so a patch can not clear what POST and PUT require.
+ */
+public class AppointmentPatchRequest {
+
+    @NullOrNotBlank(message = "Patient name can not be blank")
+    private String patientName;
+    @Min(value = 0, message = "Age can not be negative")
+    private Integer age;
+    @NullOrNotBlank(message = "Gender can not be blank")
+    private String gender;
+    @NullOrNotBlank(message = "Mobile number can not be blank")
+    private String mobile;
+    @NullOrNotBlank(message = "Email can not be blank")
+    @Email
+    private String email;
+    @NullOrNotBlank(message = "Checkup type can not be blank")
+    private String checkupType;
+    @NotPastDate
+    private LocalDate preferredDate;
+    private LocalTime preferredTime;
+
+    public boolean isEmpty() {
+        return patientName == null && age == null && gender == null && mobile == null && email == null
+                && checkupType == null && preferredDate == null && preferredTime == null;
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    public void setPatientName(String patientName) {
+        this.patientName = patientName;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public void setGender(String gender) {
+        this.gender = gender;
+    }
+
+    public String getMobile() {
+        return mobile;
+    }
+
+    public void setMobile(String mobile) {
+        this.mobile = mobile;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getCheckupType() {
+        return checkupType;
+    }
+
+    public void setCheckupType(String checkupType) {
+        this.checkupType = checkupType;
+    }
+
+    public LocalDate getPreferredDate() {
+        return preferredDate;
+    }
+
+    public void setPreferredDate(LocalDate preferredDate) {
+        this.preferredDate = preferredDate;
+    }
+
+    public LocalTime getPreferredTime() {
+        return preferredTime;
+    }
+
+    public void setPreferredTime(LocalTime preferredTime) {
+        this.preferredTime = preferredTime;
+    }
+}
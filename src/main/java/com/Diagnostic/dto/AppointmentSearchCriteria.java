@@ -0,0 +1,53 @@
+package com.Diagnostic.dto;
+
+import java.time.LocalDate;
+
+public class AppointmentSearchCriteria {
+
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private String status;
+    private String checkupType;
+
+    public AppointmentSearchCriteria() {
+    }
+
+    public AppointmentSearchCriteria(LocalDate fromDate, LocalDate toDate, String status, String checkupType) {
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.status = status;
+        this.checkupType = checkupType;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getCheckupType() {
+        return checkupType;
+    }
+
+    public void setCheckupType(String checkupType) {
+        this.checkupType = checkupType;
+    }
+}
@@ -0,0 +1,73 @@
+package com.Diagnostic.dto;
+
+import java.util.Map;
+
+public class BatchBookingResult {
+
+    private int index;
+    private boolean success;
+    private String message;
+    private AppointmentCheckupResponse appointment;
+    private Map<String, String> errors;
+
+    public BatchBookingResult() {
+    }
+
+    public static BatchBookingResult booked(int index, AppointmentCheckupResponse appointment) {
+        BatchBookingResult result = new BatchBookingResult();
+        result.index = index;
+        result.success = true;
+        result.message = "Appointment booked successfully";
+        result.appointment = appointment;
+        return result;
+    }
+
+    public static BatchBookingResult failed(int index, String message, Map<String, String> errors) {
+        BatchBookingResult result = new BatchBookingResult();
+        result.index = index;
+        result.success = false;
+        result.message = message;
+        result.errors = errors;
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public AppointmentCheckupResponse getAppointment() {
+        return appointment;
+    }
+
+    public void setAppointment(AppointmentCheckupResponse appointment) {
+        this.appointment = appointment;
+    }
+
+    public Map<String, String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Map<String, String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,41 @@
+package com.Diagnostic.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Either a list of appointment IDs, or a date with an optional checkup type (e.g. a lab closure).
+ */
+public class BulkCancelRequest {
+
+    private List<String> appointmentIds;
+    private LocalDate appointmentDate;
+    private String checkupType;
+
+    public BulkCancelRequest() {
+    }
+
+    public List<String> getAppointmentIds() {
+        return appointmentIds;
+    }
+
+    public void setAppointmentIds(List<String> appointmentIds) {
+        this.appointmentIds = appointmentIds;
+    }
+
+    public LocalDate getAppointmentDate() {
+        return appointmentDate;
+    }
+
+    public void setAppointmentDate(LocalDate appointmentDate) {
+        this.appointmentDate = appointmentDate;
+    }
+
+    public String getCheckupType() {
+        return checkupType;
+    }
+
+    public void setCheckupType(String checkupType) {
+        this.checkupType = checkupType;
+    }
+}
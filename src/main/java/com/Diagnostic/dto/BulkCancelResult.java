@@ -0,0 +1,33 @@
+package com.Diagnostic.dto;
+
+import java.util.List;
+
+public class BulkCancelResult {
+
+    private int cancelled;
+    private List<String> appointmentIds;
+
+    public BulkCancelResult() {
+    }
+
+    public BulkCancelResult(List<String> appointmentIds) {
+        this.cancelled = appointmentIds.size();
+        this.appointmentIds = appointmentIds;
+    }
+
+    public int getCancelled() {
+        return cancelled;
+    }
+
+    public void setCancelled(int cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    public List<String> getAppointmentIds() {
+        return appointmentIds;
+    }
+
+    public void setAppointmentIds(List<String> appointmentIds) {
+        this.appointmentIds = appointmentIds;
+    }
+}
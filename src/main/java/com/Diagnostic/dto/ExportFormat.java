@@ -0,0 +1,33 @@
+package com.Diagnostic.dto;
+
+import com.Diagnostic.exception.UnsupportedExportFormatException;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public static ExportFormat from(String value) {
+        for (ExportFormat format : values()) {
+            if (format.fileExtension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new UnsupportedExportFormatException("Unsupported export format: " + value);
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
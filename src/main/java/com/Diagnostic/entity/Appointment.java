@@ -1,22 +1,48 @@
 package com.Diagnostic.entity;
 
+import com.Diagnostic.utility.UuidBinaryConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "AppointmentTable")
+@Table(name = "AppointmentTable", indexes = {
+        @Index(name = "ux_appointment_appointment_id", columnList = "appointmentId", unique = true),
+        @Index(name = "idx_appointment_slot", columnList = "appointmentDate, appointmentTime, id"),
+        @Index(name = "idx_appointment_status_slot", columnList = "status, appointmentDate, appointmentTime, id"),
+        @Index(name = "idx_appointment_type_slot", columnList = "checkupType, appointmentDate, appointmentTime, id")
+})
+// Updates only write the columns that changed, so the UPDATE statements stay small; concurrent updates still
+// conflict on @Version, whichever columns they touch
+@DynamicUpdate
 public class Appointment {
+    // Pooled sequence (a table on MySQL) instead of IDENTITY, so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointment_seq", allocationSize = 50)
     private Long id;
 
+    @Convert(converter = UuidBinaryConverter.class)
+    @Column(columnDefinition = "BINARY(16)", nullable = false, updatable = false)
     private String appointmentId;
+
+    // Optimistic lock; bulk JPQL updates must increment it themselves
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // Set on insert and on every update that changes a column; bulk JPQL updates set it themselves
+    @UpdateTimestamp
+    private Instant lastModified;
+
     private String patientName;
     private int age;
 
@@ -36,6 +62,22 @@ public class Appointment {
         this.appointmentId = appointmentId;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
     public String getPatientName() {
         return patientName;
     }
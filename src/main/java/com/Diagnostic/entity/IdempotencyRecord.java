@@ -0,0 +1,112 @@
+package com.Diagnostic.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * The first response given for an Idempotency-Key, kept so a retried request gets the same answer after a restart.
+ * A record without a response ({@link #PENDING}) is a claim on the key by the request that is booking it.
+ */
+@Entity
+@Table(name = "IdempotencyRecord", indexes = {
+        @Index(name = "idx_idempotency_created_at", columnList = "createdAt")
+})
+public class IdempotencyRecord implements Persistable<String> {
+
+    public static final int PENDING = 0;
+
+    // SHA-256 of the client and the key it sent
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, to spot a key reused for a different request
+    @Column(length = 64, nullable = false)
+    private String requestFingerprint;
+
+    private int statusCode;
+
+    @Column(length = 4000)
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Keys are assigned by the client, so tell Spring Data to insert rather than merge
+    @Transient
+    private boolean isNew = true;
+
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String idempotencyKey, String requestFingerprint, int statusCode, String responseBody,
+                             Instant createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.requestFingerprint = requestFingerprint;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String getId() {
+        return idempotencyKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public boolean isCompleted() {
+        return statusCode != PENDING;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getRequestFingerprint() {
+        return requestFingerprint;
+    }
+
+    public void setRequestFingerprint(String requestFingerprint) {
+        this.requestFingerprint = requestFingerprint;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public void setResponseBody(String responseBody) {
+        this.responseBody = responseBody;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
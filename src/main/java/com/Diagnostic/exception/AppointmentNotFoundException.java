@@ -1,7 +1,11 @@
 package com.Diagnostic.exception;
 
+/**
+ * Thrown for every unknown ID, often by scrapers replaying stale links, and always handled by the controller,
+ * so it skips filling in a stack trace.
+ */
 public class AppointmentNotFoundException extends RuntimeException{
     public AppointmentNotFoundException(String msg){
-        super(msg);
+        super(msg, null, false, false);
     }
 }
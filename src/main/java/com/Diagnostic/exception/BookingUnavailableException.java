@@ -0,0 +1,11 @@
+package com.Diagnostic.exception;
+
+/**
+ * The booking was not taken because the write-behind path cannot accept it right now (its backlog is full or
+ * the booking log did not confirm in time); nothing was stored and the client may retry later.
+ */
+public class BookingUnavailableException extends RuntimeException {
+    public BookingUnavailableException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,7 @@
+package com.Diagnostic.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String msg) {
+        super(msg);
+    }
+}
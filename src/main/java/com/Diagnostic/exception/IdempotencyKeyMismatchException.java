@@ -0,0 +1,7 @@
+package com.Diagnostic.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,10 @@
+package com.Diagnostic.exception;
+
+/**
+ * The export was asked for in a format the service does not write; answered with 400 before any row is read.
+ */
+public class UnsupportedExportFormatException extends IllegalArgumentException {
+    public UnsupportedExportFormatException(String msg) {
+        super(msg);
+    }
+}
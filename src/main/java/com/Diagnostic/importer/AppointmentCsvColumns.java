@@ -0,0 +1,103 @@
+package com.Diagnostic.importer;
+
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Positions of the {@link AppointmentCheckupRequest} fields in an import file, taken from its header row.
+ * Header names are matched ignoring case, spaces, dashes and underscores ("Patient Name" and "patient_name" both
+ * mean patientName); other columns are ignored.
+ */
+class AppointmentCsvColumns {
+
+    private static final String[] FIELDS = {
+            "patientName", "age", "gender", "mobile", "email", "checkupType", "preferredDate", "preferredTime"
+    };
+
+    private final int[] positions = new int[FIELDS.length];
+
+    AppointmentCsvColumns(List<String> header) {
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < FIELDS.length; i++) {
+            positions[i] = -1;
+            for (int column = 0; column < header.size(); column++) {
+                if (normalize(header.get(column)).equals(normalize(FIELDS[i]))) {
+                    positions[i] = column;
+                    break;
+                }
+            }
+            if (positions[i] < 0) {
+                missing.add(FIELDS[i]);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+    }
+
+    /**
+     * Converts one row; values that cannot be converted are left null and reported in {@code errors}, keyed by
+     * field like bean validation errors.
+     */
+    AppointmentCheckupRequest toRequest(List<String> row, Map<String, String> errors) {
+        AppointmentCheckupRequest request = new AppointmentCheckupRequest();
+        request.setPatientName(value(row, 0));
+        String age = value(row, 1);
+        if (age != null) {
+            try {
+                request.setAge(Integer.parseInt(age));
+            } catch (NumberFormatException e) {
+                errors.put("age", "Age must be a whole number");
+            }
+        }
+        request.setGender(value(row, 2));
+        request.setMobile(value(row, 3));
+        request.setEmail(value(row, 4));
+        request.setCheckupType(value(row, 5));
+        String date = value(row, 6);
+        if (date != null) {
+            try {
+                request.setPreferredDate(LocalDate.parse(date));
+            } catch (DateTimeParseException e) {
+                errors.put("preferredDate", "Preferred date must be in the format yyyy-MM-dd");
+            }
+        }
+        String time = value(row, 7);
+        if (time != null) {
+            try {
+                request.setPreferredTime(LocalTime.parse(time));
+            } catch (DateTimeParseException e) {
+                errors.put("preferredTime", "Preferred time must be in the format HH:mm or HH:mm:ss");
+            }
+        }
+        return request;
+    }
+
+    // Missing and empty cells are null, so @NotNull / @NotBlank report them
+    private String value(List<String> row, int field) {
+        int position = positions[field];
+        if (position >= row.size()) {
+            return null;
+        }
+        String value = row.get(position).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c != ' ' && c != '_' && c != '-') {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,46 @@
+package com.Diagnostic.importer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Imports {@code appointment.import.file} at startup, e.g.
+ * {@code java -jar app.jar --appointment.import.file=legacy.csv --spring.main.web-application-type=none}.
+ * Running the same command again after a failure resumes from the file's checkpoint.
+ */
+@Component
+@ConditionalOnProperty(name = "appointment.import.file")
+public class AppointmentImportRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentImportRunner.class);
+
+    @Autowired
+    private AppointmentImporter importer;
+
+    @Autowired
+    private ImportProperties properties;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path file = Path.of(properties.getFile());
+        ImportJob job = importer.importFile(file, properties.isAllowPastDates());
+        logger.info("Import of {} {}: {} rows, {} imported, {} failed (see {})", file, job.getState(),
+                job.getRowsProcessed(), job.getImported(), job.getFailed(), AppointmentImporter.errorReportOf(file));
+        if (properties.isExitAfterImport()) {
+            int exitCode = job.getState() == ImportJob.State.COMPLETED ? 0 : 1;
+            System.exit(SpringApplication.exit(context, () -> exitCode));
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.Diagnostic.importer;
+
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.BatchBookingResult;
+import com.Diagnostic.service.AppointmentService;
+import com.Diagnostic.utility.NotPastDate;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk import of appointments from CSV files (one header row, then one appointment per row).
+ * <p>
+ * The file is read sequentially in chunks of {@code appointment.import.chunk-size} rows. Each chunk is converted
+ * and validated on the parser threads while the previous chunk is inserted, then stored in one transaction with
+ * JDBC batching. After every chunk the rows that failed are appended to an error report next to the file and a
+ * checkpoint is written, so an interrupted import resumes after the last stored chunk. Each row's appointment ID is
+ * derived from the import and the row's record number, so rows of a chunk that was stored just before a crash are
+ * recognised on resume instead of being inserted again.
+ * <p>
+ * Rows are validated with the same constraints as {@code POST /appointment}; with {@code allowPastDates}, which
+ * only the command-line runner offers, the {@link NotPastDate} check is skipped so historical bookings can be
+ * migrated.
+ */
+@Service
+public class AppointmentImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentImporter.class);
+
+    static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    static final String ERROR_REPORT_SUFFIX = ".errors.csv";
+    private static final byte[] ERROR_REPORT_HEADER = "row,field,message\n".getBytes(StandardCharsets.UTF_8);
+    // Smallest slice of a chunk worth handing to a parser thread
+    private static final int MIN_PARSE_SLICE = 64;
+    private static final Pattern JOB_ID = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ImportProperties properties;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    // One import at a time: imports compete for the same connections and slot counters
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "appointment-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record CsvRow(long recordNumber, List<String> fields) {
+    }
+
+    private record ParsedRow(long recordNumber, AppointmentCheckupRequest request, Map<String, String> errors) {
+    }
+
+    /**
+     * Saves an uploaded file under {@code appointment.import.directory} and queues its import. Uploaded rows must
+     * not be in the past, like bookings made through the API.
+     *
+     * @throws IllegalArgumentException if the file is empty or its header lacks a required column
+     */
+    public ImportJob submit(InputStream csv) throws IOException {
+        Path directory = Files.createDirectories(Path.of(properties.getDirectory()));
+        String jobId = UUID.randomUUID().toString();
+        Path file = directory.resolve(jobId + ".csv");
+        try {
+            Files.copy(csv, file);
+            try (CsvRecordReader reader = new CsvRecordReader(file)) {
+                readColumns(reader);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        ImportCheckpoint.start(jobId, false).save(checkpointOf(file));
+        logger.info("Queued import {} ({} bytes)", jobId, Files.size(file));
+        return schedule(jobId, file);
+    }
+
+    /**
+     * Queues an uploaded import again from its last checkpoint, or returns null if there is no such import.
+     *
+     * @throws IllegalStateException if the import is still running or already complete
+     */
+    public ImportJob resume(String jobId) throws IOException {
+        Path file = uploadedFile(jobId);
+        if (file == null || !Files.exists(checkpointOf(file))) {
+            return null;
+        }
+        if (ImportCheckpoint.load(checkpointOf(file)).complete()) {
+            throw new IllegalStateException("Import " + jobId + " is already complete");
+        }
+        return schedule(jobId, file);
+    }
+
+    /**
+     * Progress of an uploaded import, from memory or, after a restart, from its checkpoint; null if unknown.
+     */
+    public ImportJob getJob(String jobId) throws IOException {
+        ImportJob job = jobs.get(jobId);
+        if (job != null) {
+            return job;
+        }
+        Path file = uploadedFile(jobId);
+        if (file == null || !Files.exists(checkpointOf(file))) {
+            return null;
+        }
+        return ImportJob.fromCheckpoint(jobId, ImportCheckpoint.load(checkpointOf(file)));
+    }
+
+    /**
+     * The error report of an uploaded import ({@code row,field,message}), or null if it has none yet.
+     */
+    public Path getErrorReport(String jobId) {
+        Path file = uploadedFile(jobId);
+        if (file == null) {
+            return null;
+        }
+        Path report = errorReportOf(file);
+        return Files.exists(report) ? report : null;
+    }
+
+    /**
+     * Imports a file on the calling thread, continuing from its checkpoint if an earlier run was interrupted.
+     * The checkpoint and error report are written next to the file.
+     */
+    public ImportJob importFile(Path file, boolean allowPastDates) throws IOException {
+        if (!Files.exists(checkpointOf(file))) {
+            ImportCheckpoint.start(UUID.randomUUID().toString(), allowPastDates).save(checkpointOf(file));
+        }
+        ImportJob job = new ImportJob(file.getFileName().toString(), ImportJob.State.QUEUED);
+        run(job, file);
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupts a running import; it stops at its last checkpoint
+        jobExecutor.shutdownNow();
+    }
+
+    private ImportJob schedule(String jobId, Path file) {
+        ImportJob job = jobs.compute(jobId, (id, existing) -> {
+            if (existing != null && (existing.getState() == ImportJob.State.QUEUED
+                    || existing.getState() == ImportJob.State.RUNNING)) {
+                throw new IllegalStateException("Import " + id + " is already running");
+            }
+            return new ImportJob(id, ImportJob.State.QUEUED);
+        });
+        jobExecutor.execute(() -> run(job, file));
+        return job;
+    }
+
+    private void run(ImportJob job, Path file) {
+        job.setState(ImportJob.State.RUNNING);
+        Path checkpointFile = checkpointOf(file);
+        ExecutorService parsers = Executors.newFixedThreadPool(Math.max(properties.getParserThreads(), 1),
+                new ParserThreadFactory(job.getJobId()));
+        try (CsvRecordReader reader = new CsvRecordReader(file);
+             FileChannel errorReport = FileChannel.open(errorReportOf(file),
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ImportCheckpoint checkpoint = ImportCheckpoint.load(checkpointFile);
+            job.progress(checkpoint);
+            if (checkpoint.complete()) {
+                job.setState(ImportJob.State.COMPLETED);
+                return;
+            }
+            AppointmentCsvColumns columns = readColumns(reader);
+            if (checkpoint.offset() > 0) {
+                reader.seek(checkpoint.offset(), checkpoint.recordNumber());
+            }
+            // Rows reported after the last checkpoint are reported again
+            errorReport.truncate(checkpoint.errorReportBytes());
+            errorReport.position(checkpoint.errorReportBytes());
+            if (checkpoint.errorReportBytes() == 0) {
+                write(errorReport, ERROR_REPORT_HEADER);
+            }
+            boolean allowPastDates = checkpoint.allowPastDates();
+            // Checkpoints written before imports had an ID fall back to the file name
+            String importId = checkpoint.importId() != null ? checkpoint.importId() : file.getFileName().toString();
+            logger.info("Importing {} from record {}", job.getJobId(), reader.getRecordNumber() + 1);
+
+            List<CsvRow> rows = readChunk(reader);
+            CompletableFuture<List<ParsedRow>> parsed = parse(rows, columns, allowPastDates, parsers);
+            while (!rows.isEmpty()) {
+                long offset = reader.position();
+                long recordNumber = reader.getRecordNumber();
+                List<CsvRow> nextRows = readChunk(reader);
+                CompletableFuture<List<ParsedRow>> nextParsed = parse(nextRows, columns, allowPastDates, parsers);
+
+                int imported = store(importId, parsed.get(), errorReport);
+                errorReport.force(false);
+                checkpoint = new ImportCheckpoint(importId, offset, recordNumber, checkpoint.imported() + imported,
+                        checkpoint.failed() + rows.size() - imported, errorReport.position(), allowPastDates, false);
+                checkpoint.save(checkpointFile);
+                job.progress(checkpoint);
+
+                rows = nextRows;
+                parsed = nextParsed;
+            }
+            new ImportCheckpoint(importId, checkpoint.offset(), checkpoint.recordNumber(), checkpoint.imported(),
+                    checkpoint.failed(), checkpoint.errorReportBytes(), allowPastDates, true).save(checkpointFile);
+            job.setState(ImportJob.State.COMPLETED);
+            logger.info("Import {} completed: {} imported, {} failed", job.getJobId(), job.getImported(), job.getFailed());
+        } catch (IllegalArgumentException e) {
+            logger.error("Import {} failed: {}", job.getJobId(), e.getMessage());
+            job.setError(e.getMessage());
+            job.setState(ImportJob.State.FAILED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Import {} interrupted after {} rows", job.getJobId(), job.getRowsProcessed());
+            job.setError("Interrupted");
+            job.setState(ImportJob.State.INTERRUPTED);
+        } catch (IOException | ExecutionException | RuntimeException e) {
+            logger.error("Import {} stopped after {} rows", job.getJobId(), job.getRowsProcessed(), e);
+            job.setError(e.getMessage());
+            job.setState(ImportJob.State.INTERRUPTED);
+        } finally {
+            parsers.shutdownNow();
+        }
+    }
+
+    private static AppointmentCsvColumns readColumns(CsvRecordReader reader) throws IOException {
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        return new AppointmentCsvColumns(header);
+    }
+
+    private List<CsvRow> readChunk(CsvRecordReader reader) throws IOException {
+        List<CsvRow> rows = new ArrayList<>(properties.getChunkSize());
+        List<String> fields;
+        while (rows.size() < properties.getChunkSize() && (fields = reader.next()) != null) {
+            rows.add(new CsvRow(reader.getRecordNumber(), fields));
+        }
+        return rows;
+    }
+
+    private CompletableFuture<List<ParsedRow>> parse(List<CsvRow> rows, AppointmentCsvColumns columns,
+                                                     boolean allowPastDates, ExecutorService parsers) {
+        int threads = Math.max(properties.getParserThreads(), 1);
+        int slice = Math.max((rows.size() + threads - 1) / threads, MIN_PARSE_SLICE);
+        List<CompletableFuture<List<ParsedRow>>> slices = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += slice) {
+            List<CsvRow> part = rows.subList(from, Math.min(from + slice, rows.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> {
+                List<ParsedRow> parsed = new ArrayList<>(part.size());
+                for (CsvRow row : part) {
+                    parsed.add(convert(row, columns, allowPastDates));
+                }
+                return parsed;
+            }, parsers));
+        }
+        return CompletableFuture.allOf(slices.toArray(new CompletableFuture[0])).thenApply(done -> {
+            List<ParsedRow> parsed = new ArrayList<>(rows.size());
+            slices.forEach(part -> parsed.addAll(part.join()));
+            return parsed;
+        });
+    }
+
+    private ParsedRow convert(CsvRow row, AppointmentCsvColumns columns, boolean allowPastDates) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        AppointmentCheckupRequest request = columns.toRequest(row.fields(), errors);
+        for (ConstraintViolation<AppointmentCheckupRequest> violation : validator.validate(request)) {
+            if (allowPastDates && violation.getConstraintDescriptor().getAnnotation() instanceof NotPastDate) {
+                continue;
+            }
+            // A conversion error says more than the @NotNull it causes
+            errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return new ParsedRow(row.recordNumber(), request, errors);
+    }
+
+    /**
+     * Stores the valid rows of a chunk and reports the others; returns how many were stored.
+     */
+    private int store(String importId, List<ParsedRow> rows, FileChannel errorReport) throws IOException {
+        List<AppointmentCheckupRequest> valid = new ArrayList<>(rows.size());
+        List<String> appointmentIds = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            if (row.errors().isEmpty()) {
+                valid.add(row.request());
+                appointmentIds.add(appointmentIdOf(importId, row.recordNumber()));
+            }
+        }
+        List<BatchBookingResult> results = valid.isEmpty() ? List.of()
+                : appointmentService.importAppointments(valid, appointmentIds);
+
+        StringBuilder report = new StringBuilder();
+        int imported = 0;
+        int result = 0;
+        for (ParsedRow row : rows) {
+            if (!row.errors().isEmpty()) {
+                row.errors().forEach((field, message) -> appendError(report, row.recordNumber(), field, message));
+            } else if (results.get(result++).isSuccess()) {
+                imported++;
+            } else {
+                appendError(report, row.recordNumber(), "", results.get(result - 1).getMessage());
+            }
+        }
+        if (!report.isEmpty()) {
+            write(errorReport, report.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return imported;
+    }
+
+    /**
+     * The same name-based UUID every time the row is imported, so storing it is idempotent.
+     */
+    static String appointmentIdOf(String importId, long recordNumber) {
+        return UUID.nameUUIDFromBytes((importId + ":" + recordNumber).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static void appendError(StringBuilder report, long recordNumber, String field, String message) {
+        report.append(recordNumber).append(',').append(field).append(',');
+        String text = message == null ? "" : message;
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            report.append('"').append(text.replace("\"", "\"\"")).append('"');
+        } else {
+            report.append(text);
+        }
+        report.append('\n');
+    }
+
+    private static void write(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private Path uploadedFile(String jobId) {
+        if (jobId == null || !JOB_ID.matcher(jobId).matches()) {
+            return null;
+        }
+        return Path.of(properties.getDirectory()).resolve(jobId + ".csv");
+    }
+
+    static Path checkpointOf(Path file) {
+        return file.resolveSibling(file.getFileName() + CHECKPOINT_SUFFIX);
+    }
+
+    static Path errorReportOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ERROR_REPORT_SUFFIX);
+    }
+
+    private static final class ParserThreadFactory implements ThreadFactory {
+
+        private final String jobId;
+        private final AtomicInteger count = new AtomicInteger();
+
+        ParserThreadFactory(String jobId) {
+            this.jobId = jobId;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "appointment-import-parser-" + jobId + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.Diagnostic.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV records from a UTF-8 file through a fixed-size buffer, so files of any size are read with
+ * constant memory. Quoted fields may contain commas, doubled quotes and line breaks; blank lines are skipped.
+ * <p>
+ * The reader tracks the byte offset where the next record starts, which is what an import checkpoint stores:
+ * {@link #seek} continues from such an offset.
+ */
+public class CsvRecordReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    // Offset in the file of buffer position 0
+    private long bufferStart;
+    private long recordNumber;
+
+    private byte[] field = new byte[256];
+    private int fieldLength;
+
+    public CsvRecordReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        buffer.flip();
+        skipByteOrderMark();
+    }
+
+    /**
+     * Continues reading at {@code offset}, which must be the start of a record; {@code recordNumber} is the number
+     * of records before it.
+     */
+    public void seek(long offset, long recordNumber) throws IOException {
+        channel.position(offset);
+        bufferStart = offset;
+        buffer.clear().flip();
+        this.recordNumber = recordNumber;
+    }
+
+    /**
+     * Offset of the first byte after the last record returned.
+     */
+    public long position() {
+        return bufferStart + buffer.position();
+    }
+
+    /**
+     * Records returned so far, counting the header and any records skipped by {@link #seek}.
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * The next record's fields, or null at the end of the file.
+     */
+    public List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        fieldLength = 0;
+        boolean quoted = false;
+        boolean afterQuote = false;
+        boolean empty = true;
+        int b;
+        while ((b = read()) >= 0) {
+            if (quoted) {
+                if (b == '"') {
+                    quoted = false;
+                    afterQuote = true;
+                } else {
+                    append(b);
+                }
+                continue;
+            }
+            if (b == '"') {
+                if (afterQuote) {
+                    // A doubled quote inside a quoted field
+                    append('"');
+                }
+                quoted = true;
+                afterQuote = false;
+                empty = false;
+            } else if (b == ',') {
+                fields.add(takeField());
+                afterQuote = false;
+                empty = false;
+            } else if (b == '\n' || b == '\r') {
+                if (b == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (!empty || fieldLength > 0) {
+                    fields.add(takeField());
+                    recordNumber++;
+                    return fields;
+                }
+                afterQuote = false;
+            } else {
+                append(b);
+                afterQuote = false;
+                empty = false;
+            }
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted field in record " + (recordNumber + 1));
+        }
+        if (empty && fieldLength == 0) {
+            return null;
+        }
+        fields.add(takeField());
+        recordNumber++;
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        if (peek() == 0xEF && buffer.remaining() >= 3
+                && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF) {
+            buffer.position(3);
+        }
+    }
+
+    private int read() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        bufferStart += buffer.limit();
+        buffer.clear();
+        int read = channel.read(buffer);
+        buffer.flip();
+        return read > 0;
+    }
+
+    private void append(int b) {
+        if (fieldLength == field.length) {
+            field = Arrays.copyOf(field, field.length * 2);
+        }
+        field[fieldLength++] = (byte) b;
+    }
+
+    private String takeField() {
+        String value = new String(field, 0, fieldLength, StandardCharsets.UTF_8);
+        fieldLength = 0;
+        return value;
+    }
+}
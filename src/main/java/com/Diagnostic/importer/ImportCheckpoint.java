@@ -0,0 +1,61 @@
+package com.Diagnostic.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * How far an import got: the byte offset and record number of the first row not yet stored, the running totals,
+ * and the length of the error report at that point. It is written after every committed chunk, so a resumed
+ * import repeats at most the chunk that was in flight. The {@code importId}, fixed when the import starts, is
+ * what the appointment IDs of its rows are derived from, so the repeated chunk is recognised as already stored.
+ */
+public record ImportCheckpoint(String importId, long offset, long recordNumber, long imported, long failed,
+                               long errorReportBytes, boolean allowPastDates, boolean complete) {
+
+    public static ImportCheckpoint start(String importId, boolean allowPastDates) {
+        return new ImportCheckpoint(importId, 0, 0, 0, 0, 0, allowPastDates, false);
+    }
+
+    public static ImportCheckpoint load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            properties.load(reader);
+        }
+        return new ImportCheckpoint(
+                properties.getProperty("importId"),
+                Long.parseLong(properties.getProperty("offset")),
+                Long.parseLong(properties.getProperty("recordNumber")),
+                Long.parseLong(properties.getProperty("imported")),
+                Long.parseLong(properties.getProperty("failed")),
+                Long.parseLong(properties.getProperty("errorReportBytes")),
+                Boolean.parseBoolean(properties.getProperty("allowPastDates")),
+                Boolean.parseBoolean(properties.getProperty("complete")));
+    }
+
+    /**
+     * Replaces the checkpoint file atomically, so a crash leaves either the old or the new checkpoint.
+     */
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("importId", importId);
+        properties.setProperty("offset", Long.toString(offset));
+        properties.setProperty("recordNumber", Long.toString(recordNumber));
+        properties.setProperty("imported", Long.toString(imported));
+        properties.setProperty("failed", Long.toString(failed));
+        properties.setProperty("errorReportBytes", Long.toString(errorReportBytes));
+        properties.setProperty("allowPastDates", Boolean.toString(allowPastDates));
+        properties.setProperty("complete", Boolean.toString(complete));
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.ISO_8859_1)) {
+            properties.store(writer, null);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
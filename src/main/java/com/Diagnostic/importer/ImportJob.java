@@ -0,0 +1,71 @@
+package com.Diagnostic.importer;
+
+/**
+ * Progress of one CSV import, as reported by {@code GET /appointment/import/{jobId}}. Counters are updated by the
+ * importing thread after every chunk.
+ */
+public class ImportJob {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED,
+        // Stopped before the end (failure or shutdown) with a checkpoint to resume from
+        INTERRUPTED
+    }
+
+    private final String jobId;
+    private volatile State state;
+    private volatile long rowsProcessed;
+    private volatile long imported;
+    private volatile long failed;
+    private volatile String error;
+
+    public ImportJob(String jobId, State state) {
+        this.jobId = jobId;
+        this.state = state;
+    }
+
+    static ImportJob fromCheckpoint(String jobId, ImportCheckpoint checkpoint) {
+        ImportJob job = new ImportJob(jobId, checkpoint.complete() ? State.COMPLETED : State.INTERRUPTED);
+        job.progress(checkpoint);
+        return job;
+    }
+
+    void progress(ImportCheckpoint checkpoint) {
+        // The header is record 1
+        rowsProcessed = Math.max(checkpoint.recordNumber() - 1, 0);
+        imported = checkpoint.imported();
+        failed = checkpoint.failed();
+    }
+
+    void setState(State state) {
+        this.state = state;
+    }
+
+    void setError(String error) {
+        this.error = error;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,85 @@
+package com.Diagnostic.importer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "appointment.import")
+public class ImportProperties {
+
+    /**
+     * Rows inserted per transaction; a checkpoint is written after each one.
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Threads that convert and validate rows, while the previous chunk is being inserted.
+     */
+    private int parserThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Where uploaded files are kept, with their checkpoints and error reports, until the import is done with.
+     */
+    private String directory = "data/import";
+
+    /**
+     * CSV file to import at startup; the application exits when the import finishes unless
+     * {@code exit-after-import} is false.
+     */
+    private String file;
+
+    /**
+     * Accept preferred dates in the past when importing {@link #file} (historical bookings).
+     */
+    private boolean allowPastDates = false;
+
+    private boolean exitAfterImport = true;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getParserThreads() {
+        return parserThreads;
+    }
+
+    public void setParserThreads(int parserThreads) {
+        this.parserThreads = parserThreads;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public boolean isAllowPastDates() {
+        return allowPastDates;
+    }
+
+    public void setAllowPastDates(boolean allowPastDates) {
+        this.allowPastDates = allowPastDates;
+    }
+
+    public boolean isExitAfterImport() {
+        return exitAfterImport;
+    }
+
+    public void setExitAfterImport(boolean exitAfterImport) {
+        this.exitAfterImport = exitAfterImport;
+    }
+}
@@ -0,0 +1,107 @@
+package com.Diagnostic.metrics;
+
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.exception.AppointmentNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every {@link com.Diagnostic.service.AppointmentService} call as {@code appointment.service}, tagged with
+ * the method and its outcome. Runs outside the cache proxy, so cache hits are measured as callers see them.
+ * <p>
+ * Timers are resolved once per (method, outcome) and kept in an array indexed by outcome, so a call costs two
+ * {@link System#nanoTime()} reads and a map lookup, with no tag or builder allocation.
+ * Repository calls are timed by Spring Data's own {@code spring.data.repository.invocations} timer.
+ */
+@Aspect
+@Component
+@Order(0)
+public class AppointmentServiceMetrics {
+
+    public static final String TIMER_NAME = "appointment.service";
+
+    enum Outcome {
+        CONFIRMED("confirmed"),
+        PENDING("pending"),
+        WAITLISTED("waitlisted"),
+        CANCELLED("cancelled"),
+        SUCCESS("success"),
+        NOT_FOUND("not-found"),
+        ERROR("error");
+
+        private static final Outcome[] VALUES = values();
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+
+        static Outcome of(Object result) {
+            if (!(result instanceof AppointmentCheckupResponse response) || response.getStatus() == null) {
+                return SUCCESS;
+            }
+            switch (response.getStatus()) {
+                case "Confirmed":
+                    return CONFIRMED;
+                case "Pending":
+                    return PENDING;
+                case "Waitlisted":
+                    return WAITLISTED;
+                case "Cancelled":
+                    return CANCELLED;
+                default:
+                    return SUCCESS;
+            }
+        }
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    @Around("execution(* com.Diagnostic.service.AppointmentService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            Object result = joinPoint.proceed();
+            outcome = Outcome.of(result);
+            return result;
+        } catch (AppointmentNotFoundException e) {
+            outcome = Outcome.NOT_FOUND;
+            throw e;
+        } finally {
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            timer(method, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(Method method, Outcome outcome) {
+        Timer[] byOutcome = timers.computeIfAbsent(method, m -> new Timer[Outcome.VALUES.length]);
+        Timer timer = byOutcome[outcome.ordinal()];
+        if (timer == null) {
+            // Racing threads may both register; the registry hands back the same meter
+            timer = Timer.builder(TIMER_NAME)
+                    .description("AppointmentService calls")
+                    .tag("method", method.getName())
+                    .tag("outcome", outcome.tag)
+                    .register(meterRegistry);
+            byOutcome[outcome.ordinal()] = timer;
+        }
+        return timer;
+    }
+}
@@ -0,0 +1,95 @@
+package com.Diagnostic.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Watches for virtual threads that block while pinned to their carrier thread (inside a synchronized block or a
+ * native frame), which takes the carrier away from every other virtual thread for as long as the call lasts.
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event in-process, times every occurrence longer than the
+ * threshold as {@code appointment.threads.pinned} and logs the stack of each distinct pinning site once.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class PinnedThreadMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+    // Distinct pinning sites remembered for logging; later ones are still timed
+    private static final int MAX_LOGGED_SITES = 100;
+
+    private final Duration threshold;
+    private final Timer pinned;
+    private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream recording;
+
+    public PinnedThreadMonitor(MeterRegistry meterRegistry,
+                               @Value("${appointment.threads.pinned-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinned = Timer.builder("appointment.threads.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        logger.info("Reporting virtual threads pinned for longer than {}", threshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    /**
+     * Times one pinned event and logs its stack if the site has not been logged yet.
+     */
+    public void onPinned(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        List<String> frames = frames(event.getStackTrace());
+        String site = String.join("\n\tat ", frames);
+        if (loggedSites.size() < MAX_LOGGED_SITES && loggedSites.add(site)) {
+            logger.warn("Virtual thread pinned for {} ms\n\tat {}", event.getDuration().toMillis(), site);
+        }
+    }
+
+    private static List<String> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of("(no stack trace)");
+        }
+        return stackTrace.getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(PinnedThreadMonitor::format)
+                .toList();
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + "(line " + frame.getLineNumber() + ")";
+    }
+}
@@ -1,13 +1,105 @@
 package com.Diagnostic.repository;
 
 import com.Diagnostic.entity.Appointment;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, JpaSpecificationExecutor<Appointment>,
+        AppointmentSummaryRepository {
+
+    String EXPORT_FETCH_SIZE = "1000";
+
+    String SUMMARY_SELECT = "select new com.Diagnostic.repository.AppointmentSummary(a.id, a.appointmentId, "
+            + "a.patientName, a.checkupType, a.appointmentDate, a.appointmentTime, a.status, a.remark, "
+            + "a.version, a.lastModified) "
+            + "from Appointment a ";
 
     Optional<Appointment> findByAppointmentId(String appointmentId);
+    List<Appointment> findAllByAppointmentIdIn(Collection<String> appointmentIds);
     void deleteByAppointmentId(String appointmentId);
     boolean existsByAppointmentId(String appointmentId);
+
+    @Query("select a.appointmentId from Appointment a where a.appointmentId in :appointmentIds")
+    List<String> findExistingAppointmentIds(@Param("appointmentIds") Collection<String> appointmentIds);
+
+    @Transactional(readOnly = true)
+    @Query(SUMMARY_SELECT + "where a.appointmentId = :appointmentId")
+    Optional<AppointmentSummary> findSummaryByAppointmentId(@Param("appointmentId") String appointmentId);
+
+    @Transactional(readOnly = true)
+    @Query(SUMMARY_SELECT + "order by a.appointmentDate, a.appointmentTime, a.id")
+    List<AppointmentSummary> findAllSummaries();
+
+    /**
+     * Streams every appointment in id order. Must be consumed inside a (read-only) transaction and closed;
+     * with MySQL the rows are only fetched incrementally when the URL sets {@code useCursorFetch=true}.
+     */
+    @Query("select a from Appointment a order by a.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Appointment> streamAll();
+
+    /**
+     * Streams every appointmentId, for rebuilding the in-memory existence filter. Same transaction rules as
+     * {@link #streamAll()}.
+     */
+    @Query("select a.appointmentId from Appointment a")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<String> streamAppointmentIds();
+
+    @Query("select a.checkupType as checkupType, a.appointmentDate as appointmentDate, "
+            + "a.appointmentTime as appointmentTime, count(a) as booked from Appointment a "
+            + "where a.status = 'Confirmed' and a.appointmentDate >= :fromDate "
+            + "group by a.checkupType, a.appointmentDate, a.appointmentTime")
+    List<SlotUsage> countConfirmedBySlot(@Param("fromDate") LocalDate fromDate);
+
+    /**
+     * Cancels the appointment only if it is still the version that was read, so a concurrent cancel or update
+     * (including a move to another slot that keeps the status) is detected instead of overwritten. Returns the
+     * number of rows changed (0 or 1).
+     */
+    @Transactional
+    @Modifying
+    @Query("update Appointment a set a.status = 'Cancelled', a.version = a.version + 1, a.lastModified = instant "
+            + "where a.appointmentId = :appointmentId and a.version = :version and a.status <> 'Cancelled'")
+    int cancelIfVersion(@Param("appointmentId") String appointmentId, @Param("version") long version);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Appointment a where a.appointmentId in :appointmentIds and a.status <> 'Cancelled'")
+    List<Appointment> lockActiveByAppointmentIds(@Param("appointmentIds") Collection<String> appointmentIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Appointment a where a.appointmentDate = :appointmentDate "
+            + "and (:checkupType is null or a.checkupType = :checkupType) "
+            + "and a.status <> 'Cancelled' order by a.id")
+    List<Appointment> lockActiveByDate(@Param("appointmentDate") LocalDate appointmentDate,
+                                       @Param("checkupType") String checkupType, Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Appointment a set a.status = 'Cancelled', a.version = a.version + 1, a.lastModified = instant "
+            + "where a.id in :ids")
+    int cancelAllById(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,63 @@
+package com.Diagnostic.repository;
+
+import com.Diagnostic.dto.AppointmentSearchCriteria;
+import com.Diagnostic.entity.Appointment;
+import com.Diagnostic.utility.AppointmentCursor;
+import com.Diagnostic.utility.ValidationUtil;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class AppointmentSpecifications {
+
+    /**
+     * Keyset order used by paginated listings; matches the column order of the slot indexes on {@link Appointment}.
+     */
+    public static final Sort KEYSET_SORT = Sort.by("appointmentDate", "appointmentTime", "id");
+
+    private AppointmentSpecifications() {
+    }
+
+    public static Specification<Appointment> matching(AppointmentSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.getFromDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("appointmentDate"), criteria.getFromDate()));
+            }
+            if (criteria.getToDate() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("appointmentDate"), criteria.getToDate()));
+            }
+            if (!ValidationUtil.isNullOrEmpty(criteria.getStatus())) {
+                predicates.add(cb.equal(root.get("status"), criteria.getStatus()));
+            }
+            if (!ValidationUtil.isNullOrEmpty(criteria.getCheckupType())) {
+                predicates.add(cb.equal(root.get("checkupType"), criteria.getCheckupType()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Rows strictly after the cursor in {@link #KEYSET_SORT} order.
+     */
+    public static Specification<Appointment> after(AppointmentCursor cursor) {
+        return (root, query, cb) -> {
+            LocalDate date = cursor.getAppointmentDate();
+            LocalTime time = cursor.getAppointmentTime();
+            return cb.or(
+                    cb.greaterThan(root.get("appointmentDate"), date),
+                    cb.and(
+                            cb.equal(root.get("appointmentDate"), date),
+                            cb.or(
+                                    cb.greaterThan(root.get("appointmentTime"), time),
+                                    cb.and(
+                                            cb.equal(root.get("appointmentTime"), time),
+                                            cb.greaterThan(root.get("id"), cursor.getId())))));
+        };
+    }
+}
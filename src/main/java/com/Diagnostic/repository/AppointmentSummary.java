@@ -0,0 +1,22 @@
+package com.Diagnostic.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Read-only projection of the columns an {@link com.Diagnostic.dto.AppointmentCheckupResponse} needs, plus the
+ * id for keyset cursors and the version and last-modified time for conditional GETs. Selected with a constructor expression, so no entity is hydrated, tracked or
+ * dirty-checked and the patient's contact details are never read.
+ */
+public record AppointmentSummary(Long id,
+                                 String appointmentId,
+                                 String patientName,
+                                 String checkupType,
+                                 LocalDate appointmentDate,
+                                 LocalTime appointmentTime,
+                                 String status,
+                                 String remark,
+                                 long version,
+                                 Instant lastModified) {
+}
@@ -0,0 +1,20 @@
+package com.Diagnostic.repository;
+
+import com.Diagnostic.entity.Appointment;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Specification queries that select {@link AppointmentSummary} (or {@link AppointmentVersion}) rows instead of entities.
+ */
+public interface AppointmentSummaryRepository {
+
+    List<AppointmentSummary> findSummaries(Specification<Appointment> specification, Sort sort, int limit);
+
+    /**
+     * The id and version of the rows {@link #findSummaries} would return for the same arguments.
+     */
+    List<AppointmentVersion> findVersions(Specification<Appointment> specification, Sort sort, int limit);
+}
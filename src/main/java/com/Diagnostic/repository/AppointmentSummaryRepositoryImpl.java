@@ -0,0 +1,66 @@
+package com.Diagnostic.repository;
+
+import com.Diagnostic.entity.Appointment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+class AppointmentSummaryRepositoryImpl implements AppointmentSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AppointmentSummary> findSummaries(Specification<Appointment> specification, Sort sort, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AppointmentSummary> query = builder.createQuery(AppointmentSummary.class);
+        Root<Appointment> root = query.from(Appointment.class);
+
+        query.select(builder.construct(AppointmentSummary.class,
+                root.get("id"),
+                root.get("appointmentId"),
+                root.get("patientName"),
+                root.get("checkupType"),
+                root.get("appointmentDate"),
+                root.get("appointmentTime"),
+                root.get("status"),
+                root.get("remark"),
+                root.get("version"),
+                root.get("lastModified")));
+        return execute(query, root, builder, specification, sort, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AppointmentVersion> findVersions(Specification<Appointment> specification, Sort sort, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AppointmentVersion> query = builder.createQuery(AppointmentVersion.class);
+        Root<Appointment> root = query.from(Appointment.class);
+
+        query.select(builder.construct(AppointmentVersion.class, root.get("id"), root.get("version")));
+        return execute(query, root, builder, specification, sort, limit);
+    }
+
+    private <T> List<T> execute(CriteriaQuery<T> query, Root<Appointment> root, CriteriaBuilder builder,
+                                Specification<Appointment> specification, Sort sort, int limit) {
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
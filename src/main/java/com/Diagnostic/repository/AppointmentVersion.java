@@ -0,0 +1,7 @@
+package com.Diagnostic.repository;
+
+/**
+ * Just enough of a row to tell whether a page of appointments has changed: which rows it holds, and their versions.
+ */
+public record AppointmentVersion(Long id, long version) {
+}
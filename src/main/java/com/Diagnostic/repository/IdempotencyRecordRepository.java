@@ -0,0 +1,38 @@
+package com.Diagnostic.repository;
+
+import com.Diagnostic.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.statusCode = :statusCode, r.responseBody = :responseBody "
+            + "where r.idempotencyKey = :idempotencyKey and r.statusCode = 0")
+    int complete(@Param("idempotencyKey") String idempotencyKey, @Param("statusCode") int statusCode,
+                 @Param("responseBody") String responseBody);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :idempotencyKey and r.statusCode = 0")
+    int deletePending(@Param("idempotencyKey") String idempotencyKey);
+
+    // Removes the record if it has expired, or if it is a claim whose request never completed it
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.idempotencyKey = :idempotencyKey "
+            + "and (r.createdAt < :expiredBefore or (r.statusCode = 0 and r.createdAt < :abandonedBefore))")
+    int deleteStale(@Param("idempotencyKey") String idempotencyKey, @Param("expiredBefore") Instant expiredBefore,
+                    @Param("abandonedBefore") Instant abandonedBefore);
+}
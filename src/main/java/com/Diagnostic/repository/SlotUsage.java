@@ -0,0 +1,11 @@
+package com.Diagnostic.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public interface SlotUsage {
+    String getCheckupType();
+    LocalDate getAppointmentDate();
+    LocalTime getAppointmentTime();
+    long getBooked();
+}
@@ -0,0 +1,192 @@
+package com.Diagnostic.service;
+
+import com.Diagnostic.datasource.ReadWriteRoutingDataSource;
+import com.Diagnostic.repository.AppointmentRepository;
+import com.Diagnostic.utility.BloomFilter;
+import com.Diagnostic.utility.TimeOrderedAppointmentIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of every stored appointmentId, so lookups for IDs that do not exist (stale links, scrapers)
+ * are answered without a database round trip.
+ * <p>
+ * The filter is rebuilt from the table at startup and then periodically, and IDs booked on this node are added
+ * as they are generated. IDs booked on other nodes only show up after the next rebuild, so a miss is only
+ * trusted for IDs that were generated at least {@code trust-margin} before the last rebuild started (a version 7
+ * appointmentId carries its creation time). Anything newer, and every lookup before the first build, goes to
+ * the database as before. Cancellations are soft deletes, so IDs never leave the table; the periodic rebuild
+ * is what picks up other nodes' bookings and keeps the false positive rate at its target as the table grows.
+ */
+@Service
+public class AppointmentExistenceFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppointmentExistenceFilter.class);
+
+    static final long MIN_EXPECTED_IDS = 10_000;
+    // Position and value of the version digit of a name-based (version 3) UUID in 8-4-4-4-12 form
+    private static final int VERSION_INDEX = 14;
+    private static final char NAME_BASED_VERSION = '3';
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${appointment.id-filter.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${appointment.id-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    @Value("${appointment.id-filter.trust-margin:5m}")
+    private Duration trustMargin = Duration.ofMinutes(5);
+
+    private volatile Snapshot current;
+
+    // Set while a rebuild is scanning the table, so IDs booked meanwhile also land in the new filter
+    private volatile BloomFilter building;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private record Snapshot(BloomFilter ids, long trustedBeforeMillis) {
+    }
+
+    /**
+     * Returns false only when the ID is certainly not stored.
+     */
+    public boolean mightExist(String appointmentId) {
+        Snapshot snapshot = current;
+        if (snapshot == null || appointmentId == null) {
+            return true;
+        }
+        String canonical = canonicalUuid(appointmentId);
+        if (canonical == null) {
+            // appointmentId is a BINARY(16) column, so only strings UUID.fromString accepts can match anything
+            return !cannotBeUuid(appointmentId);
+        }
+        if (canonical.charAt(VERSION_INDEX) == NAME_BASED_VERSION) {
+            // Imported rows have name-based IDs without a creation time, so one imported on another node since
+            // the rebuild cannot be told apart from an unknown one. Nobody guesses them, so the filter loses little
+            return true;
+        }
+        long createdAt = TimeOrderedAppointmentIdGenerator.timestampOf(canonical);
+        if (createdAt >= snapshot.trustedBeforeMillis()) {
+            return true;
+        }
+        return snapshot.ids().mightContain(canonical);
+    }
+
+    /**
+     * Records a newly generated ID. Must be called before the appointment is visible to anyone else.
+     */
+    public void add(String appointmentId) {
+        Snapshot snapshot = current;
+        if (snapshot != null) {
+            snapshot.ids().put(appointmentId);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(appointmentId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${appointment.id-filter.rebuild-interval:PT1H}",
+            initialDelayString = "${appointment.id-filter.rebuild-interval:PT1H}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        // A lock rather than synchronized: a virtual thread scanning the table inside a monitor would pin its carrier
+        rebuildLock.lock();
+        try {
+            rebuildFromTable();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildFromTable() {
+        long startedAt = System.currentTimeMillis();
+        try {
+            long expected = Math.max(MIN_EXPECTED_IDS, appointmentRepository.count() * 3 / 2);
+            BloomFilter next = new BloomFilter(expected, falsePositiveRate);
+            building = next;
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            Long scanned = readOnly.execute(status -> {
+                // A replica may lag by more than the trust margin, and an ID it has not seen yet would then be
+                // reported missing for a whole rebuild interval, so the scan reads the primary
+                ReadWriteRoutingDataSource.usePrimaryForCurrentTransaction();
+                long count = 0;
+                try (Stream<String> appointmentIds = appointmentRepository.streamAppointmentIds()) {
+                    Iterator<String> iterator = appointmentIds.iterator();
+                    while (iterator.hasNext()) {
+                        next.put(iterator.next());
+                        count++;
+                    }
+                }
+                return count;
+            });
+            current = new Snapshot(next, startedAt - trustMargin.toMillis());
+            logger.info("Appointment ID filter rebuilt with {} IDs ({} bits, {} hashes) in {} ms",
+                    scanned, next.getBitCount(), next.getHashCount(), System.currentTimeMillis() - startedAt);
+        } catch (RuntimeException e) {
+            logger.warn("Could not rebuild appointment ID filter, keeping the previous one", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * The lower-case form of a UUID in the usual 8-4-4-4-12 layout (the form IDs are stored and read back in),
+     * or null for any other string. Checked by hand so a junk ID does not cost a parse exception.
+     */
+    static String canonicalUuid(String value) {
+        if (value.length() != 36) {
+            return null;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            boolean valid = (i == 8 || i == 13 || i == 18 || i == 23)
+                    ? c == '-'
+                    : (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+            if (!valid) {
+                return null;
+            }
+        }
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * True for strings UUID.fromString always rejects (too long, or characters other than hex digits and signs).
+     */
+    private static boolean cannotBeUuid(String value) {
+        if (value.length() > 36) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.digit(c, 16) < 0 && c != '-' && c != '+') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,104 @@
+package com.Diagnostic.service;
+
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.dto.ExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes appointments one row at a time, so an export never holds more than the current row and the write buffer.
+ */
+class AppointmentExportWriter {
+
+    static final String CSV_HEADER = "appointmentId,patientName,checkupType,appointmentDate,appointmentTime,status,remark";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ExportFormat format;
+    private final Writer writer;
+    private final SequenceWriter jsonWriter;
+    private long rows;
+
+    AppointmentExportWriter(ExportFormat format, OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == ExportFormat.NDJSON) {
+            this.jsonWriter = objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+        } else {
+            this.jsonWriter = null;
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    void write(AppointmentCheckupResponse response) throws IOException {
+        rows++;
+        if (format == ExportFormat.NDJSON) {
+            jsonWriter.write(response);
+            return;
+        }
+        writeCsvField(response.getAppointmentId());
+        writer.write(',');
+        writeCsvField(response.getPatientName());
+        writer.write(',');
+        writeCsvField(response.getCheckupType());
+        writer.write(',');
+        writeCsvField(response.getAppointmentDate() == null ? null : response.getAppointmentDate().toString());
+        writer.write(',');
+        writeCsvField(response.getAppointmentTime() == null ? null : response.getAppointmentTime().toString());
+        writer.write(',');
+        writeCsvField(response.getStatus());
+        writer.write(',');
+        writeCsvField(response.getRemark());
+        writer.write('\n');
+    }
+
+    /**
+     * Pushes buffered rows to the client so the first bytes leave before the query has finished.
+     */
+    void flush() throws IOException {
+        if (jsonWriter != null) {
+            jsonWriter.flush();
+        }
+        writer.flush();
+    }
+
+    void finish() throws IOException {
+        if (jsonWriter != null) {
+            jsonWriter.flush();
+            if (rows > 0) {
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    private void writeCsvField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,89 @@
+package com.Diagnostic.service;
+
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.dto.AppointmentPatchRequest;
+import com.Diagnostic.entity.Appointment;
+import com.Diagnostic.repository.AppointmentSummary;
+
+public final class AppointmentMapper {
+
+    private AppointmentMapper() {
+    }
+
+    public static void applyRequest(Appointment appointment, AppointmentCheckupRequest request) {
+        appointment.setPatientName(request.getPatientName());
+        appointment.setAge(request.getAge());
+        appointment.setGender(request.getGender());
+        appointment.setMobile(request.getMobile());
+        appointment.setEmail(request.getEmail());
+        appointment.setCheckupType(request.getCheckupType());
+        appointment.setAppointmentDate(request.getPreferredDate());
+        appointment.setAppointmentTime(request.getPreferredTime());
+    }
+
+    /**
+     * Copies only the fields present in the patch. Returns true if the checkup type, date or time changed,
+     * i.e. the appointment moved to another slot.
+     */
+    public static boolean applyPatch(Appointment appointment, AppointmentPatchRequest patch) {
+        if (patch.getPatientName() != null) {
+            appointment.setPatientName(patch.getPatientName());
+        }
+        if (patch.getAge() != null) {
+            appointment.setAge(patch.getAge());
+        }
+        if (patch.getGender() != null) {
+            appointment.setGender(patch.getGender());
+        }
+        if (patch.getMobile() != null) {
+            appointment.setMobile(patch.getMobile());
+        }
+        if (patch.getEmail() != null) {
+            appointment.setEmail(patch.getEmail());
+        }
+
+        boolean rescheduled = false;
+        if (patch.getCheckupType() != null && !patch.getCheckupType().equals(appointment.getCheckupType())) {
+            appointment.setCheckupType(patch.getCheckupType());
+            rescheduled = true;
+        }
+        if (patch.getPreferredDate() != null && !patch.getPreferredDate().equals(appointment.getAppointmentDate())) {
+            appointment.setAppointmentDate(patch.getPreferredDate());
+            rescheduled = true;
+        }
+        if (patch.getPreferredTime() != null && !patch.getPreferredTime().equals(appointment.getAppointmentTime())) {
+            appointment.setAppointmentTime(patch.getPreferredTime());
+            rescheduled = true;
+        }
+        return rescheduled;
+    }
+
+    public static AppointmentCheckupResponse toResponse(Appointment appointment) {
+        AppointmentCheckupResponse response = new AppointmentCheckupResponse();
+        response.setAppointmentId(appointment.getAppointmentId());
+        response.setPatientName(appointment.getPatientName());
+        response.setCheckupType(appointment.getCheckupType());
+        response.setAppointmentDate(appointment.getAppointmentDate());
+        response.setAppointmentTime(appointment.getAppointmentTime());
+        response.setStatus(appointment.getStatus());
+        response.setRemark(appointment.getRemark());
+        response.setVersion(appointment.getVersion());
+        response.setLastModified(appointment.getLastModified());
+        return response;
+    }
+
+    public static AppointmentCheckupResponse toResponse(AppointmentSummary summary) {
+        AppointmentCheckupResponse response = new AppointmentCheckupResponse();
+        response.setAppointmentId(summary.appointmentId());
+        response.setPatientName(summary.patientName());
+        response.setCheckupType(summary.checkupType());
+        response.setAppointmentDate(summary.appointmentDate());
+        response.setAppointmentTime(summary.appointmentTime());
+        response.setStatus(summary.status());
+        response.setRemark(summary.remark());
+        response.setVersion(summary.version());
+        response.setLastModified(summary.lastModified());
+        return response;
+    }
+}
@@ -2,14 +2,43 @@ package com.Diagnostic.service;
 
 import com.Diagnostic.dto.AppointmentCheckupRequest;
 import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.dto.AppointmentPageResponse;
+import com.Diagnostic.dto.AppointmentPatchRequest;
+import com.Diagnostic.dto.AppointmentSearchCriteria;
+import com.Diagnostic.dto.BatchBookingResult;
+import com.Diagnostic.dto.BulkCancelRequest;
+import com.Diagnostic.dto.BulkCancelResult;
+import com.Diagnostic.dto.ExportFormat;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface AppointmentService {
     AppointmentCheckupResponse bookAppointment(AppointmentCheckupRequest request);
+    List<BatchBookingResult> bookAppointments(List<AppointmentCheckupRequest> requests);
+
+    /**
+     * Stores requests the caller has already validated, as one chunk, under the given appointment IDs. Unlike
+     * {@link #bookAppointments} past dates are accepted: they are stored as Confirmed history and take no slot
+     * capacity. A request whose ID is already stored counts as booked and is not stored again, so a chunk
+     * repeated after a crash is not imported twice.
+     */
+    List<BatchBookingResult> importAppointments(List<AppointmentCheckupRequest> requests, List<String> appointmentIds);
     AppointmentCheckupResponse cancelAppointmentById(String appointmentId);
+    BulkCancelResult cancelAppointments(BulkCancelRequest request);
     AppointmentCheckupResponse getAppointmentById(String appointmentId);
     AppointmentCheckupResponse updateAppointment(String appointmentId, AppointmentCheckupRequest request);
+    AppointmentCheckupResponse patchAppointment(String appointmentId, AppointmentPatchRequest request);
 
     List<AppointmentCheckupResponse> getAllAppointments();
+
+    AppointmentPageResponse getAppointments(AppointmentSearchCriteria criteria, String cursor, int limit);
+
+    /**
+     * The ETag {@link #getAppointments} would return for the same arguments, computed without loading the rows.
+     */
+    String getAppointmentsEtag(AppointmentSearchCriteria criteria, String cursor, int limit);
+
+    long exportAppointments(ExportFormat format, OutputStream outputStream) throws IOException;
 }
@@ -1,127 +1,628 @@
 package com.Diagnostic.service;
 
+import com.Diagnostic.booking.AsyncBookingPipeline;
+import com.Diagnostic.datasource.ReadYourWrites;
 import com.Diagnostic.dto.AppointmentCheckupRequest;
 import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.dto.AppointmentPageResponse;
+import com.Diagnostic.dto.AppointmentPatchRequest;
+import com.Diagnostic.dto.AppointmentSearchCriteria;
+import com.Diagnostic.dto.BatchBookingResult;
+import com.Diagnostic.dto.BulkCancelRequest;
+import com.Diagnostic.dto.BulkCancelResult;
+import com.Diagnostic.dto.ExportFormat;
 import com.Diagnostic.entity.Appointment;
 import com.Diagnostic.exception.AppointmentNotFoundException;
 import com.Diagnostic.repository.AppointmentRepository;
+import com.Diagnostic.repository.AppointmentSummary;
+import com.Diagnostic.repository.AppointmentVersion;
+import com.Diagnostic.service.SlotCapacityService.SlotKey;
+import com.Diagnostic.utility.AppointmentCursor;
+import com.Diagnostic.utility.AppointmentIdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.Diagnostic.repository.AppointmentSpecifications.KEYSET_SORT;
+import static com.Diagnostic.repository.AppointmentSpecifications.after;
+import static com.Diagnostic.repository.AppointmentSpecifications.matching;
+import static com.Diagnostic.service.AppointmentMapper.applyPatch;
+import static com.Diagnostic.service.AppointmentMapper.applyRequest;
+import static com.Diagnostic.service.AppointmentMapper.toResponse;
 
 @Service
 public class AppointmentServiceImpl implements AppointmentService {
 
     private static final Logger logger = LoggerFactory.getLogger(AppointmentServiceImpl.class);
 
+    public static final String APPOINTMENT_CACHE = "appointments";
+
+    static final int MAX_BATCH_SIZE = 1000;
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    // Rows between persistence-context clears and client flushes during an export
+    static final int EXPORT_CHUNK_SIZE = 1000;
+    // Rows locked and cancelled per transaction by a bulk cancel
+    static final int BULK_CANCEL_CHUNK_SIZE = 500;
+    static final int MAX_UPDATE_ATTEMPTS = 3;
+    private static final long ETAG_SEED = 0x9e3779b97f4a7c15L;
+
     @Autowired
     private AppointmentRepository appointmentRepository;
 
+    @Autowired
+    private SlotCapacityService slotCapacityService;
+
+    @Autowired
+    private AppointmentIdGenerator appointmentIdGenerator;
+
+    @Autowired
+    private AppointmentExistenceFilter existenceFilter;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Only present with appointment.booking.async=true
+    @Autowired(required = false)
+    private AsyncBookingPipeline bookingPipeline;
+
+    @Value("${appointment.batch.chunk-size:50}")
+    private int batchChunkSize = 50;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
+    @CachePut(cacheNames = APPOINTMENT_CACHE, key = "#result.appointmentId")
     public AppointmentCheckupResponse bookAppointment(AppointmentCheckupRequest request) {
         logger.info("Booking appointment for patient: {}", request.getPatientName());
 
         Appointment appointment = new Appointment();
-        appointment.setAppointmentId(UUID.randomUUID().toString());
-        appointment.setPatientName(request.getPatientName());
-        appointment.setAge(request.getAge());
-        appointment.setGender(request.getGender());
-        appointment.setMobile(request.getMobile());
-        appointment.setEmail(request.getEmail());
-        appointment.setCheckupType(request.getCheckupType());
-        appointment.setAppointmentDate(request.getPreferredDate());
-        appointment.setAppointmentTime(request.getPreferredTime());
-
-        if (request.getPreferredDate().isAfter(LocalDate.now().plusDays(15))) {
-            appointment.setStatus("Pending");
-            appointment.setRemark("Choose date within 15 days");
+        appointment.setAppointmentId(appointmentIdGenerator.nextId());
+        existenceFilter.add(appointment.getAppointmentId());
+        applyRequest(appointment, request);
+
+        boolean reserved = applyBookingWindow(appointment) && reserveSlot(appointment);
+        if (reserved) {
+            logger.info("Appointment confirmed for patient: {}", request.getPatientName());
+        } else if ("Pending".equals(appointment.getStatus())) {
             logger.warn("Appointment date is beyond 15 days for patient: {}", request.getPatientName());
         } else {
-            appointment.setStatus("Confirmed");
-            appointment.setRemark(null);
-            logger.info("Appointment confirmed for patient: {}", request.getPatientName());
+            logger.warn("Slot is full, appointment waitlisted for patient: {}", request.getPatientName());
         }
 
-        appointmentRepository.save(appointment);
+        try {
+            if (bookingPipeline != null) {
+                bookingPipeline.submit(appointment);
+            } else {
+                appointmentRepository.save(appointment);
+            }
+        } catch (RuntimeException e) {
+            if (reserved) {
+                slotCapacityService.release(slotCapacityService.slotOf(appointment));
+            }
+            throw e;
+        }
+        readYourWrites.written(appointment.getAppointmentId());
         return toResponse(appointment);
     }
 
     @Override
+    public List<BatchBookingResult> bookAppointments(List<AppointmentCheckupRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one appointment is required");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_SIZE + " appointments");
+        }
+        logger.info("Booking batch of {} appointments", requests.size());
+
+        BatchBookingResult[] results = new BatchBookingResult[requests.size()];
+        List<Appointment> chunk = new ArrayList<>(batchChunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(batchChunkSize);
+
+        for (int i = 0; i < requests.size(); i++) {
+            AppointmentCheckupRequest request = requests.get(i);
+            Map<String, String> errors = validate(request);
+            if (!errors.isEmpty()) {
+                results[i] = BatchBookingResult.failed(i, "Validation failed", errors);
+                continue;
+            }
+
+            Appointment appointment = new Appointment();
+            appointment.setAppointmentId(appointmentIdGenerator.nextId());
+            existenceFilter.add(appointment.getAppointmentId());
+            applyRequest(appointment, request);
+            if (applyBookingWindow(appointment)) {
+                reserveSlot(appointment);
+            }
+            chunk.add(appointment);
+            chunkIndexes.add(i);
+
+            if (chunk.size() == batchChunkSize) {
+                saveChunk(chunk, chunkIndexes, results);
+                chunk.clear();
+                chunkIndexes.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(chunk, chunkIndexes, results);
+        }
+        return List.of(results);
+    }
+
+    @Override
+    public List<BatchBookingResult> importAppointments(List<AppointmentCheckupRequest> requests, List<String> appointmentIds) {
+        BatchBookingResult[] results = new BatchBookingResult[requests.size()];
+        List<Appointment> appointments = new ArrayList<>(requests.size());
+        List<Integer> indexes = new ArrayList<>(requests.size());
+        LocalDate today = LocalDate.now();
+        // One query for the whole chunk, in a read-write transaction so it is answered by the primary rather than
+        // a lagging replica
+        Map<String, Appointment> stored = transactionTemplate.execute(status -> {
+            Map<String, Appointment> existing = new HashMap<>();
+            for (Appointment appointment : appointmentRepository.findAllByAppointmentIdIn(appointmentIds)) {
+                existing.put(appointment.getAppointmentId(), appointment);
+            }
+            return existing;
+        });
+
+        for (int i = 0; i < requests.size(); i++) {
+            Appointment existing = stored.get(appointmentIds.get(i));
+            if (existing != null) {
+                // Stored by an earlier run that stopped before its checkpoint; its slot is already taken
+                results[i] = BatchBookingResult.booked(i, toResponse(existing));
+                continue;
+            }
+            Appointment appointment = new Appointment();
+            appointment.setAppointmentId(appointmentIds.get(i));
+            existenceFilter.add(appointment.getAppointmentId());
+            applyRequest(appointment, requests.get(i));
+            if (appointment.getAppointmentDate().isBefore(today)) {
+                // Slots are only counted from today on
+                appointment.setStatus("Confirmed");
+                appointment.setRemark(null);
+            } else if (applyBookingWindow(appointment)) {
+                reserveSlot(appointment);
+            }
+            appointments.add(appointment);
+            indexes.add(i);
+        }
+        if (!appointments.isEmpty()) {
+            saveChunk(appointments, indexes, results);
+        }
+        return List.of(results);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = APPOINTMENT_CACHE, key = "#appointmentId")
     public AppointmentCheckupResponse cancelAppointmentById(String appointmentId) {
         logger.info("Cancelling appointment with ID: {}", appointmentId);
-        Appointment appointment = getAppointmentByIdInternal(appointmentId);
-        appointment.setStatus("Cancelled");
-        appointmentRepository.delete(appointment);
-        logger.info("Appointment cancelled and deleted: {}", appointmentId);
-        return toResponse(appointment);
+        for (int attempt = 1; ; attempt++) {
+            Appointment appointment = getAppointmentByIdInternal(appointmentId);
+            String previousStatus = appointment.getStatus();
+            if ("Cancelled".equals(previousStatus)) {
+                // Whoever cancelled it also released the slot
+                return toResponse(appointment);
+            }
+
+            if (appointmentRepository.cancelIfVersion(appointmentId, appointment.getVersion()) == 1) {
+                // The row cancelled is exactly the version read, so this is the slot it held
+                appointment.setStatus("Cancelled");
+                readYourWrites.written(appointmentId);
+                if ("Confirmed".equals(previousStatus)) {
+                    slotCapacityService.release(slotCapacityService.slotOf(appointment));
+                }
+                logger.info("Appointment cancelled: {}", appointmentId);
+                return toResponse(appointment);
+            }
+            if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                throw new IllegalStateException("Appointment was modified concurrently, please retry: " + appointmentId);
+            }
+            logger.warn("Appointment {} was modified concurrently, retrying cancel (attempt {} of {})",
+                    appointmentId, attempt + 1, MAX_UPDATE_ATTEMPTS);
+        }
+    }
+
+    @Override
+    public BulkCancelResult cancelAppointments(BulkCancelRequest request) {
+        List<String> appointmentIds = request == null ? null : request.getAppointmentIds();
+        boolean byIds = appointmentIds != null && !appointmentIds.isEmpty();
+        boolean byDate = request != null && request.getAppointmentDate() != null;
+        if (byIds == byDate) {
+            throw new IllegalArgumentException("Provide either appointmentIds or appointmentDate");
+        }
+
+        List<String> cancelled = new ArrayList<>();
+        if (byIds) {
+            if (appointmentIds.size() > MAX_BATCH_SIZE) {
+                throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " appointments can be cancelled at once");
+            }
+            logger.info("Bulk cancelling {} appointments by ID", appointmentIds.size());
+            List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(appointmentIds));
+            for (int from = 0; from < distinctIds.size(); from += BULK_CANCEL_CHUNK_SIZE) {
+                List<String> chunk = distinctIds.subList(from, Math.min(from + BULK_CANCEL_CHUNK_SIZE, distinctIds.size()));
+                cancelled.addAll(cancelChunk(() -> appointmentRepository.lockActiveByAppointmentIds(chunk)));
+            }
+        } else {
+            logger.info("Bulk cancelling appointments on {} for checkup type: {}",
+                    request.getAppointmentDate(), request.getCheckupType());
+            List<String> chunkCancelled;
+            do {
+                // Cancelled rows drop out of the query, so each pass picks up the next chunk
+                chunkCancelled = cancelChunk(() -> appointmentRepository.lockActiveByDate(
+                        request.getAppointmentDate(), request.getCheckupType(), Limit.of(BULK_CANCEL_CHUNK_SIZE)));
+                cancelled.addAll(chunkCancelled);
+            } while (chunkCancelled.size() == BULK_CANCEL_CHUNK_SIZE);
+        }
+        readYourWrites.written(cancelled);
+        logger.info("Bulk cancelled {} appointments", cancelled.size());
+        return new BulkCancelResult(cancelled);
     }
 
     @Override
+    @Cacheable(cacheNames = APPOINTMENT_CACHE, key = "#appointmentId", sync = true)
+    @Transactional(readOnly = true)
     public AppointmentCheckupResponse getAppointmentById(String appointmentId) {
         logger.info("Fetching appointment details for ID: {}", appointmentId);
-        Appointment appointment = getAppointmentByIdInternal(appointmentId);
-        return toResponse(appointment);
+        if (!existenceFilter.mightExist(appointmentId)) {
+            throw notFound(appointmentId);
+        }
+        readYourWrites.beforeRead(appointmentId);
+        return appointmentRepository.findSummaryByAppointmentId(appointmentId)
+                .map(AppointmentMapper::toResponse)
+                .orElseThrow(() -> notFound(appointmentId));
     }
 
     @Override
+    @CachePut(cacheNames = APPOINTMENT_CACHE, key = "#appointmentId")
     public AppointmentCheckupResponse updateAppointment(String appointmentId, AppointmentCheckupRequest request) {
         logger.info("Updating appointment with ID: {}", appointmentId);
-        Appointment appointment = getAppointmentByIdInternal(appointmentId);
-
-        appointment.setPatientName(request.getPatientName());
-        appointment.setAge(request.getAge());
-        appointment.setGender(request.getGender());
-        appointment.setMobile(request.getMobile());
-        appointment.setEmail(request.getEmail());
-        appointment.setCheckupType(request.getCheckupType());
-        appointment.setAppointmentDate(request.getPreferredDate());
-        appointment.setAppointmentTime(request.getPreferredTime());
-
-        if (request.getPreferredDate().isAfter(LocalDate.now().plusDays(15))) {
-            appointment.setStatus("Pending");
-            appointment.setRemark("Choose date within 15 days");
-            logger.warn("Updated date is beyond 15 days for appointment: {}", appointmentId);
-        } else {
-            appointment.setStatus("Confirmed");
-            appointment.setRemark(null);
-            logger.info("Updated appointment confirmed: {}", appointmentId);
-        }
+        return modifyAppointment(appointmentId, appointment -> {
+            applyRequest(appointment, request);
+            return true;
+        });
+    }
 
-        appointmentRepository.save(appointment);
-        return toResponse(appointment);
+    @Override
+    @CachePut(cacheNames = APPOINTMENT_CACHE, key = "#appointmentId")
+    public AppointmentCheckupResponse patchAppointment(String appointmentId, AppointmentPatchRequest request) {
+        if (request == null || request.isEmpty()) {
+            throw new IllegalArgumentException("At least one field to update is required");
+        }
+        logger.info("Patching appointment with ID: {}", appointmentId);
+        return modifyAppointment(appointmentId, appointment -> applyPatch(appointment, request));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AppointmentCheckupResponse> getAllAppointments() {
         logger.info("Fetching all appointments");
-        List<Appointment> appointments = appointmentRepository.findAll();
-        return appointments.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        List<AppointmentSummary> appointments = appointmentRepository.findAllSummaries();
+        List<AppointmentCheckupResponse> responses = new ArrayList<>(appointments.size());
+        for (AppointmentSummary appointment : appointments) {
+            responses.add(toResponse(appointment));
+        }
+        return responses;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AppointmentPageResponse getAppointments(AppointmentSearchCriteria criteria, String cursor, int limit) {
+        int pageSize = pageSize(limit);
+        logger.info("Fetching appointments page of {} after cursor: {}", pageSize, cursor);
+
+        // One extra row tells us whether another page exists without issuing a count query
+        List<AppointmentSummary> appointments = appointmentRepository.findSummaries(
+                pageSpecification(criteria, cursor), KEYSET_SORT, pageSize + 1);
+
+        long etag = ETAG_SEED;
+        for (AppointmentSummary appointment : appointments) {
+            etag = etagOf(etag, appointment.id(), appointment.version());
+        }
+        String nextCursor = null;
+        if (appointments.size() > pageSize) {
+            appointments = appointments.subList(0, pageSize);
+            AppointmentSummary last = appointments.get(pageSize - 1);
+            nextCursor = new AppointmentCursor(last.appointmentDate(), last.appointmentTime(), last.id()).encode();
+        }
+        List<AppointmentCheckupResponse> responses = new ArrayList<>(appointments.size());
+        for (AppointmentSummary appointment : appointments) {
+            responses.add(toResponse(appointment));
+        }
+        AppointmentPageResponse page = new AppointmentPageResponse(responses, nextCursor);
+        page.setEtag(Long.toHexString(etag));
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getAppointmentsEtag(AppointmentSearchCriteria criteria, String cursor, int limit) {
+        List<AppointmentVersion> versions = appointmentRepository.findVersions(
+                pageSpecification(criteria, cursor), KEYSET_SORT, pageSize(limit) + 1);
+        long etag = ETAG_SEED;
+        for (AppointmentVersion version : versions) {
+            etag = etagOf(etag, version.id(), version.version());
+        }
+        return Long.toHexString(etag);
+    }
+
+    private static int pageSize(int limit) {
+        return limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static Specification<Appointment> pageSpecification(AppointmentSearchCriteria criteria, String cursor) {
+        Specification<Appointment> specification = matching(criteria);
+        if (cursor != null && !cursor.isBlank()) {
+            specification = specification.and(after(AppointmentCursor.decode(cursor)));
+        }
+        return specification;
+    }
+
+    /**
+     * Folds one row into a page ETag. A page's body is fully determined by which rows it holds (including the
+     * look-ahead row behind hasNext) and their versions, and every change to a row bumps its version.
+     */
+    private static long etagOf(long etag, long id, long version) {
+        etag = mix(etag ^ id);
+        return mix(etag ^ version);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAppointments(ExportFormat format, OutputStream outputStream) throws IOException {
+        logger.info("Exporting all appointments as {}", format);
+        AppointmentExportWriter writer = new AppointmentExportWriter(format, outputStream, objectMapper);
+
+        try (Stream<Appointment> appointments = appointmentRepository.streamAll()) {
+            Iterator<Appointment> iterator = appointments.iterator();
+            while (iterator.hasNext()) {
+                writer.write(toResponse(iterator.next()));
+                if (writer.getRows() % EXPORT_CHUNK_SIZE == 0) {
+                    // Drop the rows already written so the persistence context does not grow with the table
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        writer.finish();
+        logger.info("Exported {} appointments", writer.getRows());
+        return writer.getRows();
     }
 
-    private AppointmentCheckupResponse toResponse(Appointment appointment) {
-        AppointmentCheckupResponse response = new AppointmentCheckupResponse();
-        response.setAppointmentId(appointment.getAppointmentId());
-        response.setPatientName(appointment.getPatientName());
-        response.setCheckupType(appointment.getCheckupType());
-        response.setAppointmentDate(appointment.getAppointmentDate());
-        response.setAppointmentTime(appointment.getAppointmentTime());
-        response.setStatus(appointment.getStatus());
-        response.setRemark(appointment.getRemark());
-        return response;
+    /**
+     * Reads the appointment, applies the changes and writes them back in one short transaction. The UPDATE is
+     * checked against the version that was read; if another writer got in first, the changes are applied again
+     * to a fresh copy, up to {@link #MAX_UPDATE_ATTEMPTS} times, so the row is never locked pessimistically.
+     * A cancelled appointment cannot be modified: a cancellation is final, as it already gave back its slot.
+     *
+     * @param changes applies the edit and returns true if the appointment may have moved to another slot
+     */
+    private AppointmentCheckupResponse modifyAppointment(String appointmentId, Predicate<Appointment> changes) {
+        for (int attempt = 1; ; attempt++) {
+            SlotChange slotChange = new SlotChange();
+            try {
+                Appointment updated = transactionTemplate.execute(status -> {
+                    Appointment appointment = getAppointmentByIdInternal(appointmentId);
+                    if ("Cancelled".equals(appointment.getStatus())) {
+                        throw new IllegalStateException("Appointment is cancelled and can no longer be changed: "
+                                + appointmentId);
+                    }
+                    SlotKey heldSlot = "Confirmed".equals(appointment.getStatus())
+                            ? slotCapacityService.slotOf(appointment) : null;
+                    if (changes.test(appointment)) {
+                        reschedule(appointment, heldSlot, slotChange);
+                    }
+                    appointmentRepository.save(appointment);
+                    return appointment;
+                });
+                readYourWrites.written(appointmentId);
+                if (slotChange.held != null) {
+                    slotCapacityService.release(slotChange.held);
+                }
+                // Mapped after the commit, so the cached response carries the version and timestamp of the flush
+                return toResponse(updated);
+            } catch (RuntimeException e) {
+                if (slotChange.reserved != null) {
+                    slotCapacityService.release(slotChange.reserved);
+                }
+                if (!(e instanceof OptimisticLockingFailureException) || attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warn("Appointment {} was modified concurrently, retrying (attempt {} of {})",
+                        appointmentId, attempt + 1, MAX_UPDATE_ATTEMPTS);
+            }
+        }
+    }
+
+    /**
+     * Re-applies the booking rules after a change of checkup type, date or time and records which slot
+     * was taken and which one should be given back once the change is committed.
+     */
+    private void reschedule(Appointment appointment, SlotKey heldSlot, SlotChange slotChange) {
+        String appointmentId = appointment.getAppointmentId();
+
+        if (!applyBookingWindow(appointment)) {
+            logger.warn("Updated date is beyond 15 days for appointment: {}", appointmentId);
+        } else if (Objects.equals(heldSlot, slotCapacityService.slotOf(appointment))) {
+            // Still in the slot it already holds, so there is nothing to reserve or release
+            heldSlot = null;
+            logger.info("Updated appointment confirmed: {}", appointmentId);
+        } else if (reserveSlot(appointment)) {
+            slotChange.reserved = slotCapacityService.slotOf(appointment);
+            logger.info("Updated appointment confirmed: {}", appointmentId);
+        } else {
+            logger.warn("Slot is full, updated appointment waitlisted: {}", appointmentId);
+        }
+        slotChange.held = heldSlot;
+    }
+
+    private static final class SlotChange {
+        private SlotKey held;
+        private SlotKey reserved;
+    }
+
+    /**
+     * Applies the booking window rule: dates more than 15 days out stay Pending, everything else is Confirmed.
+     */
+    private boolean applyBookingWindow(Appointment appointment) {
+        appointment.setStatus(BookingWindow.statusFor(appointment.getAppointmentDate()));
+        appointment.setRemark(BookingWindow.remarkFor(appointment.getAppointmentDate()));
+        return BookingWindow.CONFIRMED.equals(appointment.getStatus());
+    }
+
+    /**
+     * Saves one chunk in its own transaction so Hibernate sends it as a single JDBC batch.
+     * If the chunk fails, its rows are retried one by one so only the offending items are reported as failed.
+     */
+    private void saveChunk(List<Appointment> chunk, List<Integer> indexes, BatchBookingResult[] results) {
+        try {
+            appointmentRepository.saveAll(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                readYourWrites.written(chunk.get(i).getAppointmentId());
+                results[indexes.get(i)] = BatchBookingResult.booked(indexes.get(i), toResponse(chunk.get(i)));
+            }
+        } catch (RuntimeException chunkFailure) {
+            logger.warn("Batch chunk of {} appointments failed, retrying individually", chunk.size(), chunkFailure);
+            for (int i = 0; i < chunk.size(); i++) {
+                int index = indexes.get(i);
+                Appointment appointment = chunk.get(i);
+                appointment.setId(null);
+                try {
+                    appointmentRepository.save(appointment);
+                    readYourWrites.written(appointment.getAppointmentId());
+                    results[index] = BatchBookingResult.booked(index, toResponse(appointment));
+                } catch (RuntimeException e) {
+                    if ("Confirmed".equals(appointment.getStatus())) {
+                        slotCapacityService.release(slotCapacityService.slotOf(appointment));
+                    }
+                    results[index] = BatchBookingResult.failed(index,
+                            "Error while booking appointment: " + e.getMessage(), null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Locks one chunk of active appointments and cancels them with a single UPDATE in one transaction.
+     * The row locks keep a concurrent cancel or update from also releasing the slots, which are given back
+     * per slot once the transaction has committed.
+     */
+    private List<String> cancelChunk(Supplier<List<Appointment>> lockActive) {
+        Map<SlotKey, Integer> heldSlots = new HashMap<>();
+        List<String> cancelledIds = transactionTemplate.execute(status -> {
+            List<Appointment> appointments = lockActive.get();
+            if (appointments.isEmpty()) {
+                return List.<String>of();
+            }
+            List<Long> ids = new ArrayList<>(appointments.size());
+            List<String> appointmentIds = new ArrayList<>(appointments.size());
+            for (Appointment appointment : appointments) {
+                ids.add(appointment.getId());
+                appointmentIds.add(appointment.getAppointmentId());
+                if ("Confirmed".equals(appointment.getStatus())) {
+                    heldSlots.merge(slotCapacityService.slotOf(appointment), 1, Integer::sum);
+                }
+            }
+            appointmentRepository.cancelAllById(ids);
+            return appointmentIds;
+        });
+
+        heldSlots.forEach(slotCapacityService::release);
+        Cache cache = cacheManager.getCache(APPOINTMENT_CACHE);
+        if (cache != null) {
+            cancelledIds.forEach(cache::evict);
+        }
+        return cancelledIds;
+    }
+
+    /**
+     * Takes a place in the appointment's slot; when the slot is full the appointment is Waitlisted instead.
+     */
+    private boolean reserveSlot(Appointment appointment) {
+        if (slotCapacityService.tryReserve(slotCapacityService.slotOf(appointment))) {
+            return true;
+        }
+        appointment.setStatus("Waitlisted");
+        appointment.setRemark("Selected slot is full");
+        return false;
+    }
+
+    private Map<String, String> validate(AppointmentCheckupRequest request) {
+        Map<String, String> errors = new HashMap<>();
+        if (request == null) {
+            errors.put("request", "Appointment request is required");
+            return errors;
+        }
+        Set<ConstraintViolation<AppointmentCheckupRequest>> violations = validator.validate(request);
+        for (ConstraintViolation<AppointmentCheckupRequest> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
     }
 
     private Appointment getAppointmentByIdInternal(String appointmentId) {
         logger.debug("Looking up appointment by ID: {}", appointmentId);
+        if (!existenceFilter.mightExist(appointmentId)) {
+            throw notFound(appointmentId);
+        }
         return appointmentRepository.findByAppointmentId(appointmentId)
-                .orElseThrow(() ->
-                        new AppointmentNotFoundException("Appointment not found with ID: " + appointmentId));
+                .orElseThrow(() -> notFound(appointmentId));
+    }
+
+    private static AppointmentNotFoundException notFound(String appointmentId) {
+        return new AppointmentNotFoundException("Appointment not found with ID: " + appointmentId);
     }
 }
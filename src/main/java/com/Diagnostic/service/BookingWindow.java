@@ -0,0 +1,33 @@
+package com.Diagnostic.service;
+
+import java.time.LocalDate;
+
+/**
+ * The booking window rule: appointments more than {@link #DAYS} days out stay Pending, everything else can be
+ * Confirmed.
+ */
+public final class BookingWindow {
+
+    public static final int DAYS = 15;
+    public static final String PENDING = "Pending";
+    public static final String CONFIRMED = "Confirmed";
+    public static final String OUTSIDE_WINDOW_REMARK = "Choose date within " + DAYS + " days";
+
+    private BookingWindow() {
+    }
+
+    public static boolean isOpen(LocalDate appointmentDate) {
+        return !appointmentDate.isAfter(LocalDate.now().plusDays(DAYS));
+    }
+
+    public static String statusFor(LocalDate appointmentDate) {
+        return isOpen(appointmentDate) ? CONFIRMED : PENDING;
+    }
+
+    /**
+     * The remark that goes with {@link #statusFor}, or null when the appointment is within the window.
+     */
+    public static String remarkFor(LocalDate appointmentDate) {
+        return isOpen(appointmentDate) ? null : OUTSIDE_WINDOW_REMARK;
+    }
+}
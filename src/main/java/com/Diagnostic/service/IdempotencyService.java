@@ -0,0 +1,300 @@
+package com.Diagnostic.service;
+
+import com.Diagnostic.Response.CustomResponseModel;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.entity.IdempotencyRecord;
+import com.Diagnostic.exception.IdempotencyKeyInProgressException;
+import com.Diagnostic.exception.IdempotencyKeyMismatchException;
+import com.Diagnostic.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the first response to each Idempotency-Key of POST /appointment, so a client retry gets that
+ * response again instead of a second booking.
+ * <p>
+ * Keys are scoped to the client that sent them, so two clients picking the same key neither share a booking nor
+ * see each other's response. Before booking, a request claims its key by inserting a pending IdempotencyRecord;
+ * the primary key makes that claim exclusive across all nodes. The owner books and then completes the record
+ * with its response; a duplicate on any node waits (up to {@code wait-timeout}) for that response instead of
+ * booking in parallel, and is answered 409 if it does not come. Completed responses are also kept in a bounded,
+ * expiring in-memory map. Server errors (5xx) are not remembered, so they can be retried, and a claim that is
+ * never completed (its node died) is taken over once it is older than {@code lease}.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final TypeReference<CustomResponseModel<AppointmentCheckupResponse>> BODY_TYPE = new TypeReference<>() {
+    };
+    private static final long INITIAL_POLL_MILLIS = 20;
+    private static final long MAX_POLL_MILLIS = 500;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Duration ttl;
+    private final Duration lease;
+    private final Duration waitTimeout;
+    private final Cache<String, StoredResponse> responses;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private record StoredResponse(String fingerprint, ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>> response) {
+    }
+
+    public IdempotencyService(@Value("${appointment.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${appointment.idempotency.max-entries:100000}") long maxEntries,
+                              @Value("${appointment.idempotency.lease:1m}") Duration lease,
+                              @Value("${appointment.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.ttl = ttl;
+        this.lease = lease;
+        this.waitTimeout = waitTimeout;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Returns the response remembered for the client's key, or runs {@code action} once and remembers its response.
+     *
+     * @param clientId who sent the request; keys of different clients never match
+     * @throws IdempotencyKeyMismatchException if the key was first used with a different request body
+     * @throws IdempotencyKeyInProgressException if the first request with the key is still running
+     */
+    public ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>> execute(
+            String clientId, String idempotencyKey, Object request,
+            Supplier<ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>>> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = scopedKey(clientId, idempotencyKey);
+        String fingerprint = fingerprint(request);
+        StoredResponse stored = responses.getIfPresent(scopedKey);
+        if (stored != null) {
+            return replay(idempotencyKey, stored, fingerprint);
+        }
+
+        CompletableFuture<StoredResponse> ours = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> theirs = inFlight.putIfAbsent(scopedKey, ours);
+        if (theirs != null) {
+            logger.info("Waiting for in-flight request with Idempotency-Key: {}", idempotencyKey);
+            return replay(idempotencyKey, awaitLocal(idempotencyKey, theirs), fingerprint);
+        }
+
+        try {
+            stored = claimOrAwait(scopedKey, idempotencyKey, fingerprint);
+            if (stored == null) {
+                stored = runClaimed(scopedKey, idempotencyKey, fingerprint, action);
+                ours.complete(stored);
+                return stored.response();
+            }
+            ours.complete(stored);
+            return replay(idempotencyKey, stored, fingerprint);
+        } catch (RuntimeException e) {
+            ours.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scopedKey, ours);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${appointment.idempotency.cleanup-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(ttl));
+        if (purged > 0) {
+            logger.info("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    private StoredResponse awaitLocal(String idempotencyKey, CompletableFuture<StoredResponse> theirs) {
+        try {
+            return theirs.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw inProgress(idempotencyKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw inProgress(idempotencyKey);
+        }
+    }
+
+    /**
+     * Claims the key with a pending record. Returns null once this request owns the key, or the response of the
+     * request that owned it first, waiting for it while that request is still running (on any node).
+     */
+    private StoredResponse claimOrAwait(String scopedKey, String idempotencyKey, String fingerprint) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        long pollMillis = INITIAL_POLL_MILLIS;
+        while (true) {
+            Instant now = Instant.now();
+            try {
+                idempotencyRecordRepository.saveAndFlush(new IdempotencyRecord(scopedKey, fingerprint,
+                        IdempotencyRecord.PENDING, null, now));
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                // Claimed before us, here or on another node
+            }
+            IdempotencyRecord record = idempotencyRecordRepository.findById(scopedKey).orElse(null);
+            if (record != null && record.isCompleted() && !record.getCreatedAt().isBefore(now.minus(ttl))) {
+                StoredResponse stored = toStoredResponse(scopedKey, record);
+                if (stored != null) {
+                    return stored;
+                }
+            }
+            if (record != null && !record.isCompleted() && !record.getRequestFingerprint().equals(fingerprint)) {
+                throw mismatch(idempotencyKey);
+            }
+            // Expired or abandoned records are removed so the key can be claimed again
+            if (record != null && idempotencyRecordRepository.deleteStale(scopedKey, now.minus(ttl), now.minus(lease)) > 0) {
+                continue;
+            }
+            if (record == null) {
+                // The owner failed and gave the key up; claim it again
+                continue;
+            }
+            if (System.nanoTime() >= deadline) {
+                throw inProgress(idempotencyKey);
+            }
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw inProgress(idempotencyKey);
+            }
+            pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+        }
+    }
+
+    /**
+     * Runs the action for a key this request has claimed and completes the claim with its response, or gives the
+     * key up again if the action failed, so the client can retry.
+     */
+    private StoredResponse runClaimed(String scopedKey, String idempotencyKey, String fingerprint,
+                                      Supplier<ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>>> action) {
+        StoredResponse stored;
+        try {
+            stored = new StoredResponse(fingerprint, action.get());
+        } catch (RuntimeException e) {
+            release(scopedKey, idempotencyKey);
+            throw e;
+        }
+        if (stored.response().getStatusCode().is5xxServerError()) {
+            release(scopedKey, idempotencyKey);
+        } else {
+            remember(scopedKey, idempotencyKey, stored);
+        }
+        return stored;
+    }
+
+    private ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>> replay(
+            String idempotencyKey, StoredResponse stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw mismatch(idempotencyKey);
+        }
+        logger.info("Replaying response for Idempotency-Key: {}", idempotencyKey);
+        return ResponseEntity.status(stored.response().getStatusCode())
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.response().getBody());
+    }
+
+    private StoredResponse toStoredResponse(String scopedKey, IdempotencyRecord record) {
+        try {
+            StoredResponse stored = new StoredResponse(record.getRequestFingerprint(),
+                    ResponseEntity.status(record.getStatusCode())
+                            .body(objectMapper.readValue(record.getResponseBody(), BODY_TYPE)));
+            responses.put(scopedKey, stored);
+            return stored;
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring unreadable idempotency record: {}", scopedKey, e);
+            return null;
+        }
+    }
+
+    private void remember(String scopedKey, String idempotencyKey, StoredResponse stored) {
+        responses.put(scopedKey, stored);
+        try {
+            idempotencyRecordRepository.complete(scopedKey, stored.response().getStatusCode().value(),
+                    objectMapper.writeValueAsString(stored.response().getBody()));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The booking is done and the key stays claimed, so no other node books it again; a retry on another
+            // node waits for the claim's lease instead of getting the response back
+            logger.warn("Could not store response for Idempotency-Key: {}", idempotencyKey, e);
+        }
+    }
+
+    private void release(String scopedKey, String idempotencyKey) {
+        try {
+            idempotencyRecordRepository.deletePending(scopedKey);
+        } catch (RuntimeException e) {
+            logger.warn("Could not release Idempotency-Key: {}; it is free again once its lease ends", idempotencyKey, e);
+        }
+    }
+
+    private static IdempotencyKeyMismatchException mismatch(String idempotencyKey) {
+        return new IdempotencyKeyMismatchException(
+                "Idempotency-Key was already used with a different request: " + idempotencyKey);
+    }
+
+    private static IdempotencyKeyInProgressException inProgress(String idempotencyKey) {
+        return new IdempotencyKeyInProgressException(
+                "A request with this Idempotency-Key is still being processed, please retry: " + idempotencyKey);
+    }
+
+    /**
+     * The record ID: a digest of client and key, so keys are scoped to the client and fit the column whatever
+     * the client ID looks like.
+     */
+    private static String scopedKey(String clientId, String idempotencyKey) {
+        return HexFormat.of().formatHex(sha256((clientId + '\n' + idempotencyKey).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            return HexFormat.of().formatHex(sha256(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.Diagnostic.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "appointment.slot")
+public class SlotCapacityProperties {
+
+    /**
+     * Length of a bookable slot; preferred times are grouped into slots starting at midnight.
+     */
+    private int lengthMinutes = 30;
+
+    /**
+     * Confirmed appointments allowed per slot for checkup types without their own entry in {@link #capacity}.
+     */
+    private int defaultCapacity = 10;
+
+    /**
+     * Confirmed appointments allowed per slot, keyed by checkup type (case-insensitive).
+     */
+    private Map<String, Integer> capacity = new HashMap<>();
+
+    public int capacityFor(String checkupType) {
+        for (Map.Entry<String, Integer> entry : capacity.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(checkupType)) {
+                return entry.getValue();
+            }
+        }
+        return defaultCapacity;
+    }
+
+    public int getLengthMinutes() {
+        return lengthMinutes;
+    }
+
+    public void setLengthMinutes(int lengthMinutes) {
+        this.lengthMinutes = lengthMinutes;
+    }
+
+    public int getDefaultCapacity() {
+        return defaultCapacity;
+    }
+
+    public void setDefaultCapacity(int defaultCapacity) {
+        this.defaultCapacity = defaultCapacity;
+    }
+
+    public Map<String, Integer> getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Map<String, Integer> capacity) {
+        this.capacity = capacity;
+    }
+
+    static String normalize(String checkupType) {
+        return checkupType == null ? "" : checkupType.trim().toLowerCase(Locale.ROOT);
+    }
+}
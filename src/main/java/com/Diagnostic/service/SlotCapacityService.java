@@ -0,0 +1,137 @@
+package com.Diagnostic.service;
+
+import com.Diagnostic.entity.Appointment;
+import com.Diagnostic.repository.AppointmentRepository;
+import com.Diagnostic.repository.SlotUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory count of Confirmed appointments per (checkup type, date, slot), used to stop overbooking
+ * without counting rows or taking row locks in the database. Each slot is an {@link AtomicInteger}
+ * updated by compare-and-set, so bookings for different slots never contend and bookings for the same
+ * slot never block.
+ * <p>
+ * The counters are per node: they are rebuilt from the database at startup and are only exact while
+ * this node is the one taking the bookings.
+ */
+@Service
+public class SlotCapacityService implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlotCapacityService.class);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private SlotCapacityProperties properties;
+
+    private final ConcurrentMap<SlotKey, AtomicInteger> confirmedBySlot = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public record SlotKey(String checkupType, LocalDate date, int slot) {
+    }
+
+    /**
+     * Warms up when the context starts rather than when the bean is created, so a run that stops after the refresh
+     * (the class-data-sharing training run) does not need a database.
+     */
+    @Override
+    public void start() {
+        warmUp();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Before the booking pipeline replays its log and before the web server takes requests.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    public void warmUp() {
+        confirmedBySlot.clear();
+        List<SlotUsage> usage = appointmentRepository.countConfirmedBySlot(LocalDate.now());
+        for (SlotUsage slotUsage : usage) {
+            SlotKey key = slotOf(slotUsage.getCheckupType(), slotUsage.getAppointmentDate(), slotUsage.getAppointmentTime());
+            confirmedBySlot.computeIfAbsent(key, k -> new AtomicInteger()).addAndGet((int) slotUsage.getBooked());
+        }
+        logger.info("Slot capacity warmed up with {} booked slots", confirmedBySlot.size());
+    }
+
+    public SlotKey slotOf(Appointment appointment) {
+        return slotOf(appointment.getCheckupType(), appointment.getAppointmentDate(), appointment.getAppointmentTime());
+    }
+
+    public SlotKey slotOf(String checkupType, LocalDate date, LocalTime time) {
+        int slot = time.toSecondOfDay() / 60 / properties.getLengthMinutes();
+        return new SlotKey(SlotCapacityProperties.normalize(checkupType), date, slot);
+    }
+
+    /**
+     * Takes one place in the slot, or returns false if the slot is already full.
+     */
+    public boolean tryReserve(SlotKey key) {
+        int capacity = properties.capacityFor(key.checkupType());
+        AtomicInteger confirmed = confirmedBySlot.computeIfAbsent(key, k -> new AtomicInteger());
+        while (true) {
+            int current = confirmed.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (confirmed.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(SlotKey key) {
+        release(key, 1);
+    }
+
+    /**
+     * Gives back {@code count} places at once, e.g. after a bulk cancellation.
+     */
+    public void release(SlotKey key, int count) {
+        AtomicInteger confirmed = confirmedBySlot.get(key);
+        if (confirmed != null) {
+            confirmed.updateAndGet(current -> Math.max(current - count, 0));
+        }
+    }
+
+    public int confirmedCount(SlotKey key) {
+        AtomicInteger confirmed = confirmedBySlot.get(key);
+        return confirmed == null ? 0 : confirmed.get();
+    }
+
+    /**
+     * Drops counters for days that can no longer be booked.
+     */
+    @Scheduled(cron = "${appointment.slot.cleanup-cron:0 5 0 * * *}")
+    public void evictPastSlots() {
+        LocalDate today = LocalDate.now();
+        confirmedBySlot.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+}
@@ -0,0 +1,19 @@
+package com.Diagnostic.startup;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StartupConfiguration {
+
+    /**
+     * With {@code spring.main.lazy-initialization} (the prod profile), keeps the application's own beans eager:
+     * they warm the cache, the ID filter and the slot counters, replay the booking log and register scheduled
+     * jobs, none of which happens for a bean that is only created on first use.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter applicationBeansEager() {
+        return (beanName, beanDefinition, beanType) -> beanType.getName().startsWith("com.Diagnostic.");
+    }
+}
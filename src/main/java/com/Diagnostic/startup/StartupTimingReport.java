@@ -0,0 +1,99 @@
+package com.Diagnostic.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logs the slowest bean initialisations once the application is ready, from the steps recorded by the
+ * {@link BufferingApplicationStartup} that {@code DiagnosticApplication} installs. A bean's own time excludes the
+ * beans created while it was being created, so a service is not blamed for the EntityManagerFactory it pulls in.
+ */
+@Component
+public class StartupTimingReport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimingReport.class);
+
+    private static final String BEAN_INSTANTIATION = "spring.beans.instantiate";
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${appointment.startup.report-slowest:0}")
+    private int reportSlowest;
+
+    private List<BeanTiming> slowestBeans = List.of();
+
+    public record BeanTiming(String beanName, Duration own, Duration total) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        if (!(context.getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        // Drained rather than read, so the recorded steps do not stay in memory for the life of the node
+        StartupTimeline timeline = startup.drainBufferedTimeline();
+        if (reportSlowest <= 0) {
+            return;
+        }
+        slowestBeans = slowestBeans(timeline.getEvents(), reportSlowest);
+        StringBuilder report = new StringBuilder("Slowest beans at startup (own time / including dependencies):");
+        for (BeanTiming timing : slowestBeans) {
+            report.append(String.format("%n  %6d ms %6d ms  %s", timing.own().toMillis(), timing.total().toMillis(),
+                    timing.beanName()));
+        }
+        logger.info(report.toString());
+    }
+
+    static List<BeanTiming> slowestBeans(List<StartupTimeline.TimelineEvent> events, int limit) {
+        Map<Long, Duration> childTime = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null && BEAN_INSTANTIATION.equals(event.getStartupStep().getName())) {
+                childTime.merge(parentId, event.getDuration(), Duration::plus);
+            }
+        }
+        List<BeanTiming> timings = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (BEAN_INSTANTIATION.equals(step.getName())) {
+                Duration own = event.getDuration().minus(childTime.getOrDefault(step.getId(), Duration.ZERO));
+                timings.add(new BeanTiming(beanName(step), own, event.getDuration()));
+            }
+        }
+        timings.sort(Comparator.comparing(BeanTiming::own).reversed());
+        return List.copyOf(timings.subList(0, Math.min(limit, timings.size())));
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "(unnamed)";
+    }
+
+    /**
+     * The beans listed by the last report, slowest first.
+     */
+    public List<BeanTiming> getSlowestBeans() {
+        return slowestBeans;
+    }
+}
@@ -0,0 +1,67 @@
+package com.Diagnostic.utility;
+
+import com.Diagnostic.entity.Appointment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last row of a page, i.e. its (appointmentDate, appointmentTime, id).
+ * Handed to clients as an opaque URL-safe token; its layout is not part of the API.
+ */
+public final class AppointmentCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final LocalDate appointmentDate;
+    private final LocalTime appointmentTime;
+    private final long id;
+
+    public AppointmentCursor(LocalDate appointmentDate, LocalTime appointmentTime, long id) {
+        this.appointmentDate = appointmentDate;
+        this.appointmentTime = appointmentTime;
+        this.id = id;
+    }
+
+    public static AppointmentCursor of(Appointment appointment) {
+        return new AppointmentCursor(appointment.getAppointmentDate(), appointment.getAppointmentTime(), appointment.getId());
+    }
+
+    public static AppointmentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int second = raw.indexOf(SEPARATOR, first + 1);
+            if (first < 0 || second < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new AppointmentCursor(
+                    LocalDate.parse(raw.substring(0, first)),
+                    LocalTime.parse(raw.substring(first + 1, second)),
+                    Long.parseLong(raw.substring(second + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException as well
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String raw = appointmentDate.toString() + SEPARATOR + appointmentTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDate getAppointmentDate() {
+        return appointmentDate;
+    }
+
+    public LocalTime getAppointmentTime() {
+        return appointmentTime;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
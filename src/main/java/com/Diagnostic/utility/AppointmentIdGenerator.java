@@ -0,0 +1,9 @@
+package com.Diagnostic.utility;
+
+public interface AppointmentIdGenerator {
+
+    /**
+     * Returns a new appointment ID in canonical 36-character UUID form.
+     */
+    String nextId();
+}
@@ -0,0 +1,23 @@
+package com.Diagnostic.utility;
+
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+/**
+ * Like {@code @NotBlank}, but a missing (null) value is valid: for fields of a partial update that may be left out
+ * but must not be cleared.
+ */
+@Documented
+@Constraint(validatedBy = NullOrNotBlankValidator.class)
+@Target({ElementType.FIELD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NullOrNotBlank {
+    String message() default "Must not be blank";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
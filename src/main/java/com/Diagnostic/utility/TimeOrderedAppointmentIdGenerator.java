@@ -0,0 +1,74 @@
+package com.Diagnostic.utility;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUID version 7 (RFC 9562) IDs: a 48-bit millisecond timestamp followed by a 12-bit sequence, then a
+ * 16-bit node ID and 46 random bits. IDs from one node are strictly increasing, which keeps inserts at
+ * the right edge of the appointmentId index; the node field keeps nodes from colliding within the same
+ * millisecond. Random bits come from {@link ThreadLocalRandom}, so concurrent bookings share no lock.
+ */
+@Component
+public class TimeOrderedAppointmentIdGenerator implements AppointmentIdGenerator {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 16;
+    private static final int RANDOM_BITS = 46;
+    private static final long VERSION_7 = 0x7L << 12;
+    private static final long IETF_VARIANT = 0x2L << 62;
+
+    private final long node;
+
+    /**
+     * Milliseconds shifted left by {@link #SEQUENCE_BITS}, plus the sequence within that millisecond.
+     * When the sequence overflows it carries into the next millisecond, so IDs never go backwards.
+     */
+    private final AtomicLong lastTimestampAndSequence = new AtomicLong();
+
+    public TimeOrderedAppointmentIdGenerator(@Value("${appointment.id.node-id:-1}") int nodeId) {
+        if (nodeId >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("appointment.id.node-id must be below " + (1 << NODE_BITS));
+        }
+        this.node = nodeId < 0 ? ThreadLocalRandom.current().nextInt(1 << NODE_BITS) : nodeId;
+    }
+
+    @Override
+    public String nextId() {
+        return nextUuid().toString();
+    }
+
+    public UUID nextUuid() {
+        long candidate = System.currentTimeMillis() << SEQUENCE_BITS;
+        long last;
+        long timestampAndSequence;
+        do {
+            last = lastTimestampAndSequence.get();
+            timestampAndSequence = Math.max(candidate, last + 1);
+        } while (!lastTimestampAndSequence.compareAndSet(last, timestampAndSequence));
+
+        long millis = timestampAndSequence >>> SEQUENCE_BITS;
+        long sequence = timestampAndSequence & ((1L << SEQUENCE_BITS) - 1);
+        long mostSignificant = (millis << 16) | VERSION_7 | sequence;
+        long leastSignificant = IETF_VARIANT
+                | (node << RANDOM_BITS)
+                | (ThreadLocalRandom.current().nextLong() >>> (64 - RANDOM_BITS));
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Creation time in epoch milliseconds of a version 7 ID, or -1 for IDs of any other shape.
+     */
+    public static long timestampOf(String appointmentId) {
+        try {
+            UUID uuid = UUID.fromString(appointmentId);
+            return uuid.version() == 7 ? uuid.getMostSignificantBits() >>> 16 : -1;
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
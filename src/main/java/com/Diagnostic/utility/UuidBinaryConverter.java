@@ -0,0 +1,43 @@
+package com.Diagnostic.utility;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Stores a UUID string as 16 raw bytes instead of a 36-character VARCHAR.
+ * Strings that are not UUIDs map to an empty value, so lookups for them match nothing instead of failing.
+ */
+@Converter
+public class UuidBinaryConverter implements AttributeConverter<String, byte[]> {
+
+    private static final byte[] NO_MATCH = new byte[0];
+
+    @Override
+    public byte[] convertToDatabaseColumn(String attribute) {
+        if (attribute == null) {
+            return null;
+        }
+        UUID uuid;
+        try {
+            uuid = UUID.fromString(attribute);
+        } catch (IllegalArgumentException e) {
+            return NO_MATCH;
+        }
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] dbData) {
+        if (dbData == null || dbData.length != 16) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(dbData);
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+}
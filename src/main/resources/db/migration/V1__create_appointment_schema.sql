@@ -0,0 +1,19 @@
+-- Schema of the original application, as Hibernate generated it with ddl-auto=update: an IDENTITY primary key
+-- and the appointmentId as a VARCHAR UUID. Existing databases are baselined at this version (baselineOnMigrate
+-- in pom.xml) and get every later script; an empty schema runs this one too.
+
+create table appointment_table (
+    age integer not null,
+    appointment_date date,
+    appointment_time time(6),
+    id bigint not null auto_increment,
+    appointment_id varchar(255),
+    checkup_type varchar(255),
+    email varchar(255),
+    gender varchar(255),
+    mobile varchar(255),
+    patient_name varchar(255),
+    remark varchar(255),
+    status varchar(255),
+    primary key (id)
+) engine=InnoDB;
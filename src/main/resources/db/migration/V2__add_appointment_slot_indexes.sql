@@ -0,0 +1,5 @@
+-- Keyset-paginated listing, filtered by status or checkup type, ordered by slot and id
+
+create index idx_appointment_slot on appointment_table (appointment_date, appointment_time, id);
+create index idx_appointment_status_slot on appointment_table (status, appointment_date, appointment_time, id);
+create index idx_appointment_type_slot on appointment_table (checkup_type, appointment_date, appointment_time, id);
@@ -0,0 +1,9 @@
+-- Primary keys come from a table-backed sequence instead of IDENTITY, so inserts can be JDBC-batched.
+-- Hibernate's pooled optimizer (allocationSize 50) hands out the 50 ids up to the value it reads, so the
+-- sequence starts 50 past the highest existing id and the first new id is MAX(id) + 1.
+
+create table appointment_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into appointment_seq (next_val) select coalesce(max(id), 0) + 50 from appointment_table;
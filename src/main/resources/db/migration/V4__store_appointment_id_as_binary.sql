@@ -0,0 +1,10 @@
+-- appointmentId becomes the 16 bytes of the UUID (big-endian, as UuidBinaryConverter writes them) instead of
+-- its 36-character text. A row whose appointment_id is not a UUID converts to NULL and stops the migration at the
+-- NOT NULL change, so it can be fixed by hand rather than lost.
+
+alter table appointment_table add column appointment_id_bin binary(16);
+update appointment_table set appointment_id_bin = unhex(replace(appointment_id, '-', ''));
+alter table appointment_table drop column appointment_id;
+alter table appointment_table rename column appointment_id_bin to appointment_id;
+alter table appointment_table modify column appointment_id binary(16) not null;
+alter table appointment_table add constraint ux_appointment_appointment_id unique (appointment_id);
@@ -0,0 +1,3 @@
+-- Optimistic locking for PUT/PATCH and cancellation; existing rows start at version 0
+
+alter table appointment_table add column version bigint not null default 0;
@@ -0,0 +1,12 @@
+-- Responses remembered per Idempotency-Key of POST /appointment
+
+create table idempotency_record (
+    status_code integer not null,
+    created_at datetime(6) not null,
+    request_fingerprint varchar(64) not null,
+    response_body varchar(4000),
+    idempotency_key varchar(255) not null,
+    primary key (idempotency_key)
+) engine=InnoDB;
+
+create index idx_idempotency_created_at on idempotency_record (created_at);
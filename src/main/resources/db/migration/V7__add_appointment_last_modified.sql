@@ -0,0 +1,3 @@
+-- Last-Modified of GET /appointment/{appointmentId}; unknown (NULL) for rows not changed since the migration
+
+alter table appointment_table add column last_modified datetime(6);
@@ -0,0 +1,54 @@
+package com.Diagnostic;
+
+import com.Diagnostic.admission.AdaptiveConcurrencyLimiter;
+import com.Diagnostic.admission.AdmissionConfiguration;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean(ObjectMapper.class)
+            .withUserConfiguration(AdmissionConfiguration.class);
+
+    @Test
+    void testVirtualThreadLimit_ReservedConnections_ShouldLeaveThemFree() {
+        assertEquals(16, AdmissionConfiguration.virtualThreadLimit(200, 20, 4));
+    }
+
+    @Test
+    void testVirtualThreadLimit_LargePool_ShouldNotExceedTheConfiguredMaximum() {
+        assertEquals(10, AdmissionConfiguration.virtualThreadLimit(10, 20, 4));
+    }
+
+    @Test
+    void testVirtualThreadLimit_ReservationCoversPool_ShouldAdmitOneRequest() {
+        assertEquals(1, AdmissionConfiguration.virtualThreadLimit(200, 4, 4));
+        assertEquals(1, AdmissionConfiguration.virtualThreadLimit(200, 2, 10));
+    }
+
+    @Test
+    void testVirtualThreadLimit_NegativeReservation_ShouldBeIgnored() {
+        assertEquals(20, AdmissionConfiguration.virtualThreadLimit(200, 20, -3));
+    }
+
+    @Test
+    void testAdmissionEnabled_ShouldRegisterTheAdaptiveLimit() {
+        contextRunner.run(context -> {
+            assertEquals(40, context.getBean(AdaptiveConcurrencyLimiter.class).getLimit());
+            assertEquals(40, context.getBean(MeterRegistry.class).get("appointment.admission.limit").gauge().value());
+        });
+    }
+
+    @Test
+    void testAdmissionDisabledOnPlatformThreads_ShouldLeaveRequestsToTomcatsPool() {
+        contextRunner.withPropertyValues("appointment.admission.enabled=false", "spring.threads.virtual.enabled=false")
+                .run(context -> assertTrue(context.getBeansOfType(AdaptiveConcurrencyLimiter.class).isEmpty()));
+    }
+}
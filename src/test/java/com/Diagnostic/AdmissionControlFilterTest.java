@@ -0,0 +1,236 @@
+package com.Diagnostic;
+
+import com.Diagnostic.admission.AdaptiveConcurrencyLimiter;
+import com.Diagnostic.admission.AdmissionControlFilter;
+import com.Diagnostic.admission.AdmissionProperties;
+import com.Diagnostic.admission.RequestPriority;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private AdmissionProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, THRESHOLD_NANOS);
+        properties = new AdmissionProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private AdmissionControlFilter filter() {
+        return new AdmissionControlFilter(limiter, properties, new ObjectMapper(), meterRegistry);
+    }
+
+    private static MockHttpServletResponse call(AdmissionControlFilter filter, String method, String uri, FilterChain chain)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, chain);
+        return response;
+    }
+
+    @Test
+    void testFilter_Overload_ShouldShedFastAndKeepInFlightBounded() throws Exception {
+        AdmissionControlFilter filter = filter();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        FilterChain slowChain = (request, response) -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        };
+
+        // Warm up the rejection path, so the first refusal below does not pay for class loading
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.BULK));
+        }
+        assertEquals(503, call(filter, "POST", "/appointment/batch", new MockFilterChain()).getStatus());
+        for (int i = 0; i < 5; i++) {
+            limiter.release(-1);
+        }
+
+        int requests = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    long begin = System.nanoTime();
+                    MockHttpServletResponse response = call(filter, "GET", "/appointment", slowChain);
+                    return new long[]{response.getStatus(), System.nanoTime() - begin,
+                            response.getHeader("Retry-After") == null ? 0 : 1};
+                }));
+            }
+            start.countDown();
+
+            int admitted = 0;
+            long slowestRejection = 0;
+            for (Future<long[]> result : results) {
+                long[] outcome = result.get(10, TimeUnit.SECONDS);
+                if (outcome[0] == 200) {
+                    admitted++;
+                } else {
+                    assertEquals(503, outcome[0]);
+                    assertEquals(1, outcome[2], "rejections carry Retry-After");
+                    slowestRejection = Math.max(slowestRejection, outcome[1]);
+                }
+            }
+
+            // Listing is BULK, so it only ever gets half of the limit of 10
+            assertTrue(maxConcurrent.get() <= 5, "in flight: " + maxConcurrent.get());
+            assertTrue(admitted >= 1, "admitted: " + admitted);
+            // Refused requests never wait for the slow ones
+            assertTrue(slowestRejection < TimeUnit.MILLISECONDS.toNanos(100),
+                    "slowest rejection took " + TimeUnit.NANOSECONDS.toMillis(slowestRejection) + " ms");
+            assertEquals(requests - admitted, meterRegistry.get("appointment.admission.rejected")
+                    .tag("endpoint", "list").tag("reason", "overload").counter().count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFilter_BulkShed_ShouldStillAdmitCriticalRequests() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.BULK));
+        }
+        AdmissionControlFilter filter = filter();
+
+        assertEquals(503, call(filter, "GET", "/appointment", new MockFilterChain()).getStatus());
+        assertEquals(200, call(filter, "GET", "/appointment/APT-1", new MockFilterChain()).getStatus());
+        assertEquals(200, call(filter, "DELETE", "/appointment/APT-1", new MockFilterChain()).getStatus());
+        assertEquals(5, limiter.getInFlight());
+    }
+
+    @Test
+    void testFilter_EndpointLimitReached_ShouldReturnTooManyRequests() throws Exception {
+        properties.getEndpointLimit().put("export", 1);
+        properties.setRetryAfter(Duration.ofSeconds(3));
+        AdmissionControlFilter filter = filter();
+        CountDownLatch inChain = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        FilterChain blockingChain = (request, response) -> {
+            inChain.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<MockHttpServletResponse> first = executor.submit(() -> call(filter, "GET", "/appointment/export", blockingChain));
+            assertTrue(inChain.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletResponse refused = call(filter, "GET", "/appointment/export", new MockFilterChain());
+            assertEquals(429, refused.getStatus());
+            assertEquals("3", refused.getHeader("Retry-After"));
+            assertTrue(refused.getContentAsString().contains("\"success\":false"));
+
+            finish.countDown();
+            assertEquals(200, first.get(5, TimeUnit.SECONDS).getStatus());
+            assertEquals(200, call(filter, "GET", "/appointment/export", new MockFilterChain()).getStatus());
+            assertEquals(0, limiter.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFilter_AdmissionDisabled_ShouldNotApplyEndpointLimits() throws Exception {
+        // What AdmissionConfiguration sets up for virtual threads with admission disabled: only the fixed pool bound
+        properties.setEnabled(false);
+        properties.getEndpointLimit().put("export", 0);
+        limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, Long.MAX_VALUE);
+        AdmissionControlFilter filter = filter();
+
+        assertEquals(200, call(filter, "GET", "/appointment/export", new MockFilterChain()).getStatus());
+        limiter.tryAcquire(RequestPriority.CRITICAL);
+        assertEquals(503, call(filter, "GET", "/appointment/APT-1", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void testFilter_SlowBulkRequests_ShouldNotShrinkTheLimit() throws Exception {
+        AdmissionControlFilter filter = filter();
+        FilterChain slowChain = (request, response) -> {
+            try {
+                Thread.sleep(TimeUnit.NANOSECONDS.toMillis(THRESHOLD_NANOS) * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        call(filter, "GET", "/appointment", slowChain);
+        call(filter, "POST", "/appointment/batch", slowChain);
+        call(filter, "POST", "/appointment/bulk-cancel", slowChain);
+        assertEquals(10, limiter.getLimit());
+
+        call(filter, "GET", "/appointment/APT-1", slowChain);
+        assertTrue(limiter.getLimit() < 10, "limit: " + limiter.getLimit());
+    }
+
+    @Test
+    void testFilter_RequestOutsideAppointmentApi_ShouldNotBeCounted() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire(RequestPriority.CRITICAL);
+        }
+        assertEquals(200, call(filter(), "GET", "/actuator/health", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void testLimiter_SlowThenFastResponses_ShouldShrinkThenRecover() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+            limiter.release(THRESHOLD_NANOS * 2);
+        }
+        assertEquals(3, limiter.getLimit());
+
+        // Fast responses with the limit fully used
+        for (int round = 0; round < 50; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire(RequestPriority.CRITICAL)) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(1_000);
+            }
+        }
+        assertTrue(limiter.getLimit() > 10, "limit: " + limiter.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(RequestPriority.CRITICAL);
+            limiter.release(THRESHOLD_NANOS * 2);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+}
@@ -0,0 +1,83 @@
+package com.Diagnostic;
+
+import com.Diagnostic.entity.Appointment;
+import com.Diagnostic.repository.AppointmentRepository;
+import com.Diagnostic.repository.AppointmentSummary;
+import com.Diagnostic.service.AppointmentService;
+import com.Diagnostic.utility.TimeOrderedAppointmentIdGenerator;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+
+import static com.Diagnostic.service.AppointmentServiceImpl.APPOINTMENT_CACHE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class AppointmentCacheTest {
+
+    // A real (version 7) ID, so the existence filter defers to the mocked repository
+    private static final String APPOINTMENT_ID = new TimeOrderedAppointmentIdGenerator(1).nextId();
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockBean
+    private AppointmentRepository appointmentRepository;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(APPOINTMENT_CACHE).clear();
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentId(APPOINTMENT_ID);
+        appointment.setPatientName("Alice");
+        appointment.setCheckupType("Blood Test");
+        appointment.setAppointmentDate(LocalDate.now().plusDays(2));
+        appointment.setAppointmentTime(LocalTime.of(9, 0));
+        appointment.setStatus("Confirmed");
+        when(appointmentRepository.findByAppointmentId(APPOINTMENT_ID)).thenReturn(Optional.of(appointment));
+        when(appointmentRepository.cancelIfVersion(APPOINTMENT_ID, 0L)).thenReturn(1);
+        when(appointmentRepository.findSummaryByAppointmentId(APPOINTMENT_ID)).thenReturn(Optional.of(new AppointmentSummary(
+                1L, APPOINTMENT_ID, "Alice", "Blood Test", appointment.getAppointmentDate(), appointment.getAppointmentTime(),
+                "Confirmed", null, 0L, null)));
+    }
+
+    private CacheStats stats() {
+        return ((CaffeineCache) cacheManager.getCache(APPOINTMENT_CACHE)).getNativeCache().stats();
+    }
+
+    @Test
+    void testGetAppointmentById_RepeatedReads_ShouldHitCache() {
+        CacheStats before = stats();
+
+        appointmentService.getAppointmentById(APPOINTMENT_ID);
+        appointmentService.getAppointmentById(APPOINTMENT_ID);
+        appointmentService.getAppointmentById(APPOINTMENT_ID);
+
+        verify(appointmentRepository, times(1)).findSummaryByAppointmentId(APPOINTMENT_ID);
+        CacheStats delta = stats().minus(before);
+        assertEquals(2, delta.hitCount());
+        assertEquals(1, delta.missCount());
+    }
+
+    @Test
+    void testCancelAppointment_ShouldEvictEntry() {
+        appointmentService.getAppointmentById(APPOINTMENT_ID);
+
+        appointmentService.cancelAppointmentById(APPOINTMENT_ID);
+
+        assertNull(cacheManager.getCache(APPOINTMENT_CACHE).get(APPOINTMENT_ID));
+    }
+}
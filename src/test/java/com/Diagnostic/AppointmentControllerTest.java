@@ -3,21 +3,55 @@ package com.Diagnostic;
 import com.Diagnostic.controller.AppointmentController;
 import com.Diagnostic.dto.AppointmentCheckupRequest;
 import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.dto.AppointmentPageResponse;
+import com.Diagnostic.dto.BatchBookingResult;
+import com.Diagnostic.dto.BulkCancelResult;
+import com.Diagnostic.dto.ExportFormat;
+import com.Diagnostic.entity.Appointment;
+import com.Diagnostic.exception.AppointmentNotFoundException;
+import com.Diagnostic.exception.BookingUnavailableException;
+import com.Diagnostic.exception.IdempotencyKeyInProgressException;
+import com.Diagnostic.Response.AppointmentJsonHttpMessageConverter;
+import com.Diagnostic.Response.AppointmentProtobufCodec;
+import com.Diagnostic.Response.AppointmentProtobufHttpMessageConverter;
+import com.Diagnostic.Response.CustomResponseModel;
 import com.Diagnostic.service.AppointmentService;
+import com.Diagnostic.service.IdempotencyService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.google.protobuf.CodedOutputStream;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
@@ -32,6 +66,15 @@ class AppointmentControllerTest {
     @MockBean
     private AppointmentService appointmentService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private AppointmentJsonHttpMessageConverter converter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private AppointmentCheckupRequest getValidRequest() {
         AppointmentCheckupRequest request = new AppointmentCheckupRequest();
         request.setPatientName("Alice");
@@ -83,7 +126,7 @@ class AppointmentControllerTest {
         mockMvc.perform(delete("/appointment/test-id"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.message").value("Appointment deleted successfully"))
+                .andExpect(jsonPath("$.message").value("Appointment cancelled successfully"))
                 .andExpect(jsonPath("$.data.appointmentId").value("test-id"));
     }
 
@@ -109,13 +152,82 @@ class AppointmentControllerTest {
         AppointmentCheckupResponse response2 = new AppointmentCheckupResponse();
         response2.setAppointmentId("id2");
 
-        when(appointmentService.getAllAppointments()).thenReturn(List.of(response1, response2));
+        when(appointmentService.getAppointments(any(), isNull(), anyInt()))
+                .thenReturn(new AppointmentPageResponse(List.of(response1, response2), "next-page"));
 
         mockMvc.perform(get("/appointment"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data[0].appointmentId").value("id1"))
-                .andExpect(jsonPath("$.data[1].appointmentId").value("id2"));
+                .andExpect(jsonPath("$.data.appointments[0].appointmentId").value("id1"))
+                .andExpect(jsonPath("$.data.appointments[1].appointmentId").value("id2"))
+                .andExpect(jsonPath("$.data.nextCursor").value("next-page"))
+                .andExpect(jsonPath("$.data.hasNext").value(true));
+    }
+
+    @Test
+    void testGetAllAppointments_ShouldWriteSameJsonAsJackson() throws Exception {
+        AppointmentCheckupResponse appointment = new AppointmentCheckupResponse();
+        appointment.setAppointmentId("id1");
+        appointment.setPatientName("Zoë \"Z\" 😀");
+        appointment.setCheckupType("Blood Test");
+        appointment.setAppointmentDate(LocalDate.of(2025, 3, 7));
+        appointment.setAppointmentTime(LocalTime.of(9, 30));
+        appointment.setStatus("Confirmed");
+        AppointmentPageResponse page = new AppointmentPageResponse(List.of(appointment), null);
+        when(appointmentService.getAppointments(any(), isNull(), anyInt())).thenReturn(page);
+
+        byte[] body = mockMvc.perform(get("/appointment"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertTrue(converter.isFastPathEnabled());
+        assertArrayEquals(objectMapper.writeValueAsBytes(
+                new CustomResponseModel<>(true, "Appointments fetched successfully", page)), body);
+    }
+
+    @Test
+    void testGetAppointmentDetails_MatchingETagOrUnmodified_ShouldReturnNotModified() throws Exception {
+        AppointmentCheckupResponse response = new AppointmentCheckupResponse();
+        response.setAppointmentId("abc123");
+        response.setVersion(3);
+        response.setLastModified(Instant.parse("2025-03-07T09:30:00Z"));
+        when(appointmentService.getAppointmentById("abc123")).thenReturn(response);
+
+        mockMvc.perform(get("/appointment/abc123"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(header().string(HttpHeaders.LAST_MODIFIED, "Fri, 07 Mar 2025 09:30:00 GMT"));
+        mockMvc.perform(get("/appointment/abc123").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/appointment/abc123").header(HttpHeaders.IF_MODIFIED_SINCE, "Fri, 07 Mar 2025 09:30:00 GMT"))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/appointment/abc123").header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testGetAllAppointments_MatchingETag_ShouldReturnNotModifiedWithoutLoadingRows() throws Exception {
+        when(appointmentService.getAppointmentsEtag(any(), isNull(), anyInt())).thenReturn("5f3a");
+
+        mockMvc.perform(get("/appointment").header(HttpHeaders.IF_NONE_MATCH, "\"5f3a\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5f3a\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+        verify(appointmentService, never()).getAppointments(any(), any(), anyInt());
+    }
+
+    @Test
+    void testGetAllAppointments_InvalidCursor_ShouldReturnBadRequest() throws Exception {
+        when(appointmentService.getAppointments(any(), eq("garbage"), anyInt()))
+                .thenThrow(new IllegalArgumentException("Invalid cursor: garbage"));
+
+        mockMvc.perform(get("/appointment").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
     }
 
     @Test
@@ -146,4 +258,288 @@ class AppointmentControllerTest {
                 .andExpect(jsonPath("$.data.appointmentId").value("test-id"))
                 .andExpect(jsonPath("$.data.patientName").value("Alice Updated"));
     }
+
+    @Test
+    void testExportAppointments_Ndjson_ShouldStreamOneAppointmentPerLine() throws Exception {
+        when(appointmentService.exportAppointments(eq(ExportFormat.NDJSON), any())).thenAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("{\"appointmentId\":\"a\"}\n{\"appointmentId\":\"b\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/appointment/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"appointments.ndjson\""))
+                .andExpect(content().string("{\"appointmentId\":\"a\"}\n{\"appointmentId\":\"b\"}\n"));
+    }
+
+    @Test
+    void testExportAppointments_UnknownFormat_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/appointment/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+
+        verify(appointmentService, never()).exportAppointments(any(), any());
+    }
+
+    @Test
+    void testApply_BookingBacklogFull_ShouldReturnServiceUnavailable() throws Exception {
+        when(appointmentService.bookAppointment(any()))
+                .thenThrow(new BookingUnavailableException("Too many bookings are waiting for the database, please retry"));
+
+        mockMvc.perform(post("/appointment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(getValidRequest())))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testApplyBatch_PartialFailure_ShouldReturnMultiStatus() throws Exception {
+        AppointmentCheckupResponse response = new AppointmentCheckupResponse();
+        response.setAppointmentId("abc123");
+
+        when(appointmentService.bookAppointments(any())).thenReturn(List.of(
+                BatchBookingResult.booked(0, response),
+                BatchBookingResult.failed(1, "Validation failed", Map.of("email", "must be a well-formed email address"))));
+
+        mockMvc.perform(post("/appointment/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{},{}]"))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.message").value("1 of 2 appointments booked"))
+                .andExpect(jsonPath("$.data[0].success").value(true))
+                .andExpect(jsonPath("$.data[0].appointment.appointmentId").value("abc123"))
+                .andExpect(jsonPath("$.data[1].success").value(false))
+                .andExpect(jsonPath("$.data[1].errors.email").exists());
+    }
+
+    @Test
+    void testBulkCancel_ShouldReturnCancelledCount() throws Exception {
+        when(appointmentService.cancelAppointments(any())).thenReturn(new BulkCancelResult(List.of("a1", "a2")));
+
+        mockMvc.perform(post("/appointment/bulk-cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"appointmentIds\":[\"a1\",\"a2\",\"a3\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("2 appointments cancelled"))
+                .andExpect(jsonPath("$.data.appointmentIds[1]").value("a2"));
+    }
+
+    @Test
+    void testBulkCancel_InvalidRequest_ShouldReturnBadRequest() throws Exception {
+        when(appointmentService.cancelAppointments(any()))
+                .thenThrow(new IllegalArgumentException("Provide either appointmentIds or appointmentDate"));
+
+        mockMvc.perform(post("/appointment/bulk-cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testPatchAppointment_BlankFields_ShouldReturnValidationErrors() throws Exception {
+        mockMvc.perform(patch("/appointment/test-id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"gender\":\"\",\"mobile\":\"   \",\"patientName\":\" \",\"checkupType\":\"\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.data.gender").value("Gender can not be blank"))
+                .andExpect(jsonPath("$.data.mobile").value("Mobile number can not be blank"))
+                .andExpect(jsonPath("$.data.patientName").exists())
+                .andExpect(jsonPath("$.data.checkupType").exists());
+        verify(appointmentService, never()).patchAppointment(any(), any());
+    }
+
+    @Test
+    void testPatchAppointment_AbsentFields_ShouldNotBeValidated() throws Exception {
+        AppointmentCheckupResponse response = new AppointmentCheckupResponse();
+        response.setAppointmentId("test-id");
+        when(appointmentService.patchAppointment(eq("test-id"), any())).thenReturn(response);
+
+        mockMvc.perform(patch("/appointment/test-id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"mobile\":\"9876543210\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+    }
+
+    @Test
+    void testPatchAppointment_Conflict_ShouldReturnConflict() throws Exception {
+        when(appointmentService.patchAppointment(eq("test-id"), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Appointment.class, 1L));
+
+        mockMvc.perform(patch("/appointment/test-id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"preferredTime\":\"15:00:00\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testUpdateAppointment_Conflict_ShouldReturnConflict() throws Exception {
+        when(appointmentService.updateAppointment(eq("test-id"), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Appointment.class, 1L));
+
+        mockMvc.perform(put("/appointment/test-id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(getValidRequest())))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Appointment is being updated by another request, please retry"));
+    }
+
+    @Test
+    void testUpdateAppointment_NotFound_ShouldReturnNotFound() throws Exception {
+        when(appointmentService.updateAppointment(eq("missing-id"), any()))
+                .thenThrow(new AppointmentNotFoundException("Appointment not found with ID: missing-id"));
+
+        mockMvc.perform(put("/appointment/missing-id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(getValidRequest())))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testUpdateAppointment_UnexpectedFailure_ShouldReturnInternalServerError() throws Exception {
+        when(appointmentService.updateAppointment(eq("test-id"), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        mockMvc.perform(put("/appointment/test-id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(getValidRequest())))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void testModifyAppointment_Cancelled_ShouldReturnConflict() throws Exception {
+        IllegalStateException cancelled = new IllegalStateException("Appointment is cancelled and can no longer be changed: test-id");
+        when(appointmentService.patchAppointment(eq("test-id"), any())).thenThrow(cancelled);
+        when(appointmentService.updateAppointment(eq("test-id"), any())).thenThrow(cancelled);
+
+        mockMvc.perform(patch("/appointment/test-id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"preferredTime\":\"15:00:00\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false));
+        mockMvc.perform(put("/appointment/test-id")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(getValidRequest())))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Error: " + cancelled.getMessage()));
+    }
+
+    @Test
+    void testApply_WithIdempotencyKey_ShouldServeStoredResponse() throws Exception {
+        AppointmentCheckupResponse response = new AppointmentCheckupResponse();
+        response.setAppointmentId("first-booking");
+        when(idempotencyService.execute(any(), eq("retry-key"), any(), any())).thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                .header(IdempotencyService.REPLAYED_HEADER, "true")
+                .body(new CustomResponseModel<>(true, "Appointment booked successfully", response)));
+
+        String body = "{"
+                + "\"patientName\":\"Alice\","
+                + "\"age\":25,"
+                + "\"gender\":\"Female\","
+                + "\"mobile\":\"9876543210\","
+                + "\"email\":\"alice@example.com\","
+                + "\"checkupType\":\"Blood Test\","
+                + "\"preferredDate\":\"" + LocalDate.now().plusDays(2) + "\","
+                + "\"preferredTime\":\"09:00:00\""
+                + "}";
+
+        mockMvc.perform(post("/appointment")
+                        .header("Idempotency-Key", "retry-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.data.appointmentId").value("first-booking"));
+    }
+
+    @Test
+    void testApply_WithIdempotencyKeyStillInProgress_ShouldReturnConflict() throws Exception {
+        when(idempotencyService.execute(eq("client:mobile-app"), eq("busy-key"), any(), any()))
+                .thenThrow(new IdempotencyKeyInProgressException("still being processed"));
+
+        String body = "{"
+                + "\"patientName\":\"Alice\","
+                + "\"age\":25,"
+                + "\"gender\":\"Female\","
+                + "\"mobile\":\"9876543210\","
+                + "\"email\":\"alice@example.com\","
+                + "\"checkupType\":\"Blood Test\","
+                + "\"preferredDate\":\"" + LocalDate.now().plusDays(2) + "\","
+                + "\"preferredTime\":\"09:00:00\""
+                + "}";
+
+        mockMvc.perform(post("/appointment")
+                        .header("Idempotency-Key", "busy-key")
+                        .header(AppointmentController.CLIENT_ID_HEADER, "mobile-app")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isConflict())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        verify(appointmentService, never()).bookAppointment(any());
+    }
+
+    @Test
+    void testGetAppointmentDetails_AcceptCbor_ShouldReturnCbor() throws Exception {
+        AppointmentCheckupResponse response = new AppointmentCheckupResponse();
+        response.setAppointmentId("test-id");
+        response.setAppointmentDate(LocalDate.of(2031, 2, 14));
+        when(appointmentService.getAppointmentById("test-id")).thenReturn(response);
+
+        byte[] body = mockMvc.perform(get("/appointment/test-id").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode tree = new CBORMapper().readTree(body);
+        assertEquals("test-id", tree.at("/data/appointmentId").asText());
+        assertEquals("2031-02-14", tree.at("/data/appointmentDate").asText());
+
+        mockMvc.perform(get("/appointment/test-id").accept(MediaType.ALL))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testApply_ProtobufRequest_ShouldBookAndAnswerInProtobuf() throws Exception {
+        AppointmentCheckupResponse response = new AppointmentCheckupResponse();
+        response.setAppointmentId("abc123");
+        when(appointmentService.bookAppointment(any())).thenReturn(response);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(body);
+        AppointmentProtobufCodec.writeRequest(getValidRequest(), out);
+        out.flush();
+
+        mockMvc.perform(post("/appointment")
+                        .contentType(AppointmentProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                        .accept(AppointmentProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                        .content(body.toByteArray()))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(AppointmentProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+
+        verify(appointmentService).bookAppointment(org.mockito.ArgumentMatchers.argThat(request ->
+                "Alice".equals(request.getPatientName()) && LocalTime.of(9, 0).equals(request.getPreferredTime())));
+    }
+
+    @Test
+    void testBulkCancel_AcceptProtobuf_ShouldBeNotAcceptable() throws Exception {
+        mockMvc.perform(post("/appointment/bulk-cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(AppointmentProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                        .content("{\"appointmentIds\":[\"a1\"]}"))
+                .andExpect(status().isNotAcceptable());
+    }
 }
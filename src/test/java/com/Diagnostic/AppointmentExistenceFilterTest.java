@@ -0,0 +1,135 @@
+package com.Diagnostic;
+
+import com.Diagnostic.repository.AppointmentRepository;
+import com.Diagnostic.service.AppointmentExistenceFilter;
+import com.Diagnostic.utility.BloomFilter;
+import com.Diagnostic.utility.TimeOrderedAppointmentIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AppointmentExistenceFilterTest {
+
+    @InjectMocks
+    private AppointmentExistenceFilter existenceFilter;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final TimeOrderedAppointmentIdGenerator idGenerator = new TimeOrderedAppointmentIdGenerator(1);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(existenceFilter, "trustMargin", Duration.ZERO);
+    }
+
+    /**
+     * A version 7 ID created the given number of milliseconds ago.
+     */
+    private static String idCreatedAgo(long millis) {
+        UUID uuid = UUID.randomUUID();
+        long timestamp = System.currentTimeMillis() - millis;
+        long mostSignificant = (timestamp << 16) | (0x7L << 12) | (uuid.getMostSignificantBits() & 0xfff);
+        return new UUID(mostSignificant, uuid.getLeastSignificantBits()).toString();
+    }
+
+    @Test
+    void testBloomFilter_ManyInsertions_ShouldHaveNoFalseNegativesAndStayNearItsRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<String> stored = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            String id = idGenerator.nextId();
+            stored.add(id);
+            filter.put(id);
+        }
+        for (String id : stored) {
+            assertTrue(filter.mightContain(id));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(idGenerator.nextId())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void testMightExist_BeforeFirstBuild_ShouldReturnTrue() {
+        assertTrue(existenceFilter.mightExist(idCreatedAgo(60_000)));
+        assertTrue(existenceFilter.mightExist("not-an-id"));
+    }
+
+    @Test
+    void testRebuild_ExistingTable_ShouldAnswerMissesForOldIdsOnly() {
+        String stored = idCreatedAgo(60_000);
+        String unknown = idCreatedAgo(60_000);
+        when(appointmentRepository.count()).thenReturn(1L);
+        when(appointmentRepository.streamAppointmentIds()).thenReturn(Stream.of(stored));
+
+        existenceFilter.rebuild();
+
+        assertTrue(existenceFilter.mightExist(stored));
+        assertTrue(existenceFilter.mightExist(stored.toUpperCase()));
+        assertFalse(existenceFilter.mightExist(unknown));
+        // Possibly booked on another node since the rebuild
+        assertTrue(existenceFilter.mightExist(idGenerator.nextId()));
+        // Can never match the BINARY(16) column
+        assertFalse(existenceFilter.mightExist("not-an-id"));
+        // Parses as a UUID, so only the database can tell
+        assertTrue(existenceFilter.mightExist("1-1-1-1-1"));
+    }
+
+    @Test
+    void testMightExist_ImportedId_ShouldAlwaysBeLookedUp() {
+        when(appointmentRepository.streamAppointmentIds()).thenReturn(Stream.empty());
+        existenceFilter.rebuild();
+
+        // Imported on another node since the rebuild; its ID says nothing about when
+        assertTrue(existenceFilter.mightExist(UUID.nameUUIDFromBytes("import-1:2".getBytes()).toString()));
+        assertFalse(existenceFilter.mightExist(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void testMightExist_IdBookedOnThisNode_ShouldReturnTrueImmediately() {
+        when(appointmentRepository.streamAppointmentIds()).thenReturn(Stream.empty());
+        existenceFilter.rebuild();
+
+        String booked = idCreatedAgo(60_000);
+        assertFalse(existenceFilter.mightExist(booked));
+        existenceFilter.add(booked);
+        assertTrue(existenceFilter.mightExist(booked));
+    }
+
+    @Test
+    void testRebuild_DatabaseFailure_ShouldKeepThePreviousFilter() {
+        String stored = idCreatedAgo(60_000);
+        when(appointmentRepository.streamAppointmentIds())
+                .thenReturn(Stream.of(stored))
+                .thenThrow(new IllegalStateException("database unavailable"));
+        existenceFilter.rebuild();
+
+        existenceFilter.rebuild();
+
+        assertTrue(existenceFilter.mightExist(stored));
+        assertFalse(existenceFilter.mightExist(idCreatedAgo(60_000)));
+    }
+}
@@ -0,0 +1,55 @@
+package com.Diagnostic;
+
+import com.Diagnostic.controller.AppointmentImportController;
+import com.Diagnostic.importer.AppointmentImporter;
+import com.Diagnostic.importer.ImportJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AppointmentImportController.class)
+class AppointmentImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AppointmentImporter importer;
+
+    @Test
+    void testStartImport_ShouldAcceptAndPointToJob() throws Exception {
+        when(importer.submit(any())).thenReturn(new ImportJob("job-1", ImportJob.State.QUEUED));
+
+        mockMvc.perform(post("/appointment/import")
+                        .contentType("text/csv")
+                        .content("patientName,age\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/appointment/import/job-1"))
+                .andExpect(jsonPath("$.data.state").value("QUEUED"));
+    }
+
+    @Test
+    void testStartImport_BadHeader_ShouldReturnBadRequest() throws Exception {
+        when(importer.submit(any())).thenThrow(new IllegalArgumentException("CSV header is missing columns: age"));
+
+        mockMvc.perform(post("/appointment/import").contentType("text/csv").content("name\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error: CSV header is missing columns: age"));
+    }
+
+    @Test
+    void testGetImport_Unknown_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/appointment/import/nope"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,138 @@
+package com.Diagnostic;
+
+import com.Diagnostic.importer.AppointmentImporter;
+import com.Diagnostic.importer.ImportCheckpoint;
+import com.Diagnostic.importer.ImportJob;
+import com.Diagnostic.repository.AppointmentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "appointment.import.chunk-size=2",
+        "appointment.import.parser-threads=2",
+        "spring.datasource.url=jdbc:h2:mem:appointment-import;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+class AppointmentImporterTest {
+
+    private static final String HEADER = "Patient Name,age,gender,mobile,email,checkup_type,preferred_date,preferred_time,legacy_id\n";
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private AppointmentImporter importer;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private static String row(String name, String age, String email, LocalDate date) {
+        return name + "," + age + ",Female,9876543210," + email + ",Blood Test," + date + ",09:30,L-" + name + "\n";
+    }
+
+    @Test
+    void testImportFile_ShouldStoreValidRowsAndReportTheRest() throws IOException {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        Path file = Files.writeString(directory.resolve("legacy.csv"), HEADER
+                + row("Ann", "30", "ann@example.com", tomorrow)
+                + row("Bad Email", "31", "not-an-email", tomorrow)
+                + row("Past", "32", "past@example.com", LocalDate.now().minusDays(3))
+                + row("Bad Age", "x", "age@example.com", tomorrow)
+                + row("Bob", "33", "bob@example.com", tomorrow));
+        long before = appointmentRepository.count();
+
+        ImportJob job = importer.importFile(file, false);
+
+        assertEquals(ImportJob.State.COMPLETED, job.getState());
+        assertEquals(5, job.getRowsProcessed());
+        assertEquals(2, job.getImported());
+        assertEquals(3, job.getFailed());
+        assertEquals(before + 2, appointmentRepository.count());
+
+        List<String> report = Files.readAllLines(directory.resolve("legacy.csv.errors.csv"));
+        assertEquals("row,field,message", report.get(0));
+        assertTrue(report.contains("3,email,must be a well-formed email address"), report::toString);
+        assertTrue(report.contains("4,preferredDate,Preferred date must be today or in the future"), report::toString);
+        assertTrue(report.contains("5,age,Age must be a whole number"), report::toString);
+        assertEquals(4, report.size());
+    }
+
+    @Test
+    void testImportFile_AllowPastDates_ShouldImportHistoricalRows() throws IOException {
+        Path file = Files.writeString(directory.resolve("history.csv"), HEADER
+                + row("Old", "50", "old@example.com", LocalDate.now().minusYears(2)));
+
+        ImportJob job = importer.importFile(file, true);
+
+        assertEquals(1, job.getImported());
+        assertEquals(0, job.getFailed());
+    }
+
+    @Test
+    void testImportFile_Interrupted_ShouldResumeAfterCheckpoint() throws IOException {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        Path file = Files.writeString(directory.resolve("resume.csv"), HEADER
+                + row("First", "20", "first@example.com", tomorrow)
+                + row("Second", "21", "second@example.com", tomorrow)
+                + row("Third", "22", "third@example.com", tomorrow));
+        assertEquals(3, importer.importFile(file, false).getImported());
+
+        // As if the run had stopped there: more rows follow and the checkpoint is not complete
+        Path checkpointFile = directory.resolve("resume.csv.checkpoint");
+        ImportCheckpoint checkpoint = ImportCheckpoint.load(checkpointFile);
+        new ImportCheckpoint(checkpoint.importId(), checkpoint.offset(), checkpoint.recordNumber(), checkpoint.imported(), checkpoint.failed(),
+                checkpoint.errorReportBytes(), false, false).save(checkpointFile);
+        Files.writeString(file, row("Fourth", "23", "fourth@example.com", tomorrow), StandardOpenOption.APPEND);
+        long before = appointmentRepository.count();
+
+        ImportJob job = importer.importFile(file, false);
+
+        assertEquals(ImportJob.State.COMPLETED, job.getState());
+        assertEquals(4, job.getImported());
+        assertEquals(4, job.getRowsProcessed());
+        assertEquals(before + 1, appointmentRepository.count());
+    }
+
+    @Test
+    void testImportFile_CrashBeforeCheckpoint_ShouldNotStoreRowsTwice() throws IOException {
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        Path file = Files.writeString(directory.resolve("crash.csv"), HEADER
+                + row("One", "20", "one@example.com", tomorrow)
+                + row("Two", "21", "two@example.com", tomorrow)
+                + row("Three", "22", "three@example.com", tomorrow));
+        assertEquals(3, importer.importFile(file, false).getImported());
+        long before = appointmentRepository.count();
+
+        // As if every chunk had been stored but the process died before writing any checkpoint
+        Path checkpointFile = directory.resolve("crash.csv.checkpoint");
+        ImportCheckpoint.start(ImportCheckpoint.load(checkpointFile).importId(), false).save(checkpointFile);
+
+        ImportJob job = importer.importFile(file, false);
+
+        assertEquals(ImportJob.State.COMPLETED, job.getState());
+        assertEquals(3, job.getImported());
+        assertEquals(0, job.getFailed());
+        assertEquals(before, appointmentRepository.count());
+    }
+
+    @Test
+    void testImportFile_MissingColumn_ShouldFail() throws IOException {
+        Path file = Files.writeString(directory.resolve("broken.csv"), "patientName,age\nAnn,30\n", StandardCharsets.UTF_8);
+
+        ImportJob job = importer.importFile(file, false);
+
+        assertEquals(ImportJob.State.FAILED, job.getState());
+        assertTrue(job.getError().contains("gender"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.Diagnostic;
+
+import com.Diagnostic.Response.AppointmentJsonHttpMessageConverter;
+import com.Diagnostic.Response.AppointmentJsonWriter;
+import com.Diagnostic.Response.CustomResponseModel;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.dto.AppointmentPageResponse;
+import com.Diagnostic.dto.BatchBookingResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppointmentJsonWriterTest {
+
+    // Configured the way Spring Boot configures its ObjectMapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private static final String[] TRICKY_STRINGS = {
+            "", "plain", "quote \" and backslash \\", "tab\tnew\nline\rfeed\f\b", "\u0000\u001f\u007f",
+            "Zoë Müller", "日本語", "emoji 😀 pair", "lone \ud83d surrogate", "slash / and <html>", "  "
+    };
+
+    private byte[] fast(CustomResponseModel<?> response) throws IOException {
+        assertTrue(AppointmentJsonWriter.supports(response));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AppointmentJsonWriter.write(response, out);
+        return out.toByteArray();
+    }
+
+    private void assertSameAsJackson(CustomResponseModel<?> response) throws IOException {
+        byte[] expected = objectMapper.writeValueAsBytes(response);
+        byte[] actual = fast(response);
+        assertArrayEquals(expected, actual, () -> {
+            int at = Arrays.mismatch(expected, actual);
+            int from = Math.max(0, at - 60);
+            return "differs at byte " + at + ": expected ..." + new String(expected, from, Math.min(120, expected.length - from))
+                    + " but was ..." + new String(actual, from, Math.min(120, actual.length - from));
+        });
+    }
+
+    private static AppointmentCheckupResponse randomAppointment(Random random) {
+        AppointmentCheckupResponse appointment = new AppointmentCheckupResponse();
+        appointment.setAppointmentId(random.nextInt(10) == 0 ? null : "0190a6f2-8c3e-7000-8000-" + String.format("%012d", random.nextInt(1_000_000)));
+        appointment.setPatientName(TRICKY_STRINGS[random.nextInt(TRICKY_STRINGS.length)]);
+        appointment.setCheckupType(random.nextBoolean() ? "Blood Test" : null);
+        appointment.setAppointmentDate(random.nextInt(10) == 0 ? null
+                : LocalDate.of(random.nextInt(10_000), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+        LocalTime time = LocalTime.of(random.nextInt(24), random.nextInt(60));
+        switch (random.nextInt(6)) {
+            case 0 -> time = null;
+            case 1 -> time = time.withSecond(random.nextInt(60));
+            case 2 -> time = time.withNano(random.nextInt(1000) * 1_000_000);
+            case 3 -> time = time.withNano(random.nextInt(1_000_000) * 1000);
+            case 4 -> time = time.withNano(random.nextInt(1_000_000_000));
+            default -> {
+            }
+        }
+        appointment.setAppointmentTime(time);
+        appointment.setStatus("Confirmed");
+        appointment.setRemark(random.nextBoolean() ? null : TRICKY_STRINGS[random.nextInt(TRICKY_STRINGS.length)]);
+        return appointment;
+    }
+
+    @Test
+    void testWrite_AppointmentResponses_ShouldBeByteIdenticalToJackson() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            List<AppointmentCheckupResponse> appointments = new ArrayList<>();
+            for (int j = random.nextInt(20); j > 0; j--) {
+                appointments.add(randomAppointment(random));
+            }
+            assertSameAsJackson(new CustomResponseModel<>(random.nextBoolean(), "Appointments fetched", appointments));
+            assertSameAsJackson(new CustomResponseModel<>(true, null,
+                    new AppointmentPageResponse(appointments, random.nextBoolean() ? "next-cursor" : null)));
+            assertSameAsJackson(new CustomResponseModel<>(true, "One", randomAppointment(random)));
+        }
+        assertSameAsJackson(new CustomResponseModel<>(false, "Error: not found", null));
+        assertSameAsJackson(new CustomResponseModel<>(true, "Nulls", Arrays.asList(null, new AppointmentCheckupResponse())));
+        assertSameAsJackson(new CustomResponseModel<>(true, "Empty page", new AppointmentPageResponse()));
+    }
+
+    @Test
+    void testWrite_LongResponse_ShouldCrossTheBufferBoundary() throws IOException {
+        Random random = new Random(7);
+        List<AppointmentCheckupResponse> appointments = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            appointments.add(randomAppointment(random));
+        }
+        AppointmentCheckupResponse longName = randomAppointment(random);
+        longName.setPatientName("😀é\"".repeat(10_000));
+        appointments.add(longName);
+        assertSameAsJackson(new CustomResponseModel<>(true, "Many", appointments));
+    }
+
+    @Test
+    void testSupports_OtherPayloads_ShouldBeLeftToJackson() {
+        assertFalse(AppointmentJsonWriter.supports(new CustomResponseModel<>(true, "Batch",
+                List.of(BatchBookingResult.failed(0, "failed", null)))));
+        assertFalse(AppointmentJsonWriter.supports(new CustomResponseModel<>(true, "Text", "value")));
+    }
+
+    @Test
+    void testConverter_MixedPayloads_ShouldFallBackToJacksonForOthers() throws IOException {
+        AppointmentJsonHttpMessageConverter converter = new AppointmentJsonHttpMessageConverter(objectMapper);
+        assertTrue(converter.isFastPathEnabled());
+
+        CustomResponseModel<List<BatchBookingResult>> batch = new CustomResponseModel<>(true, "Batch",
+                List.of(BatchBookingResult.failed(0, "failed", null)));
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(batch, MediaType.APPLICATION_JSON, message);
+        assertArrayEquals(objectMapper.writeValueAsBytes(batch), message.getBodyAsBytes());
+
+        CustomResponseModel<AppointmentCheckupResponse> single = new CustomResponseModel<>(true, "One",
+                randomAppointment(new Random(1)));
+        message = new MockHttpOutputMessage();
+        converter.write(single, MediaType.APPLICATION_JSON, message);
+        assertArrayEquals(objectMapper.writeValueAsBytes(single), message.getBodyAsBytes());
+    }
+
+    @Test
+    void testFastPath_CustomizedObjectMapper_ShouldBeDisabled() {
+        ObjectMapper nonNull = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+
+        assertFalse(new AppointmentJsonHttpMessageConverter(nonNull).isFastPathEnabled());
+    }
+}
@@ -0,0 +1,220 @@
+package com.Diagnostic;
+
+import com.Diagnostic.Response.AppointmentProtobufCodec;
+import com.Diagnostic.Response.AppointmentProtobufHttpMessageConverter;
+import com.Diagnostic.Response.CustomResponseModel;
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.dto.AppointmentPageResponse;
+import com.Diagnostic.dto.BulkCancelResult;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Label;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.MessageOptions;
+import com.google.protobuf.DescriptorProtos.OneofDescriptorProto;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the hand-written codec against protobuf's own parser, using the messages of appointment.proto.
+ */
+class AppointmentProtobufCodecTest {
+
+    private static final Descriptors.FileDescriptor SCHEMA = schema();
+
+    private static Descriptors.FileDescriptor schema() {
+        DescriptorProto request = DescriptorProto.newBuilder().setName("AppointmentCheckupRequest")
+                .addField(field("patient_name", 1, Type.TYPE_STRING))
+                .addField(field("age", 2, Type.TYPE_INT32))
+                .addField(field("gender", 3, Type.TYPE_STRING))
+                .addField(field("mobile", 4, Type.TYPE_STRING))
+                .addField(field("email", 5, Type.TYPE_STRING))
+                .addField(field("checkup_type", 6, Type.TYPE_STRING))
+                .addField(field("preferred_date", 7, Type.TYPE_INT32))
+                .addField(field("preferred_time", 8, Type.TYPE_INT32))
+                .build();
+        DescriptorProto response = DescriptorProto.newBuilder().setName("AppointmentCheckupResponse")
+                .addField(field("appointment_id", 1, Type.TYPE_STRING))
+                .addField(field("patient_name", 2, Type.TYPE_STRING))
+                .addField(field("checkup_type", 3, Type.TYPE_STRING))
+                .addField(field("appointment_date", 4, Type.TYPE_INT32))
+                .addField(field("appointment_time", 5, Type.TYPE_INT32))
+                .addField(field("status", 6, Type.TYPE_STRING))
+                .addField(field("remark", 7, Type.TYPE_STRING))
+                .build();
+        DescriptorProto page = DescriptorProto.newBuilder().setName("AppointmentPage")
+                .addField(repeated(message("appointments", 1, "AppointmentCheckupResponse")))
+                .addField(field("next_cursor", 2, Type.TYPE_STRING))
+                .addField(field("has_next", 3, Type.TYPE_BOOL))
+                .build();
+        DescriptorProto list = DescriptorProto.newBuilder().setName("AppointmentList")
+                .addField(repeated(message("appointments", 1, "AppointmentCheckupResponse")))
+                .build();
+        DescriptorProto errorsEntry = DescriptorProto.newBuilder().setName("ErrorsEntry")
+                .addField(field("key", 1, Type.TYPE_STRING))
+                .addField(field("value", 2, Type.TYPE_STRING))
+                .setOptions(MessageOptions.newBuilder().setMapEntry(true))
+                .build();
+        DescriptorProto envelope = DescriptorProto.newBuilder().setName("AppointmentEnvelope")
+                .addField(field("success", 1, Type.TYPE_BOOL))
+                .addField(field("message", 2, Type.TYPE_STRING))
+                .addOneofDecl(OneofDescriptorProto.newBuilder().setName("data"))
+                .addField(message("appointment", 3, "AppointmentCheckupResponse").toBuilder().setOneofIndex(0))
+                .addField(message("page", 4, "AppointmentPage").toBuilder().setOneofIndex(0))
+                .addField(message("list", 5, "AppointmentList").toBuilder().setOneofIndex(0))
+                .addField(repeated(message("errors", 6, "AppointmentEnvelope.ErrorsEntry")))
+                .addNestedType(errorsEntry)
+                .build();
+        FileDescriptorProto file = FileDescriptorProto.newBuilder()
+                .setName("appointment.proto").setPackage("diagnostic.appointment.v1").setSyntax("proto3")
+                .addMessageType(request).addMessageType(response).addMessageType(page)
+                .addMessageType(list).addMessageType(envelope)
+                .build();
+        try {
+            return Descriptors.FileDescriptor.buildFrom(file, new Descriptors.FileDescriptor[0]);
+        } catch (Descriptors.DescriptorValidationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static FieldDescriptorProto field(String name, int number, Type type) {
+        return FieldDescriptorProto.newBuilder().setName(name).setNumber(number)
+                .setType(type).setLabel(Label.LABEL_OPTIONAL).build();
+    }
+
+    private static FieldDescriptorProto message(String name, int number, String typeName) {
+        return FieldDescriptorProto.newBuilder().setName(name).setNumber(number).setType(Type.TYPE_MESSAGE)
+                .setTypeName(".diagnostic.appointment.v1." + typeName).setLabel(Label.LABEL_OPTIONAL).build();
+    }
+
+    private static FieldDescriptorProto repeated(FieldDescriptorProto field) {
+        return field.toBuilder().setLabel(Label.LABEL_REPEATED).build();
+    }
+
+    private static Object get(DynamicMessage message, String field) {
+        return message.getField(message.getDescriptorForType().findFieldByName(field));
+    }
+
+    private static DynamicMessage parseEnvelope(CustomResponseModel<?> response) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        AppointmentProtobufCodec.writeEnvelope(response, out);
+        out.flush();
+        return DynamicMessage.parseFrom(SCHEMA.findMessageTypeByName("AppointmentEnvelope"), bytes.toByteArray());
+    }
+
+    private static AppointmentCheckupResponse appointment(String id) {
+        AppointmentCheckupResponse appointment = new AppointmentCheckupResponse();
+        appointment.setAppointmentId(id);
+        appointment.setPatientName("Zoë Müller 😀");
+        appointment.setCheckupType("Blood Test");
+        appointment.setAppointmentDate(LocalDate.of(2031, 2, 14));
+        appointment.setAppointmentTime(LocalTime.of(9, 30, 15));
+        appointment.setStatus("Confirmed");
+        return appointment;
+    }
+
+    @Test
+    void testPage_ShouldParseWithProtobuf() throws IOException {
+        AppointmentPageResponse page = new AppointmentPageResponse();
+        page.setAppointments(List.of(appointment("a1"), appointment("a2")));
+        page.setNextCursor("cursor-2");
+        page.setHasNext(true);
+
+        DynamicMessage envelope = parseEnvelope(new CustomResponseModel<>(true, "Appointments fetched successfully", page));
+
+        assertEquals(true, get(envelope, "success"));
+        assertEquals("Appointments fetched successfully", get(envelope, "message"));
+        DynamicMessage parsedPage = (DynamicMessage) get(envelope, "page");
+        assertEquals("cursor-2", get(parsedPage, "next_cursor"));
+        assertEquals(true, get(parsedPage, "has_next"));
+        List<?> appointments = (List<?>) get(parsedPage, "appointments");
+        assertEquals(2, appointments.size());
+        DynamicMessage second = (DynamicMessage) appointments.get(1);
+        assertEquals("a2", get(second, "appointment_id"));
+        assertEquals("Zoë Müller 😀", get(second, "patient_name"));
+        assertEquals((int) LocalDate.of(2031, 2, 14).toEpochDay(), get(second, "appointment_date"));
+        assertEquals(LocalTime.of(9, 30, 15).toSecondOfDay(), get(second, "appointment_time"));
+        assertEquals("", get(second, "remark"));
+    }
+
+    @Test
+    void testListAndErrors_ShouldParseWithProtobuf() throws IOException {
+        DynamicMessage list = parseEnvelope(new CustomResponseModel<>(true, "ok", List.of(appointment("a1"))));
+        assertEquals(1, ((List<?>) get((DynamicMessage) get(list, "list"), "appointments")).size());
+
+        DynamicMessage errors = parseEnvelope(new CustomResponseModel<>(false, "Validation failed",
+                Map.of("email", "must be a well-formed email address")));
+        assertEquals(false, get(errors, "success"));
+        DynamicMessage entry = (DynamicMessage) ((List<?>) get(errors, "errors")).get(0);
+        assertEquals("email", get(entry, "key"));
+        assertEquals("must be a well-formed email address", get(entry, "value"));
+    }
+
+    @Test
+    void testReadRequest_ShouldReadWhatProtobufWrites() throws IOException {
+        Descriptors.Descriptor type = SCHEMA.findMessageTypeByName("AppointmentCheckupRequest");
+        byte[] bytes = DynamicMessage.newBuilder(type)
+                .setField(type.findFieldByName("patient_name"), "Alice")
+                .setField(type.findFieldByName("age"), 25)
+                .setField(type.findFieldByName("email"), "alice@example.com")
+                .setField(type.findFieldByName("checkup_type"), "Blood Test")
+                .setField(type.findFieldByName("preferred_date"), (int) LocalDate.of(2031, 2, 14).toEpochDay())
+                .setField(type.findFieldByName("preferred_time"), LocalTime.of(9, 0).toSecondOfDay())
+                .build().toByteArray();
+
+        AppointmentCheckupRequest request = AppointmentProtobufCodec.readRequest(CodedInputStream.newInstance(bytes));
+
+        assertEquals("Alice", request.getPatientName());
+        assertEquals(25, request.getAge());
+        assertNull(request.getMobile());
+        assertEquals("Blood Test", request.getCheckupType());
+        assertEquals(LocalDate.of(2031, 2, 14), request.getPreferredDate());
+        assertEquals(LocalTime.of(9, 0), request.getPreferredTime());
+
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(written);
+        AppointmentProtobufCodec.writeRequest(request, out);
+        out.flush();
+        assertArrayEquals(bytes, written.toByteArray());
+    }
+
+    @Test
+    void testConverter_ShouldOnlyWriteTypesWithASchema() {
+        AppointmentProtobufHttpMessageConverter converter = new AppointmentProtobufHttpMessageConverter();
+
+        assertTrue(converter.canWrite(new ParameterizedTypeReference<CustomResponseModel<AppointmentPageResponse>>() { }.getType(),
+                CustomResponseModel.class, AppointmentProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+        assertTrue(converter.canWrite(new ParameterizedTypeReference<CustomResponseModel<Map<String, String>>>() { }.getType(),
+                CustomResponseModel.class, AppointmentProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<CustomResponseModel<BulkCancelResult>>() { }.getType(),
+                CustomResponseModel.class, AppointmentProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+        assertFalse(converter.canRead(AppointmentCheckupResponse.class, null, AppointmentProtobufHttpMessageConverter.APPLICATION_PROTOBUF));
+    }
+
+    @Test
+    void testConverter_MalformedBody_ShouldBeUnreadable() {
+        AppointmentProtobufHttpMessageConverter converter = new AppointmentProtobufHttpMessageConverter();
+        // field 8 (preferred_time) = 100000, more seconds than a day has
+        byte[] body = {0x40, (byte) 0xa0, (byte) 0x8d, 0x06};
+
+        assertThrows(org.springframework.http.converter.HttpMessageNotReadableException.class,
+                () -> converter.read(AppointmentCheckupRequest.class, null, new MockHttpInputMessage(body)));
+    }
+}
@@ -0,0 +1,233 @@
+package com.Diagnostic;
+
+import com.Diagnostic.dto.AppointmentSearchCriteria;
+import com.Diagnostic.entity.Appointment;
+import com.Diagnostic.repository.AppointmentRepository;
+import com.Diagnostic.repository.AppointmentSummary;
+import com.Diagnostic.repository.AppointmentVersion;
+import com.Diagnostic.utility.AppointmentCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.Diagnostic.repository.AppointmentSpecifications.KEYSET_SORT;
+import static com.Diagnostic.repository.AppointmentSpecifications.after;
+import static com.Diagnostic.repository.AppointmentSpecifications.matching;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class AppointmentRepositoryTest {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final LocalDate baseDate = LocalDate.now().plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository.deleteAll();
+        // Several rows share a date and time so the id tie-breaker is exercised
+        for (int i = 0; i < 12; i++) {
+            appointmentRepository.save(appointment(baseDate.plusDays(i % 3), LocalTime.of(9 + i % 2, 0),
+                    i % 4 == 0 ? "Pending" : "Confirmed", i % 2 == 0 ? "Blood Test" : "X-Ray"));
+        }
+    }
+
+    private Appointment appointment(LocalDate date, LocalTime time, String status, String checkupType) {
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentId(UUID.randomUUID().toString());
+        appointment.setPatientName("Patient");
+        appointment.setAge(40);
+        appointment.setGender("Female");
+        appointment.setMobile("9876543210");
+        appointment.setEmail("patient@example.com");
+        appointment.setCheckupType(checkupType);
+        appointment.setAppointmentDate(date);
+        appointment.setAppointmentTime(time);
+        appointment.setStatus(status);
+        return appointment;
+    }
+
+    private List<Appointment> page(AppointmentSearchCriteria criteria, AppointmentCursor cursor, int size) {
+        Specification<Appointment> specification = matching(criteria);
+        if (cursor != null) {
+            specification = specification.and(after(cursor));
+        }
+        return appointmentRepository.findBy(specification, query -> query.sortBy(KEYSET_SORT).limit(size).all());
+    }
+
+    @Test
+    void testKeysetPages_ShouldVisitEveryRowOnceInOrder() {
+        List<Appointment> expected = appointmentRepository.findAll(KEYSET_SORT);
+        List<Appointment> visited = new ArrayList<>();
+
+        AppointmentCursor cursor = null;
+        List<Appointment> page;
+        do {
+            page = page(new AppointmentSearchCriteria(), cursor, 5);
+            visited.addAll(page);
+            if (!page.isEmpty()) {
+                cursor = AppointmentCursor.decode(AppointmentCursor.of(page.get(page.size() - 1)).encode());
+            }
+        } while (page.size() == 5);
+
+        assertEquals(expected.stream().map(Appointment::getId).toList(),
+                visited.stream().map(Appointment::getId).toList());
+    }
+
+    @Test
+    void testFilters_ShouldRestrictByDateRangeStatusAndType() {
+        AppointmentSearchCriteria criteria =
+                new AppointmentSearchCriteria(baseDate.plusDays(1), baseDate.plusDays(2), "Confirmed", "X-Ray");
+
+        List<Appointment> result = page(criteria, null, 100);
+
+        assertFalse(result.isEmpty());
+        assertTrue(result.stream().allMatch(a -> "Confirmed".equals(a.getStatus())
+                && "X-Ray".equals(a.getCheckupType())
+                && !a.getAppointmentDate().isBefore(baseDate.plusDays(1))));
+    }
+
+    @Test
+    void testFindSummaries_ShouldReturnSameKeysetPageAsEntities() {
+        AppointmentSearchCriteria criteria = new AppointmentSearchCriteria(null, null, "Confirmed", null);
+        AppointmentCursor cursor = AppointmentCursor.of(page(criteria, null, 2).get(1));
+
+        List<Appointment> entities = page(criteria, cursor, 4);
+        Specification<Appointment> specification = matching(criteria).and(after(cursor));
+        List<AppointmentSummary> summaries = appointmentRepository.findSummaries(specification, KEYSET_SORT, 4);
+
+        assertEquals(entities.stream().map(Appointment::getId).toList(),
+                summaries.stream().map(AppointmentSummary::id).toList());
+        assertEquals(entities.get(0).getAppointmentId(), summaries.get(0).appointmentId());
+        assertEquals(entities.get(0).getPatientName(), summaries.get(0).patientName());
+    }
+
+    @Test
+    void testFindSummaryByAppointmentId_ShouldReturnResponseColumns() {
+        Appointment saved = appointmentRepository.findAll().get(0);
+
+        AppointmentSummary summary = appointmentRepository.findSummaryByAppointmentId(saved.getAppointmentId())
+                .orElseThrow();
+
+        assertEquals(saved.getId(), summary.id());
+        assertEquals(saved.getAppointmentTime(), summary.appointmentTime());
+        assertEquals(saved.getStatus(), summary.status());
+        assertEquals(12, appointmentRepository.findAllSummaries().size());
+    }
+
+    @Test
+    void testStreamAll_ShouldReturnEveryRowInIdOrder() {
+        try (Stream<Appointment> stream = appointmentRepository.streamAll()) {
+            List<Long> ids = stream.map(Appointment::getId).toList();
+
+            assertEquals(12, ids.size());
+            assertEquals(ids.stream().sorted().toList(), ids);
+        }
+    }
+
+    @Test
+    void testFindByAppointmentId_ShouldMatchBinaryStoredId() {
+        Appointment saved = appointmentRepository.findAll().get(0);
+
+        assertTrue(appointmentRepository.findByAppointmentId(saved.getAppointmentId()).isPresent());
+        assertTrue(appointmentRepository.existsByAppointmentId(saved.getAppointmentId()));
+        assertFalse(appointmentRepository.existsByAppointmentId("not-an-id"));
+    }
+
+    @Test
+    void testCancelIfVersion_ShouldOnlyCancelTheVersionThatWasRead() {
+        Appointment saved = appointmentRepository.findAll().stream()
+                .filter(a -> "Confirmed".equals(a.getStatus()))
+                .findFirst().orElseThrow();
+        long version = saved.getVersion();
+
+        assertEquals(0, appointmentRepository.cancelIfVersion(saved.getAppointmentId(), version + 1));
+        assertEquals(1, appointmentRepository.cancelIfVersion(saved.getAppointmentId(), version));
+        assertEquals(0, appointmentRepository.cancelIfVersion(saved.getAppointmentId(), version));
+        assertEquals(0, appointmentRepository.cancelIfVersion(saved.getAppointmentId(), version + 1));
+    }
+
+    @Test
+    void testBulkCancel_ShouldLockActiveRowsAndCancelThemInOneUpdate() {
+        List<String> appointmentIds = appointmentRepository.findAll().stream()
+                .limit(3)
+                .map(Appointment::getAppointmentId)
+                .toList();
+        List<Appointment> byIds = appointmentRepository.lockActiveByAppointmentIds(appointmentIds);
+        assertEquals(3, byIds.size());
+
+        List<Appointment> byDate = appointmentRepository.lockActiveByDate(baseDate, "Blood Test", Limit.of(2));
+        assertEquals(2, byDate.size());
+        assertTrue(byDate.stream().allMatch(a -> "Blood Test".equals(a.getCheckupType())
+                && baseDate.equals(a.getAppointmentDate())));
+
+        assertEquals(3, appointmentRepository.cancelAllById(byIds.stream().map(Appointment::getId).toList()));
+        assertTrue(appointmentRepository.lockActiveByAppointmentIds(appointmentIds).isEmpty());
+    }
+
+    @Test
+    void testSave_StaleVersion_ShouldFailOptimistically() {
+        Appointment stale = appointmentRepository.findAll().stream()
+                .filter(a -> "Confirmed".equals(a.getStatus()))
+                .findFirst().orElseThrow();
+        entityManager.detach(stale);
+
+        // The conditional cancel bumps the version, so the copy read before it is now stale
+        appointmentRepository.cancelIfVersion(stale.getAppointmentId(), stale.getVersion());
+        stale.setEmail("changed@example.com");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> appointmentRepository.saveAndFlush(stale));
+    }
+
+    @Test
+    void testUpdates_ShouldBumpVersionAndLastModified() {
+        Appointment saved = appointmentRepository.findAll().stream()
+                .filter(a -> "Confirmed".equals(a.getStatus()))
+                .findFirst().orElseThrow();
+        assertNotNull(saved.getLastModified());
+        long version = saved.getVersion();
+        Instant lastModified = saved.getLastModified();
+
+        saved.setEmail("changed@example.com");
+        appointmentRepository.saveAndFlush(saved);
+        assertEquals(version + 1, saved.getVersion());
+        assertFalse(saved.getLastModified().isBefore(lastModified));
+
+        appointmentRepository.cancelIfVersion(saved.getAppointmentId(), saved.getVersion());
+        entityManager.clear();
+        AppointmentSummary cancelled = appointmentRepository.findSummaryByAppointmentId(saved.getAppointmentId())
+                .orElseThrow();
+        assertEquals(version + 2, cancelled.version());
+        assertNotNull(cancelled.lastModified());
+    }
+
+    @Test
+    void testFindVersions_ShouldReturnSameRowsAsSummaries() {
+        AppointmentSearchCriteria criteria = new AppointmentSearchCriteria(null, null, "Confirmed", null);
+
+        List<AppointmentSummary> summaries = appointmentRepository.findSummaries(matching(criteria), KEYSET_SORT, 5);
+        List<AppointmentVersion> versions = appointmentRepository.findVersions(matching(criteria), KEYSET_SORT, 5);
+
+        assertEquals(summaries.stream().map(AppointmentSummary::id).toList(),
+                versions.stream().map(AppointmentVersion::id).toList());
+        assertEquals(summaries.stream().map(AppointmentSummary::version).toList(),
+                versions.stream().map(AppointmentVersion::version).toList());
+    }
+}
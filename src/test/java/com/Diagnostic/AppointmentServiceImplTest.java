@@ -1,18 +1,47 @@
 package com.Diagnostic;
 
+import com.Diagnostic.datasource.ReadYourWrites;
 import com.Diagnostic.dto.AppointmentCheckupRequest;
 import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.dto.AppointmentPageResponse;
+import com.Diagnostic.dto.AppointmentPatchRequest;
+import com.Diagnostic.dto.AppointmentSearchCriteria;
+import com.Diagnostic.dto.BatchBookingResult;
+import com.Diagnostic.dto.BulkCancelRequest;
+import com.Diagnostic.dto.BulkCancelResult;
+import com.Diagnostic.dto.ExportFormat;
 import com.Diagnostic.entity.Appointment;
 import com.Diagnostic.exception.AppointmentNotFoundException;
 import com.Diagnostic.repository.AppointmentRepository;
+import com.Diagnostic.repository.AppointmentSummary;
+import com.Diagnostic.repository.AppointmentVersion;
+import com.Diagnostic.service.AppointmentExistenceFilter;
 import com.Diagnostic.service.AppointmentServiceImpl;
+import com.Diagnostic.service.SlotCapacityService;
+import com.Diagnostic.utility.AppointmentCursor;
+import com.Diagnostic.utility.AppointmentIdGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-
+import org.springframework.cache.CacheManager;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,12 +51,46 @@ class AppointmentServiceImplTest {
     @InjectMocks
     private AppointmentServiceImpl appointmentService;
 
+    @Mock
+    private ReadYourWrites readYourWrites;
+
     @Mock
     private AppointmentRepository appointmentRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private SlotCapacityService slotCapacityService;
+
+    @Mock
+    private AppointmentIdGenerator appointmentIdGenerator;
+
+    @Mock
+    private AppointmentExistenceFilter existenceFilter;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(slotCapacityService.tryReserve(any())).thenReturn(true);
+        when(appointmentIdGenerator.nextId()).thenReturn(UUID.randomUUID().toString());
+        when(existenceFilter.mightExist(any())).thenReturn(true);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     private AppointmentCheckupRequest getValidRequest() {
@@ -94,18 +157,88 @@ class AppointmentServiceImplTest {
     }
 
     @Test
-    void testDeleteAppointmentById_ShouldDeleteSuccessfully() {
+    void testCancelAppointmentById_ShouldCancelWithConditionalUpdate() {
         Appointment appointment = mapToAppointment(getValidRequest());
         appointment.setAppointmentId("test-id");
 
         when(appointmentRepository.findByAppointmentId("test-id")).thenReturn(Optional.of(appointment));
-        doNothing().when(appointmentRepository).delete(appointment);
+        when(appointmentRepository.cancelIfVersion("test-id", 0L)).thenReturn(1);
 
         AppointmentCheckupResponse result = appointmentService.cancelAppointmentById("test-id");
 
         assertNotNull(result);
         assertEquals("Cancelled", result.getStatus());
-        verify(appointmentRepository).delete(appointment);
+        verify(appointmentRepository, never()).delete(any(Appointment.class));
+        verify(slotCapacityService).release(any());
+    }
+
+    @Test
+    void testCancelAppointmentById_MovedConcurrently_ShouldReleaseTheSlotOfTheCancelledVersion() {
+        when(slotCapacityService.slotOf(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            return new SlotCapacityService.SlotKey(appointment.getCheckupType(), appointment.getAppointmentDate(),
+                    appointment.getAppointmentTime().getHour());
+        });
+        Appointment stale = mapToAppointment(getValidRequest());
+        stale.setAppointmentId("test-id");
+        // Moved to another slot by a concurrent update, still Confirmed
+        Appointment moved = mapToAppointment(getValidRequest());
+        moved.setAppointmentId("test-id");
+        moved.setAppointmentTime(LocalTime.of(15, 0));
+        moved.setVersion(1);
+
+        when(appointmentRepository.findByAppointmentId("test-id")).thenReturn(Optional.of(stale), Optional.of(moved));
+        when(appointmentRepository.cancelIfVersion("test-id", 0L)).thenReturn(0);
+        when(appointmentRepository.cancelIfVersion("test-id", 1L)).thenReturn(1);
+
+        AppointmentCheckupResponse result = appointmentService.cancelAppointmentById("test-id");
+
+        assertEquals("Cancelled", result.getStatus());
+        verify(slotCapacityService).release(new SlotCapacityService.SlotKey("General", moved.getAppointmentDate(), 15));
+        verify(slotCapacityService, times(1)).release(any());
+    }
+
+    @Test
+    void testCancelAppointmentById_ConcurrentlyModified_ShouldThrowAndKeepSlot() {
+        when(appointmentRepository.findByAppointmentId("test-id")).thenAnswer(invocation -> {
+            Appointment appointment = mapToAppointment(getValidRequest());
+            appointment.setAppointmentId("test-id");
+            return Optional.of(appointment);
+        });
+        when(appointmentRepository.cancelIfVersion("test-id", 0L)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> appointmentService.cancelAppointmentById("test-id"));
+        verify(appointmentRepository, times(3)).cancelIfVersion("test-id", 0L);
+        verify(slotCapacityService, never()).release(any());
+    }
+
+    @Test
+    void testCancelAppointments_ByIds_ShouldCancelInOneUpdateAndReleaseSlotsPerSlot() {
+        List<Appointment> active = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Appointment appointment = mapToAppointment(getValidRequest());
+            appointment.setId((long) i);
+            appointment.setAppointmentId("id-" + i);
+            appointment.setStatus(i == 2 ? "Waitlisted" : "Confirmed");
+            active.add(appointment);
+        }
+        SlotCapacityService.SlotKey slot = new SlotCapacityService.SlotKey("general", LocalDate.now(), 21);
+        when(slotCapacityService.slotOf(any(Appointment.class))).thenReturn(slot);
+        when(appointmentRepository.lockActiveByAppointmentIds(any())).thenReturn(active);
+
+        BulkCancelRequest request = new BulkCancelRequest();
+        request.setAppointmentIds(List.of("id-0", "id-1", "id-2", "id-0", "missing"));
+        BulkCancelResult result = appointmentService.cancelAppointments(request);
+
+        assertEquals(3, result.getCancelled());
+        verify(appointmentRepository).lockActiveByAppointmentIds(List.of("id-0", "id-1", "id-2", "missing"));
+        verify(appointmentRepository).cancelAllById(List.of(0L, 1L, 2L));
+        verify(slotCapacityService).release(slot, 2);
+    }
+
+    @Test
+    void testCancelAppointments_WithoutIdsOrDate_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.cancelAppointments(new BulkCancelRequest()));
     }
 
     @Test
@@ -120,11 +253,35 @@ class AppointmentServiceImplTest {
     }
 
     @Test
-    void testGetAppointmentDetailsById_ShouldReturnDetails() {
-        Appointment appointment = mapToAppointment(getValidRequest());
-        appointment.setAppointmentId("test-id");
+    void testGetAppointmentById_DefiniteMiss_ShouldNotQueryDatabase() {
+        when(existenceFilter.mightExist("unknown-id")).thenReturn(false);
 
-        when(appointmentRepository.findByAppointmentId("test-id")).thenReturn(Optional.of(appointment));
+        AppointmentNotFoundException exception = assertThrows(AppointmentNotFoundException.class,
+                () -> appointmentService.getAppointmentById("unknown-id"));
+        assertThrows(AppointmentNotFoundException.class, () -> appointmentService.cancelAppointmentById("unknown-id"));
+
+        assertEquals(0, exception.getStackTrace().length);
+        verifyNoInteractions(appointmentRepository);
+    }
+
+    @Test
+    void testBookAppointment_ShouldRecordIdInExistenceFilter() {
+        when(appointmentIdGenerator.nextId()).thenReturn("new-id");
+
+        appointmentService.bookAppointment(getValidRequest());
+
+        verify(existenceFilter).add("new-id");
+    }
+
+    private AppointmentSummary summary(long id, String appointmentId) {
+        AppointmentCheckupRequest request = getValidRequest();
+        return new AppointmentSummary(id, appointmentId, request.getPatientName(), request.getCheckupType(),
+                request.getPreferredDate(), request.getPreferredTime(), "Confirmed", null, 1L, Instant.EPOCH);
+    }
+
+    @Test
+    void testGetAppointmentDetailsById_ShouldReturnDetails() {
+        when(appointmentRepository.findSummaryByAppointmentId("test-id")).thenReturn(Optional.of(summary(1L, "test-id")));
 
         AppointmentCheckupResponse result = appointmentService.getAppointmentById("test-id");
 
@@ -152,14 +309,89 @@ class AppointmentServiceImplTest {
     }
 
     @Test
-    void testGetAllAppointments_ShouldReturnList() {
-        Appointment appointment1 = mapToAppointment(getValidRequest());
-        appointment1.setAppointmentId("id1");
+    void testPatchAppointment_ContactOnly_ShouldKeepSlotAndStatus() {
+        Appointment appointment = mapToAppointment(getValidRequest());
+        appointment.setAppointmentId("test-id");
+        when(appointmentRepository.findByAppointmentId("test-id")).thenReturn(Optional.of(appointment));
 
-        Appointment appointment2 = mapToAppointment(getValidRequest());
-        appointment2.setAppointmentId("id2");
+        AppointmentPatchRequest patch = new AppointmentPatchRequest();
+        patch.setEmail("new@example.com");
+        AppointmentCheckupResponse result = appointmentService.patchAppointment("test-id", patch);
+
+        assertEquals("Confirmed", result.getStatus());
+        assertEquals("new@example.com", appointment.getEmail());
+        assertEquals("John Doe", appointment.getPatientName());
+        verify(slotCapacityService, never()).tryReserve(any());
+        verify(slotCapacityService, never()).release(any());
+    }
+
+    @Test
+    void testPatchAppointment_VersionConflict_ShouldRetryOnFreshCopy() {
+        Appointment stale = mapToAppointment(getValidRequest());
+        Appointment fresh = mapToAppointment(getValidRequest());
+        when(slotCapacityService.slotOf(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            return new SlotCapacityService.SlotKey(appointment.getCheckupType(), appointment.getAppointmentDate(),
+                    appointment.getAppointmentTime().getHour());
+        });
+        when(appointmentRepository.findByAppointmentId("test-id")).thenReturn(Optional.of(stale), Optional.of(fresh));
+        when(appointmentRepository.save(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Appointment.class, 1L))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        AppointmentPatchRequest patch = new AppointmentPatchRequest();
+        patch.setPreferredTime(LocalTime.of(15, 0));
+        AppointmentCheckupResponse result = appointmentService.patchAppointment("test-id", patch);
+
+        assertEquals(LocalTime.of(15, 0), result.getAppointmentTime());
+        verify(appointmentRepository, times(2)).save(any());
+        // The failed attempt gives back the slot it reserved, the successful one gives back the old slot
+        verify(slotCapacityService, times(2)).tryReserve(any());
+        verify(slotCapacityService, times(2)).release(any());
+    }
+
+    @Test
+    void testPatchAppointment_PersistentConflict_ShouldGiveUpAfterMaxAttempts() {
+        when(appointmentRepository.findByAppointmentId("test-id"))
+                .thenAnswer(invocation -> Optional.of(mapToAppointment(getValidRequest())));
+        when(appointmentRepository.save(any())).thenThrow(new ObjectOptimisticLockingFailureException(Appointment.class, 1L));
 
-        when(appointmentRepository.findAll()).thenReturn(Arrays.asList(appointment1, appointment2));
+        AppointmentPatchRequest patch = new AppointmentPatchRequest();
+        patch.setPatientName("Jane Doe");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> appointmentService.patchAppointment("test-id", patch));
+        verify(appointmentRepository, times(3)).save(any());
+    }
+
+    @Test
+    void testModifyAppointment_Cancelled_ShouldBeRejectedWithoutReservingASlot() {
+        Appointment appointment = mapToAppointment(getValidRequest());
+        appointment.setAppointmentId("test-id");
+        appointment.setStatus("Cancelled");
+        when(appointmentRepository.findByAppointmentId("test-id")).thenReturn(Optional.of(appointment));
+
+        AppointmentPatchRequest patch = new AppointmentPatchRequest();
+        patch.setPreferredTime(LocalTime.of(15, 0));
+
+        assertThrows(IllegalStateException.class, () -> appointmentService.patchAppointment("test-id", patch));
+        assertThrows(IllegalStateException.class,
+                () -> appointmentService.updateAppointment("test-id", getValidRequest()));
+        assertEquals("Cancelled", appointment.getStatus());
+        verify(appointmentRepository, never()).save(any());
+        verify(slotCapacityService, never()).tryReserve(any());
+        verify(slotCapacityService, never()).release(any());
+    }
+
+    @Test
+    void testPatchAppointment_EmptyPatch_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> appointmentService.patchAppointment("test-id", new AppointmentPatchRequest()));
+    }
+
+    @Test
+    void testGetAllAppointments_ShouldReturnList() {
+        when(appointmentRepository.findAllSummaries()).thenReturn(Arrays.asList(summary(1L, "id1"), summary(2L, "id2")));
 
         List<AppointmentCheckupResponse> result = appointmentService.getAllAppointments();
 
@@ -168,4 +400,203 @@ class AppointmentServiceImplTest {
         assertEquals("id1", result.get(0).getAppointmentId());
         assertEquals("id2", result.get(1).getAppointmentId());
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetAppointments_MoreRowsThanLimit_ShouldReturnNextCursor() {
+        List<AppointmentSummary> rows = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            rows.add(summary(i, "id" + i));
+        }
+        when(appointmentRepository.findSummaries(any(Specification.class), any(), eq(3))).thenReturn(rows);
+
+        AppointmentPageResponse page = appointmentService.getAppointments(new AppointmentSearchCriteria(), null, 2);
+
+        assertEquals(2, page.getAppointments().size());
+        assertTrue(page.isHasNext());
+        AppointmentCursor cursor = AppointmentCursor.decode(page.getNextCursor());
+        assertEquals(2L, cursor.getId());
+        assertEquals(rows.get(1).appointmentDate(), cursor.getAppointmentDate());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetAppointments_LastPage_ShouldNotReturnCursor() {
+        when(appointmentRepository.findSummaries(any(Specification.class), any(), anyInt()))
+                .thenReturn(List.of(summary(7L, "id7")));
+
+        AppointmentPageResponse page = appointmentService.getAppointments(new AppointmentSearchCriteria(), null, 2);
+
+        assertEquals(1, page.getAppointments().size());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGetAppointmentsEtag_ShouldMatchPageEtagUntilARowChanges() {
+        List<AppointmentSummary> rows = List.of(summary(1L, "id1"), summary(2L, "id2"), summary(3L, "id3"));
+        when(appointmentRepository.findSummaries(any(Specification.class), any(), eq(3))).thenReturn(rows);
+        when(appointmentRepository.findVersions(any(Specification.class), any(), eq(3))).thenReturn(
+                List.of(new AppointmentVersion(1L, 1L), new AppointmentVersion(2L, 1L), new AppointmentVersion(3L, 1L)),
+                List.of(new AppointmentVersion(1L, 1L), new AppointmentVersion(2L, 2L), new AppointmentVersion(3L, 1L)),
+                List.of(new AppointmentVersion(1L, 1L), new AppointmentVersion(2L, 1L)));
+
+        String etag = appointmentService.getAppointments(new AppointmentSearchCriteria(), null, 2).getEtag();
+
+        assertEquals(etag, appointmentService.getAppointmentsEtag(new AppointmentSearchCriteria(), null, 2));
+        assertNotEquals(etag, appointmentService.getAppointmentsEtag(new AppointmentSearchCriteria(), null, 2));
+        assertNotEquals(etag, appointmentService.getAppointmentsEtag(new AppointmentSearchCriteria(), null, 2));
+    }
+
+    @Test
+    void testGetAppointments_InvalidCursor_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> appointmentService.getAppointments(new AppointmentSearchCriteria(), "not-a-cursor", 10));
+    }
+
+    @Test
+    void testExportAppointments_Csv_ShouldWriteHeaderAndEscapedRows() throws Exception {
+        Appointment appointment = mapToAppointment(getValidRequest());
+        appointment.setAppointmentId("id1");
+        appointment.setPatientName("Doe, \"JJ\"");
+        when(appointmentRepository.streamAll()).thenReturn(Stream.of(appointment));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = appointmentService.exportAppointments(ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, rows);
+        assertEquals("appointmentId,patientName,checkupType,appointmentDate,appointmentTime,status,remark", lines[0]);
+        assertEquals("id1,\"Doe, \"\"JJ\"\"\",General," + appointment.getAppointmentDate() + ",10:30,Confirmed,",
+                lines[1]);
+    }
+
+    @Test
+    void testExportAppointments_Ndjson_ShouldWriteOneObjectPerLine() throws Exception {
+        Appointment appointment1 = mapToAppointment(getValidRequest());
+        appointment1.setAppointmentId("id1");
+        Appointment appointment2 = mapToAppointment(getValidRequest());
+        appointment2.setAppointmentId("id2");
+        when(appointmentRepository.streamAll()).thenReturn(Stream.of(appointment1, appointment2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        appointmentService.exportAppointments(ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("id1", objectMapper.readTree(lines[0]).get("appointmentId").asText());
+        assertEquals("id2", objectMapper.readTree(lines[1]).get("appointmentId").asText());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBookAppointments_MixedBatch_ShouldReportPerItemResults() {
+        AppointmentCheckupRequest invalid = getValidRequest();
+        invalid.setEmail("not-an-email");
+        AppointmentCheckupRequest farAhead = getValidRequest();
+        farAhead.setPreferredDate(LocalDate.now().plusDays(20));
+
+        when(appointmentRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BatchBookingResult> results =
+                appointmentService.bookAppointments(Arrays.asList(getValidRequest(), invalid, farAhead, null));
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("Confirmed", results.get(0).getAppointment().getStatus());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(1).getErrors().containsKey("email"));
+        assertTrue(results.get(2).isSuccess());
+        assertEquals("Pending", results.get(2).getAppointment().getStatus());
+        assertFalse(results.get(3).isSuccess());
+
+        ArgumentCaptor<List<Appointment>> saved = ArgumentCaptor.forClass(List.class);
+        verify(appointmentRepository, times(1)).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBookAppointments_FailedChunk_ShouldIsolateFailingItem() {
+        AppointmentCheckupRequest first = getValidRequest();
+        AppointmentCheckupRequest second = getValidRequest();
+        second.setPatientName("Broken");
+
+        when(appointmentRepository.saveAll(anyList())).thenThrow(new RuntimeException("constraint violated"));
+        when(appointmentRepository.save(any())).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            if ("Broken".equals(appointment.getPatientName())) {
+                throw new RuntimeException("constraint violated");
+            }
+            return appointment;
+        });
+
+        List<BatchBookingResult> results = appointmentService.bookAppointments(List.of(first, second));
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+    }
+
+    @Test
+    void testImportAppointments_PastDate_ShouldBeConfirmedWithoutSlot() {
+        AppointmentCheckupRequest historical = getValidRequest();
+        historical.setPreferredDate(LocalDate.now().minusYears(1));
+
+        when(appointmentRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BatchBookingResult> results = appointmentService.importAppointments(List.of(historical, getValidRequest()),
+                List.of("import-1", "import-2"));
+
+        assertEquals("Confirmed", results.get(0).getAppointment().getStatus());
+        assertEquals("import-1", results.get(0).getAppointment().getAppointmentId());
+        assertTrue(results.get(1).isSuccess());
+        verify(slotCapacityService, times(1)).tryReserve(any());
+        verify(appointmentRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void testImportAppointments_AlreadyStored_ShouldNotBeStoredOrReservedAgain() {
+        Appointment stored = new Appointment();
+        stored.setAppointmentId("import-1");
+        stored.setStatus("Confirmed");
+        when(appointmentRepository.findAllByAppointmentIdIn(List.of("import-1", "import-2"))).thenReturn(List.of(stored));
+        when(appointmentRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<BatchBookingResult> results = appointmentService.importAppointments(List.of(getValidRequest(), getValidRequest()),
+                List.of("import-1", "import-2"));
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("import-1", results.get(0).getAppointment().getAppointmentId());
+        assertTrue(results.get(1).isSuccess());
+        verify(slotCapacityService, times(1)).tryReserve(any());
+        verify(appointmentRepository).saveAll(argThat(chunk -> chunk instanceof List<?> list && list.size() == 1));
+        verify(appointmentRepository, never()).findByAppointmentId(any());
+    }
+
+    @Test
+    void testBookAppointments_EmptyBatch_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> appointmentService.bookAppointments(List.of()));
+    }
+
+    @Test
+    void testApplyForCheckup_FullSlot_ShouldReturnWaitlistedStatus() {
+        when(slotCapacityService.tryReserve(any())).thenReturn(false);
+        when(appointmentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AppointmentCheckupResponse result = appointmentService.bookAppointment(getValidRequest());
+
+        assertEquals("Waitlisted", result.getStatus());
+        assertEquals("Selected slot is full", result.getRemark());
+        verify(slotCapacityService, never()).release(any());
+    }
+
+    @Test
+    void testApplyForCheckup_SaveFails_ShouldReleaseSlot() {
+        when(appointmentRepository.save(any())).thenThrow(new RuntimeException("database down"));
+
+        assertThrows(RuntimeException.class, () -> appointmentService.bookAppointment(getValidRequest()));
+
+        verify(slotCapacityService).release(any());
+    }
 }
@@ -0,0 +1,72 @@
+package com.Diagnostic;
+
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.exception.AppointmentNotFoundException;
+import com.Diagnostic.metrics.AppointmentServiceMetrics;
+import com.Diagnostic.service.AppointmentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class AppointmentServiceMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AppointmentService target;
+    private AppointmentService proxy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AppointmentServiceMetrics metrics = new AppointmentServiceMetrics();
+        ReflectionTestUtils.setField(metrics, "meterRegistry", meterRegistry);
+
+        target = Mockito.mock(AppointmentService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(AppointmentService.class);
+        factory.addAspect(metrics);
+        proxy = factory.getProxy();
+    }
+
+    private long count(String method, String outcome) {
+        var timer = meterRegistry.find(AppointmentServiceMetrics.TIMER_NAME)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test
+    void testBooking_ShouldBeTaggedWithResultingStatus() {
+        AppointmentCheckupResponse confirmed = new AppointmentCheckupResponse();
+        confirmed.setStatus("Confirmed");
+        AppointmentCheckupResponse pending = new AppointmentCheckupResponse();
+        pending.setStatus("Pending");
+        when(target.bookAppointment(any())).thenReturn(confirmed, confirmed, pending);
+
+        proxy.bookAppointment(null);
+        proxy.bookAppointment(null);
+        proxy.bookAppointment(null);
+
+        assertEquals(2, count("bookAppointment", "confirmed"));
+        assertEquals(1, count("bookAppointment", "pending"));
+    }
+
+    @Test
+    void testFailures_ShouldBeTaggedNotFoundOrError() {
+        when(target.getAppointmentById("missing")).thenThrow(new AppointmentNotFoundException("missing"));
+        when(target.getAppointmentById("broken")).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(AppointmentNotFoundException.class, () -> proxy.getAppointmentById("missing"));
+        assertThrows(IllegalStateException.class, () -> proxy.getAppointmentById("broken"));
+
+        assertEquals(1, count("getAppointmentById", "not-found"));
+        assertEquals(1, count("getAppointmentById", "error"));
+    }
+}
@@ -0,0 +1,143 @@
+package com.Diagnostic;
+
+import com.Diagnostic.booking.AsyncBookingPipeline;
+import com.Diagnostic.booking.BookingWriteAheadLog;
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.entity.Appointment;
+import com.Diagnostic.repository.AppointmentRepository;
+import com.Diagnostic.service.AppointmentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "appointment.booking.async=true",
+        "spring.datasource.url=jdbc:h2:mem:async-booking;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+})
+class AsyncBookingPipelineTest {
+
+    @TempDir
+    static Path walDirectory;
+
+    private static final String REPLAYED_ID = UUID.randomUUID().toString();
+    private static final String REJECTED_ID = UUID.randomUUID().toString();
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private AsyncBookingPipeline bookingPipeline;
+
+    @DynamicPropertySource
+    static void bookingLog(DynamicPropertyRegistry registry) throws IOException {
+        // A booking acknowledged by a previous run that never reached the database
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentId(REPLAYED_ID);
+        appointment.setPatientName("Replayed");
+        appointment.setGender("Male");
+        appointment.setMobile("1234567890");
+        appointment.setEmail("replayed@example.com");
+        appointment.setCheckupType("X-Ray");
+        appointment.setAppointmentDate(LocalDate.now().plusDays(1));
+        appointment.setAppointmentTime(LocalTime.of(11, 0));
+        appointment.setStatus("Confirmed");
+        // One the database will never take (the name does not fit the column); it must not hold up the start
+        Appointment rejected = new Appointment();
+        rejected.setAppointmentId(REJECTED_ID);
+        rejected.setPatientName("R".repeat(300));
+        rejected.setCheckupType("X-Ray");
+        rejected.setAppointmentDate(LocalDate.now().plusDays(1));
+        rejected.setAppointmentTime(LocalTime.of(11, 0));
+        rejected.setStatus("Confirmed");
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        try (BookingWriteAheadLog log = new BookingWriteAheadLog(walDirectory, 1024 * 1024, objectMapper)) {
+            log.append(List.of(appointment, rejected));
+        }
+        registry.add("appointment.booking.wal-directory", walDirectory::toString);
+    }
+
+    private AppointmentCheckupRequest request(int i) {
+        AppointmentCheckupRequest request = new AppointmentCheckupRequest();
+        request.setPatientName("Patient " + i);
+        request.setAge(30);
+        request.setGender("Female");
+        request.setMobile("9876543210");
+        request.setEmail("patient" + i + "@example.com");
+        request.setCheckupType("Blood Test");
+        request.setPreferredDate(LocalDate.now().plusDays(2));
+        request.setPreferredTime(LocalTime.of(8 + i % 8, 0));
+        return request;
+    }
+
+    private void awaitStored(List<String> appointmentIds) throws InterruptedException {
+        for (int i = 0; i < 100 && (bookingPipeline.backlog() > 0
+                || appointmentRepository.findExistingAppointmentIds(appointmentIds).size() < appointmentIds.size()); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(appointmentIds.size(), appointmentRepository.findExistingAppointmentIds(appointmentIds).size());
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(walDirectory)) {
+            return files.filter(path -> path.toString().endsWith(".wal")).count();
+        }
+    }
+
+    @Test
+    void testStartup_ShouldReplayLoggedBookingsAndDeleteTheirSegment() throws IOException {
+        assertTrue(appointmentRepository.findByAppointmentId(REPLAYED_ID).isPresent());
+        assertEquals(1, segmentFiles());
+    }
+
+    @Test
+    void testStartup_ShouldSetAsideLoggedBookingTheDatabaseRejects() throws IOException {
+        assertFalse(appointmentRepository.findByAppointmentId(REJECTED_ID).isPresent());
+        String setAside = Files.readString(walDirectory.resolve(BookingWriteAheadLog.SET_ASIDE_FILE));
+        assertTrue(setAside.contains(REJECTED_ID));
+        assertFalse(setAside.contains(REPLAYED_ID));
+    }
+
+    @Test
+    void testConcurrentBookings_ShouldBeAcknowledgedThenStored() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<AppointmentCheckupResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> appointmentService.bookAppointment(request(index))));
+        }
+        List<String> appointmentIds = new ArrayList<>();
+        for (Future<AppointmentCheckupResponse> future : futures) {
+            appointmentIds.add(future.get().getAppointmentId());
+        }
+        executor.shutdown();
+
+        awaitStored(appointmentIds);
+        assertEquals(0, bookingPipeline.backlog());
+        // Acknowledged bookings are readable straight away through the appointment cache
+        assertEquals("Confirmed", appointmentService.getAppointmentById(appointmentIds.get(0)).getStatus());
+    }
+}
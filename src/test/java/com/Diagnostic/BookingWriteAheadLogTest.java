@@ -0,0 +1,96 @@
+package com.Diagnostic;
+
+import com.Diagnostic.booking.BookingWriteAheadLog;
+import com.Diagnostic.booking.LoggedBooking;
+import com.Diagnostic.entity.Appointment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingWriteAheadLogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path directory;
+
+    private Appointment appointment(String appointmentId) {
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentId(appointmentId);
+        appointment.setPatientName("Patient " + appointmentId);
+        appointment.setAge(40);
+        appointment.setGender("Female");
+        appointment.setMobile("9876543210");
+        appointment.setEmail("patient@example.com");
+        appointment.setCheckupType("Blood Test");
+        appointment.setAppointmentDate(LocalDate.now().plusDays(1));
+        appointment.setAppointmentTime(LocalTime.of(9, 30));
+        appointment.setStatus("Confirmed");
+        return appointment;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    void testReplay_ShouldReturnLoggedBookingsInOrderAndIgnoreTornTail() throws IOException {
+        try (BookingWriteAheadLog log = new BookingWriteAheadLog(directory, 1024 * 1024, objectMapper)) {
+            log.append(List.of(appointment("a1"), appointment("a2")));
+            log.append(List.of(appointment("a3")));
+        }
+        // A crash in the middle of the next write leaves half a record behind
+        Files.write(segmentFiles().get(0), new byte[]{0, 0, 1, 0, 42}, StandardOpenOption.APPEND);
+
+        try (BookingWriteAheadLog log = new BookingWriteAheadLog(directory, 1024 * 1024, objectMapper)) {
+            List<LoggedBooking> replayed = log.replay();
+
+            assertEquals(List.of("a1", "a2", "a3"),
+                    replayed.stream().map(booking -> booking.appointment().getAppointmentId()).toList());
+            assertEquals(LocalTime.of(9, 30), replayed.get(0).appointment().getAppointmentTime());
+        }
+    }
+
+    @Test
+    void testDrained_ShouldDeleteSegmentOnceEveryBookingIsStored() throws IOException {
+        try (BookingWriteAheadLog log = new BookingWriteAheadLog(directory, 1024 * 1024, objectMapper)) {
+            log.append(List.of(appointment("a1"), appointment("a2")));
+        }
+
+        try (BookingWriteAheadLog log = new BookingWriteAheadLog(directory, 1024 * 1024, objectMapper)) {
+            List<LoggedBooking> replayed = log.replay();
+            assertEquals(2, segmentFiles().size());
+
+            log.drained(replayed.get(0).segment(), 1);
+            assertEquals(2, segmentFiles().size());
+            log.drained(replayed.get(1).segment(), 1);
+            assertEquals(1, segmentFiles().size());
+        }
+    }
+
+    @Test
+    void testAppend_PastSegmentSize_ShouldRollToNewSegment() throws IOException {
+        try (BookingWriteAheadLog log = new BookingWriteAheadLog(directory, 1, objectMapper)) {
+            long first = log.append(List.of(appointment("a1")));
+            long second = log.append(List.of(appointment("a2")));
+
+            assertNotEquals(first, second);
+            log.drained(first, 1);
+            assertEquals(1, segmentFiles().size());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.Diagnostic;
+
+import com.Diagnostic.importer.CsvRecordReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+
+    @TempDir
+    Path directory;
+
+    private Path write(byte[] content) throws IOException {
+        return Files.write(directory.resolve("input.csv"), content);
+    }
+
+    @Test
+    void testNext_ShouldHandleQuotesLineBreaksAndByteOrderMark() throws IOException {
+        String csv = "\uFEFFname,remark\r\n"
+                + "\"Doe, John\",\"said \"\"hi\"\"\"\r\n"
+                + "\n"
+                + "Zoë,\"two\nlines\"\n"
+                + "last,";
+        try (CsvRecordReader reader = new CsvRecordReader(write(csv.getBytes(StandardCharsets.UTF_8)))) {
+            assertEquals(List.of("name", "remark"), reader.next());
+            assertEquals(List.of("Doe, John", "said \"hi\""), reader.next());
+            assertEquals(List.of("Zoë", "two\nlines"), reader.next());
+            assertEquals(List.of("last", ""), reader.next());
+            assertNull(reader.next());
+            assertEquals(4, reader.getRecordNumber());
+        }
+    }
+
+    @Test
+    void testSeek_ShouldContinueFromRecordedPosition() throws IOException {
+        StringBuilder csv = new StringBuilder("id,value\n");
+        for (int i = 0; i < 20_000; i++) {
+            csv.append(i).append(",value ").append(i).append('\n');
+        }
+        Path file = write(csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        long offset;
+        long recordNumber;
+        try (CsvRecordReader reader = new CsvRecordReader(file)) {
+            for (int i = 0; i < 12_346; i++) {
+                reader.next();
+            }
+            offset = reader.position();
+            recordNumber = reader.getRecordNumber();
+        }
+
+        try (CsvRecordReader reader = new CsvRecordReader(file)) {
+            reader.seek(offset, recordNumber);
+            assertEquals(List.of("12345", "value 12345"), reader.next());
+            assertEquals(12_347, reader.getRecordNumber());
+        }
+    }
+
+    @Test
+    void testNext_UnterminatedQuote_ShouldThrow() throws IOException {
+        try (CsvRecordReader reader = new CsvRecordReader(write("a,\"open\n".getBytes(StandardCharsets.UTF_8)))) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+}
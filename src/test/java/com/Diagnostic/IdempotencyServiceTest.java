@@ -0,0 +1,276 @@
+package com.Diagnostic;
+
+import com.Diagnostic.Response.CustomResponseModel;
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.entity.IdempotencyRecord;
+import com.Diagnostic.exception.IdempotencyKeyInProgressException;
+import com.Diagnostic.exception.IdempotencyKeyMismatchException;
+import com.Diagnostic.repository.IdempotencyRecordRepository;
+import com.Diagnostic.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class IdempotencyServiceTest {
+
+    private static final String CLIENT = "client:a";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    // The IdempotencyRecord table, shared by every service created in a test as if they were separate nodes
+    private final ConcurrentMap<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+    private IdempotencyRecordRepository repository;
+    private IdempotencyService idempotencyService;
+    private final AtomicInteger bookings = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(IdempotencyRecordRepository.class);
+        when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+            IdempotencyRecord record = invocation.getArgument(0);
+            if (records.putIfAbsent(record.getIdempotencyKey(), record) != null) {
+                throw new DataIntegrityViolationException("Duplicate key " + record.getIdempotencyKey());
+            }
+            return record;
+        });
+        when(repository.findById(anyString())).thenAnswer(invocation ->
+                Optional.ofNullable(records.get(invocation.<String>getArgument(0))));
+        when(repository.complete(anyString(), anyInt(), anyString())).thenAnswer(invocation -> {
+            IdempotencyRecord record = records.get(invocation.<String>getArgument(0));
+            if (record == null || record.isCompleted()) {
+                return 0;
+            }
+            record.setResponseBody(invocation.getArgument(2));
+            record.setStatusCode(invocation.getArgument(1));
+            return 1;
+        });
+        when(repository.deletePending(anyString())).thenAnswer(invocation ->
+                records.computeIfPresent(invocation.getArgument(0),
+                        (key, record) -> record.isCompleted() ? record : null) == null ? 1 : 0);
+        when(repository.deleteStale(anyString(), any(Instant.class), any(Instant.class))).thenAnswer(invocation -> {
+            Instant expiredBefore = invocation.getArgument(1);
+            Instant abandonedBefore = invocation.getArgument(2);
+            return records.computeIfPresent(invocation.getArgument(0), (key, record) ->
+                    record.getCreatedAt().isBefore(expiredBefore)
+                            || !record.isCompleted() && record.getCreatedAt().isBefore(abandonedBefore)
+                            ? null : record) == null ? 1 : 0;
+        });
+        idempotencyService = newService();
+    }
+
+    private IdempotencyService newService() {
+        return newService(Duration.ofSeconds(10));
+    }
+
+    private IdempotencyService newService(Duration waitTimeout) {
+        IdempotencyService service = new IdempotencyService(Duration.ofHours(1), 1000, Duration.ofMinutes(1), waitTimeout);
+        ReflectionTestUtils.setField(service, "idempotencyRecordRepository", repository);
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+        return service;
+    }
+
+    private AppointmentCheckupRequest request(String patientName) {
+        AppointmentCheckupRequest request = new AppointmentCheckupRequest();
+        request.setPatientName(patientName);
+        request.setCheckupType("Blood Test");
+        request.setPreferredDate(LocalDate.now().plusDays(1));
+        request.setPreferredTime(LocalTime.of(9, 0));
+        return request;
+    }
+
+    private ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>> book() {
+        AppointmentCheckupResponse response = new AppointmentCheckupResponse();
+        response.setAppointmentId("booking-" + bookings.incrementAndGet());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(new CustomResponseModel<>(true, "Appointment booked successfully", response));
+    }
+
+    private ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>> bookAfter(CountDownLatch release) {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return book();
+    }
+
+    @Test
+    void testRetry_ShouldReplayFirstResponseWithoutBookingAgain() {
+        AppointmentCheckupRequest request = request("Alice");
+
+        var first = idempotencyService.execute(CLIENT, "key-1", request, this::book);
+        var retry = idempotencyService.execute(CLIENT, "key-1", request, this::book);
+
+        assertEquals(1, bookings.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(first.getBody().getData().getAppointmentId(), retry.getBody().getData().getAppointmentId());
+        verify(repository).saveAndFlush(any(IdempotencyRecord.class));
+        verify(repository).complete(anyString(), eq(201), anyString());
+    }
+
+    @Test
+    void testConcurrentRequests_ShouldCoalesceOntoOneBooking() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AppointmentCheckupRequest request = request("Alice");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<ResponseEntity<CustomResponseModel<AppointmentCheckupResponse>>>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> idempotencyService.execute(CLIENT, "key-2", request,
+                    () -> bookAfter(release))));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        for (var future : futures) {
+            assertEquals("booking-1", future.get().getBody().getData().getAppointmentId());
+        }
+        executor.shutdown();
+        assertEquals(1, bookings.get());
+    }
+
+    @Test
+    void testConcurrentRequestsOnTwoNodes_ShouldBookOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AppointmentCheckupRequest request = request("Alice");
+        IdempotencyService otherNode = newService();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        var first = executor.submit(() -> idempotencyService.execute(CLIENT, "key-7", request, () -> bookAfter(release)));
+        Thread.sleep(100);
+        var second = executor.submit(() -> otherNode.execute(CLIENT, "key-7", request, () -> bookAfter(release)));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("booking-1", first.get().getBody().getData().getAppointmentId());
+        assertEquals("booking-1", second.get().getBody().getData().getAppointmentId());
+        assertEquals("true", second.get().getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        executor.shutdown();
+        assertEquals(1, bookings.get());
+    }
+
+    @Test
+    void testSameKeyFromDifferentClients_ShouldBookForEach() {
+        AppointmentCheckupRequest request = request("Alice");
+
+        var first = idempotencyService.execute("client:a", "key-8", request, this::book);
+        var second = idempotencyService.execute("client:b", "key-8", request, this::book);
+
+        assertEquals(2, bookings.get());
+        assertNotEquals(first.getBody().getData().getAppointmentId(), second.getBody().getData().getAppointmentId());
+        assertNull(second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void testFirstRequestStillRunning_ShouldGiveUpAfterWaitTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AppointmentCheckupRequest request = request("Alice");
+        IdempotencyService impatient = newService(Duration.ofMillis(200));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        var first = executor.submit(() -> impatient.execute(CLIENT, "key-9", request, () -> bookAfter(release)));
+        Thread.sleep(100);
+
+        // On the same node and on another one
+        assertThrows(IdempotencyKeyInProgressException.class,
+                () -> impatient.execute(CLIENT, "key-9", request, this::book));
+        assertThrows(IdempotencyKeyInProgressException.class,
+                () -> newService(Duration.ofMillis(200)).execute(CLIENT, "key-9", request, this::book));
+
+        release.countDown();
+        assertEquals("booking-1", first.get().getBody().getData().getAppointmentId());
+        executor.shutdown();
+        assertEquals(1, bookings.get());
+    }
+
+    @Test
+    void testAbandonedClaim_ShouldBeTakenOverAfterLease() {
+        AppointmentCheckupRequest request = request("Alice");
+        idempotencyService.execute(CLIENT, "key-10", request, this::book);
+        // As if the node that claimed the key died before completing it
+        IdempotencyRecord claim = records.values().iterator().next();
+        claim.setStatusCode(IdempotencyRecord.PENDING);
+        claim.setCreatedAt(Instant.now().minus(Duration.ofMinutes(5)));
+
+        var retry = newService().execute(CLIENT, "key-10", request, this::book);
+
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(2, bookings.get());
+    }
+
+    @Test
+    void testAfterRestart_ShouldReplayFromDatabase() {
+        AppointmentCheckupRequest request = request("Alice");
+        idempotencyService.execute(CLIENT, "key-3", request, this::book);
+
+        var replayed = newService().execute(CLIENT, "key-3", request, this::book);
+
+        assertEquals(1, bookings.get());
+        assertEquals("booking-1", replayed.getBody().getData().getAppointmentId());
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequest_ShouldBeRejected() {
+        idempotencyService.execute(CLIENT, "key-4", request("Alice"), this::book);
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> idempotencyService.execute(CLIENT, "key-4", request("Bob"), this::book));
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> newService().execute(CLIENT, "key-4", request("Bob"), this::book));
+        assertEquals(1, bookings.get());
+    }
+
+    @Test
+    void testServerError_ShouldNotBeRemembered() {
+        AppointmentCheckupRequest request = request("Alice");
+        idempotencyService.execute(CLIENT, "key-5", request,
+                () -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new CustomResponseModel<>(false, "down", null)));
+        assertTrue(records.isEmpty());
+
+        var retry = idempotencyService.execute(CLIENT, "key-5", request, this::book);
+
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(1, bookings.get());
+    }
+
+    @Test
+    void testExpiredRecord_ShouldBeIgnored() {
+        AppointmentCheckupRequest request = request("Alice");
+        idempotencyService.execute(CLIENT, "key-6", request, this::book);
+        records.values().iterator().next().setCreatedAt(Instant.now().minus(Duration.ofDays(2)));
+
+        newService().execute(CLIENT, "key-6", request, this::book);
+
+        assertEquals(2, bookings.get());
+    }
+}
@@ -0,0 +1,102 @@
+package com.Diagnostic;
+
+import com.Diagnostic.metrics.PinnedThreadMonitor;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedMethod;
+import jdk.jfr.consumer.RecordedStackTrace;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(OutputCaptureExtension.class)
+class PinnedThreadMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PinnedThreadMonitor monitor = new PinnedThreadMonitor(meterRegistry, Duration.ofMillis(20));
+
+    private static RecordedFrame frame(String type, String method, int line) {
+        RecordedClass recordedClass = mock(RecordedClass.class);
+        when(recordedClass.getName()).thenReturn(type);
+        RecordedMethod recordedMethod = mock(RecordedMethod.class);
+        when(recordedMethod.getType()).thenReturn(recordedClass);
+        when(recordedMethod.getName()).thenReturn(method);
+        RecordedFrame frame = mock(RecordedFrame.class);
+        when(frame.getMethod()).thenReturn(recordedMethod);
+        when(frame.getLineNumber()).thenReturn(line);
+        return frame;
+    }
+
+    private static RecordedEvent event(Duration duration, List<RecordedFrame> frames) {
+        RecordedEvent event = mock(RecordedEvent.class);
+        when(event.getDuration()).thenReturn(duration);
+        if (frames != null) {
+            RecordedStackTrace stackTrace = mock(RecordedStackTrace.class);
+            when(stackTrace.getFrames()).thenReturn(frames);
+            when(event.getStackTrace()).thenReturn(stackTrace);
+        }
+        return event;
+    }
+
+    private Timer pinned() {
+        return meterRegistry.get("appointment.threads.pinned").timer();
+    }
+
+    private static long occurrences(String output, String text) {
+        return output.lines().filter(line -> line.contains(text)).count();
+    }
+
+    @Test
+    void testOnPinned_ShouldTimeEveryEventAndLogEachSiteOnce(CapturedOutput output) {
+        List<RecordedFrame> site = List.of(frame("com.Diagnostic.Slow", "read", 42), frame("java.lang.Thread", "run", 1));
+
+        monitor.onPinned(event(Duration.ofMillis(30), site));
+        monitor.onPinned(event(Duration.ofMillis(50), site));
+
+        assertEquals(2, pinned().count());
+        assertEquals(80, pinned().totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, occurrences(output.getOut(), "Virtual thread pinned for"));
+        assertTrue(output.getOut().contains("com.Diagnostic.Slow.read(line 42)"));
+    }
+
+    @Test
+    void testOnPinned_ShouldLogADifferentSiteAgain(CapturedOutput output) {
+        monitor.onPinned(event(Duration.ofMillis(30), List.of(frame("com.Diagnostic.Slow", "read", 42))));
+        monitor.onPinned(event(Duration.ofMillis(30), List.of(frame("com.Diagnostic.Slow", "write", 57))));
+
+        assertEquals(2, occurrences(output.getOut(), "Virtual thread pinned for"));
+    }
+
+    @Test
+    void testOnPinned_ShouldLogOnlyTheTopFrames(CapturedOutput output) {
+        List<RecordedFrame> deep = IntStream.range(0, 20)
+                .mapToObj(i -> frame("com.Diagnostic.Deep", "call" + i, i))
+                .toList();
+
+        monitor.onPinned(event(Duration.ofMillis(30), deep));
+
+        assertTrue(output.getOut().contains("com.Diagnostic.Deep.call11(line 11)"));
+        assertFalse(output.getOut().contains("com.Diagnostic.Deep.call12(line 12)"));
+    }
+
+    @Test
+    void testOnPinned_WithoutStackTrace_ShouldStillBeTimed(CapturedOutput output) {
+        monitor.onPinned(event(Duration.ofMillis(25), null));
+
+        assertEquals(1, pinned().count());
+        assertTrue(output.getOut().contains("(no stack trace)"));
+    }
+}
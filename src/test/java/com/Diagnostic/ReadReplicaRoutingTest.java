@@ -0,0 +1,104 @@
+package com.Diagnostic;
+
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.service.AppointmentExistenceFilter;
+import com.Diagnostic.service.AppointmentService;
+import com.Diagnostic.service.AppointmentServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two embedded databases stand in for the primary and a replica. Nothing replicates between them, so a read
+ * shows which one it went to.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "appointment.datasource.replicas[0].url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "appointment.datasource.replicas[0].username=sa",
+        "appointment.datasource.read-your-writes=1h",
+        "appointment.id-filter.trust-margin=0s"
+})
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private AppointmentExistenceFilter existenceFilter;
+
+    @BeforeEach
+    void copySchemaToReplica() throws SQLException {
+        // Same tables as the primary, no rows
+        List<String> schema = new JdbcTemplate(dataSource).queryForList("SCRIPT NODATA", String.class);
+        try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = replica.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : schema) {
+                if (!sql.startsWith("CREATE USER")) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private AppointmentCheckupRequest request() {
+        AppointmentCheckupRequest request = new AppointmentCheckupRequest();
+        request.setPatientName("Routed");
+        request.setAge(40);
+        request.setGender("Female");
+        request.setMobile("9876543210");
+        request.setEmail("routed@example.com");
+        request.setCheckupType("Blood Test");
+        request.setPreferredDate(LocalDate.now().plusDays(1));
+        request.setPreferredTime(LocalTime.of(10, 0));
+        return request;
+    }
+
+    @Test
+    void testReads_ShouldGoToReplicaExceptForOwnRecentWrites() {
+        AppointmentCheckupResponse booked = appointmentService.bookAppointment(request());
+        cacheManager.getCache(AppointmentServiceImpl.APPOINTMENT_CACHE).clear();
+
+        // Listings read the replica, which has not seen the booking
+        assertTrue(appointmentService.getAllAppointments().stream()
+                .noneMatch(a -> a.getAppointmentId().equals(booked.getAppointmentId())));
+
+        // A lookup of an appointment this node just wrote reads the primary
+        assertEquals("Routed", appointmentService.getAppointmentById(booked.getAppointmentId()).getPatientName());
+    }
+
+    @Test
+    void testExistenceFilterRebuild_ShouldScanThePrimary() throws InterruptedException {
+        AppointmentCheckupResponse booked = appointmentService.bookAppointment(request());
+        // So the booking is older than the rebuild and its ID is answered from the rebuilt filter alone
+        Thread.sleep(5);
+
+        existenceFilter.rebuild();
+
+        assertTrue(existenceFilter.mightExist(booked.getAppointmentId()));
+    }
+}
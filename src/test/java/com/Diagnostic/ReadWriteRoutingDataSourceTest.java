@@ -0,0 +1,87 @@
+package com.Diagnostic;
+
+import com.Diagnostic.datasource.ReadWriteRoutingDataSource;
+import com.Diagnostic.datasource.ReadWriteRoutingDataSource.Replica;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replicaDataSource = mock(DataSource.class);
+    private final Replica replica = new Replica("replica-1", replicaDataSource);
+    private final ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica), 1);
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    @AfterEach
+    void endTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(0));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void testGetConnection_ShouldRouteReadOnlyTransactionsToReplica() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+
+        assertSame(primaryConnection, routing.getConnection());
+        beginTransaction(false);
+        assertSame(primaryConnection, routing.getConnection());
+        endTransaction();
+        beginTransaction(true);
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    void testGetConnection_PrimaryRequired_ShouldUsePrimaryUntilTransactionEnds() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+
+        beginTransaction(true);
+        ReadWriteRoutingDataSource.usePrimaryForCurrentTransaction();
+        assertSame(primaryConnection, routing.getConnection());
+        endTransaction();
+
+        beginTransaction(true);
+        assertSame(replicaConnection, routing.getConnection());
+    }
+
+    @Test
+    void testGetConnection_ReplicaDown_ShouldFallBackUntilHealthCheckPasses() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaDataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+        beginTransaction(true);
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertFalse(replica.isHealthy());
+        assertSame(primaryConnection, routing.getConnection());
+        verify(replicaDataSource, times(1)).getConnection();
+
+        reset(replicaDataSource);
+        when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.isValid(anyInt())).thenReturn(true);
+        routing.checkReplicas();
+
+        assertTrue(replica.isHealthy());
+        assertSame(replicaConnection, routing.getConnection());
+    }
+}
@@ -0,0 +1,109 @@
+package com.Diagnostic;
+
+import org.hibernate.tool.schema.spi.SchemaManagementException;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Upgrades a database created by the original application (the V1 baseline) with the later migration scripts,
+ * as {@code mvn flyway:migrate} does for an existing database.
+ */
+class SchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:migration;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    /**
+     * The migration scripts in version order.
+     */
+    static List<Resource> migrationScripts() throws IOException {
+        return Arrays.stream(new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*__*.sql"))
+                .sorted(Comparator.comparingInt(SchemaMigrationTest::versionOf))
+                .toList();
+    }
+
+    /**
+     * Runs the scripts against an H2 database in MySQL mode, which lacks MySQL's UNHEX.
+     */
+    static void migrate(DataSource dataSource, List<Resource> scripts) {
+        new JdbcTemplate(dataSource).execute("create alias if not exists unhex as "
+                + "'byte[] unhex(String hex) { return hex == null ? null : java.util.HexFormat.of().parseHex(hex); }'");
+        new ResourceDatabasePopulator(scripts.toArray(new Resource[0])).execute(dataSource);
+    }
+
+    private static int versionOf(Resource script) {
+        String name = script.getFilename();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+
+    @Test
+    void testUpgradeFromBaseline_ShouldKeepExistingAppointments() throws IOException {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Resource> scripts = migrationScripts();
+        assertEquals(1, versionOf(scripts.get(0)));
+        migrate(dataSource, scripts.subList(0, 1));
+        // Rows the original application stored: IDENTITY ids and text UUIDs
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        jdbcTemplate.update("insert into appointment_table (age, patient_name, status, appointment_id) values (?, ?, ?, ?)",
+                30, "Ann", "Confirmed", first.toString());
+        jdbcTemplate.update("insert into appointment_table (age, patient_name, status, appointment_id) values (?, ?, ?, ?)",
+                40, "Bob", "Cancelled", second.toString());
+        long maxId = jdbcTemplate.queryForObject("select max(id) from appointment_table", Long.class);
+
+        migrate(dataSource, scripts.subList(1, scripts.size()));
+
+        byte[] stored = jdbcTemplate.queryForObject(
+                "select appointment_id from appointment_table where patient_name = 'Ann'", byte[].class);
+        assertArrayEquals(ByteBuffer.allocate(16).putLong(first.getMostSignificantBits())
+                .putLong(first.getLeastSignificantBits()).array(), stored);
+        assertEquals(0L, jdbcTemplate.queryForObject(
+                "select version from appointment_table where patient_name = 'Bob'", Long.class));
+        // The first id the pooled optimizer hands out follows the existing ones
+        long nextVal = jdbcTemplate.queryForObject("select next_val from appointment_seq", Long.class);
+        assertEquals(maxId + 1, nextVal - 50 + 1);
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from idempotency_record", Integer.class));
+        assertThrows(Exception.class, () -> jdbcTemplate.update(
+                "insert into appointment_table (age, id, version, appointment_id) values (1, ?, 0, ?)", maxId + 100, stored));
+    }
+
+    @Test
+    void testStartup_OnUnmigratedSchema_ShouldFail() throws IOException {
+        // The default profile, not just prod, must leave the schema to the migrations
+        Properties defaults = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        String ddlAuto = defaults.getProperty("spring.jpa.hibernate.ddl-auto");
+        assertEquals("validate", ddlAuto);
+
+        String url = "jdbc:h2:mem:unmigrated;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        migrate(new DriverManagerDataSource(url, "sa", ""), migrationScripts().subList(0, 1));
+
+        Exception failure = assertThrows(Exception.class, () -> new SpringApplicationBuilder(DiagnosticApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + url,
+                        // The test overlay creates the schema; use the default profile's setting instead
+                        "--spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+                        "--appointment.booking.wal-directory=target/unmigrated-test-wal").close());
+        assertInstanceOf(SchemaManagementException.class, NestedExceptionUtils.getMostSpecificCause(failure),
+                failure.toString());
+    }
+}
@@ -0,0 +1,78 @@
+package com.Diagnostic;
+
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.repository.AppointmentRepository;
+import com.Diagnostic.service.AppointmentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "appointment.slot.default-capacity=5")
+class SlotCapacityConcurrencyTest {
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    private AppointmentCheckupRequest request(int patient) {
+        AppointmentCheckupRequest request = new AppointmentCheckupRequest();
+        request.setPatientName("Patient " + patient);
+        request.setAge(30);
+        request.setGender("Male");
+        request.setMobile("1234567890");
+        request.setEmail("patient" + patient + "@example.com");
+        request.setCheckupType("Ultrasound");
+        request.setPreferredDate(LocalDate.now().plusDays(4));
+        request.setPreferredTime(LocalTime.of(15, 0));
+        return request;
+    }
+
+    @Test
+    void testBookAppointment_ConcurrentBookingsForOneSlot_ShouldNotOverbook() throws Exception {
+        int patients = 60;
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AppointmentCheckupResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < patients; i++) {
+            int patient = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                return appointmentService.bookAppointment(request(patient));
+            }));
+        }
+        start.countDown();
+
+        int confirmed = 0;
+        int waitlisted = 0;
+        for (Future<AppointmentCheckupResponse> future : futures) {
+            String status = future.get().getStatus();
+            if ("Confirmed".equals(status)) {
+                confirmed++;
+            } else if ("Waitlisted".equals(status)) {
+                waitlisted++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(5, confirmed);
+        assertEquals(patients - 5, waitlisted);
+        long confirmedRows = appointmentRepository.findAll().stream()
+                .filter(a -> "Ultrasound".equals(a.getCheckupType()) && "Confirmed".equals(a.getStatus()))
+                .count();
+        assertEquals(5, confirmedRows);
+    }
+}
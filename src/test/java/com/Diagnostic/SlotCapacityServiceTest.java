@@ -0,0 +1,108 @@
+package com.Diagnostic;
+
+import com.Diagnostic.repository.AppointmentRepository;
+import com.Diagnostic.repository.SlotUsage;
+import com.Diagnostic.service.SlotCapacityProperties;
+import com.Diagnostic.service.SlotCapacityService;
+import com.Diagnostic.service.SlotCapacityService.SlotKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class SlotCapacityServiceTest {
+
+    @InjectMocks
+    private SlotCapacityService slotCapacityService;
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    @Spy
+    private SlotCapacityProperties properties = new SlotCapacityProperties();
+
+    private final LocalDate date = LocalDate.now().plusDays(3);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties.setDefaultCapacity(5);
+    }
+
+    @Test
+    void testSlotOf_TimesInSameSlot_ShouldShareKeyAcrossCase() {
+        SlotKey first = slotCapacityService.slotOf("Blood Test", date, LocalTime.of(9, 0));
+        SlotKey second = slotCapacityService.slotOf("blood test ", date, LocalTime.of(9, 29));
+        SlotKey next = slotCapacityService.slotOf("Blood Test", date, LocalTime.of(9, 30));
+
+        assertEquals(first, second);
+        assertNotEquals(first, next);
+    }
+
+    @Test
+    void testWarmUp_ShouldCountExistingConfirmedAppointments() {
+        SlotUsage usage = Mockito.mock(SlotUsage.class);
+        when(usage.getCheckupType()).thenReturn("X-Ray");
+        when(usage.getAppointmentDate()).thenReturn(date);
+        when(usage.getAppointmentTime()).thenReturn(LocalTime.of(11, 15));
+        when(usage.getBooked()).thenReturn(4L);
+        when(appointmentRepository.countConfirmedBySlot(any())).thenReturn(List.of(usage));
+
+        slotCapacityService.warmUp();
+
+        SlotKey key = slotCapacityService.slotOf("X-Ray", date, LocalTime.of(11, 0));
+        assertEquals(4, slotCapacityService.confirmedCount(key));
+        assertTrue(slotCapacityService.tryReserve(key));
+        assertFalse(slotCapacityService.tryReserve(key));
+    }
+
+    @Test
+    void testTryReserve_ConcurrentBookings_ShouldNeverExceedCapacity() throws Exception {
+        properties.getCapacity().put("MRI", 7);
+        SlotKey key = slotCapacityService.slotOf("MRI", date, LocalTime.of(14, 0));
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger held = new AtomicInteger();
+        AtomicInteger maxHeld = new AtomicInteger();
+
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 2_000; i++) {
+                    if (slotCapacityService.tryReserve(key)) {
+                        reserved.incrementAndGet();
+                        maxHeld.accumulateAndGet(held.incrementAndGet(), Math::max);
+                        // Give half of the places back so reservations keep racing with releases
+                        if (i % 2 == 0) {
+                            held.decrementAndGet();
+                            slotCapacityService.release(key);
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertTrue(reserved.get() >= 7);
+        assertTrue(maxHeld.get() <= 7, "held " + maxHeld.get() + " places in a slot of 7");
+        assertEquals(7, slotCapacityService.confirmedCount(key));
+        assertEquals(held.get(), slotCapacityService.confirmedCount(key));
+    }
+}
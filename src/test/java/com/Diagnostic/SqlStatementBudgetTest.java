@@ -0,0 +1,205 @@
+package com.Diagnostic;
+
+import com.Diagnostic.dto.AppointmentCheckupRequest;
+import com.Diagnostic.dto.AppointmentCheckupResponse;
+import com.Diagnostic.service.AppointmentService;
+import com.Diagnostic.service.AppointmentServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statements and database round trips per AppointmentController endpoint, against the embedded database in
+ * MySQL mode. Each endpoint has a budget; a change that makes an endpoint issue more queries fails the build and
+ * has to raise the budget here on purpose.
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:statement-budget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class SqlStatementBudgetTest {
+
+    private static final SqlStatementCounter counter = new SqlStatementCounter();
+
+    @TestConfiguration
+    static class CountingDataSource {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && "dataSource".equals(beanName)
+                            ? counter.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private record Budget(int statements, int roundTrips) {
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String appointmentId;
+
+    @BeforeEach
+    void bookAppointment() {
+        AppointmentCheckupResponse booked = appointmentService.bookAppointment(request(0));
+        appointmentId = booked.getAppointmentId();
+        cacheManager.getCache(AppointmentServiceImpl.APPOINTMENT_CACHE).clear();
+    }
+
+    private static AppointmentCheckupRequest request(int patient) {
+        AppointmentCheckupRequest request = new AppointmentCheckupRequest();
+        request.setPatientName("Patient " + patient);
+        request.setAge(30);
+        request.setGender("Female");
+        request.setMobile("9876543210");
+        request.setEmail("patient" + patient + "@example.com");
+        request.setCheckupType("Blood Test");
+        request.setPreferredDate(LocalDate.now().plusDays(3));
+        request.setPreferredTime(LocalTime.of(8, 0).plusMinutes(patient));
+        return request;
+    }
+
+    private String json(Object body) throws Exception {
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private MvcResult assertWithinBudget(String endpoint, Budget budget, RequestBuilder request, ResultMatcher expectedStatus)
+            throws Exception {
+        counter.reset();
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        expectedStatus.match(result);
+        int statements = counter.getStatements();
+        int roundTrips = counter.getRoundTrips();
+        if (statements > budget.statements() || roundTrips > budget.roundTrips()) {
+            fail(endpoint + " issued " + statements + " statements in " + roundTrips + " round trips, budget is "
+                    + budget.statements() + " in " + budget.roundTrips() + ":\n  " + String.join("\n  ", counter.getLog()));
+        }
+        return result;
+    }
+
+    @Test
+    void testBook() throws Exception {
+        // One insert, plus at most one sequence call when the pooled IDs run out
+        assertWithinBudget("POST /appointment", new Budget(2, 2),
+                post("/appointment").contentType(MediaType.APPLICATION_JSON).content(json(request(1))),
+                status().isCreated());
+    }
+
+    @Test
+    void testBatchBook() throws Exception {
+        List<AppointmentCheckupRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            requests.add(request(10 + i));
+        }
+        // One JDBC batch, plus at most one sequence call when the pooled IDs run out
+        assertWithinBudget("POST /appointment/batch (20)", new Budget(21, 2),
+                post("/appointment/batch").contentType(MediaType.APPLICATION_JSON).content(json(requests)),
+                status().isCreated());
+    }
+
+    @Test
+    void testGetById() throws Exception {
+        assertWithinBudget("GET /appointment/{id} (not cached)", new Budget(1, 1),
+                get("/appointment/" + appointmentId), status().isOk());
+        assertWithinBudget("GET /appointment/{id} (cached)", new Budget(0, 0),
+                get("/appointment/" + appointmentId), status().isOk());
+        assertWithinBudget("GET /appointment/{id} (unknown)", new Budget(0, 0),
+                get("/appointment/" + UUID.randomUUID()), status().isNotFound());
+    }
+
+    @Test
+    void testCancel() throws Exception {
+        assertWithinBudget("DELETE /appointment/{id}", new Budget(2, 2),
+                delete("/appointment/" + appointmentId), status().isOk());
+    }
+
+    @Test
+    void testUpdate() throws Exception {
+        AppointmentCheckupRequest update = request(0);
+        update.setPatientName("Updated");
+        assertWithinBudget("PUT /appointment/{id}", new Budget(2, 2),
+                put("/appointment/" + appointmentId).contentType(MediaType.APPLICATION_JSON).content(json(update)),
+                status().isOk());
+    }
+
+    @Test
+    void testPatch() throws Exception {
+        assertWithinBudget("PATCH /appointment/{id}", new Budget(2, 2),
+                patch("/appointment/" + appointmentId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"patientName\":\"Patched\"}"),
+                status().isOk());
+    }
+
+    @Test
+    void testBulkCancel() throws Exception {
+        String second = appointmentService.bookAppointment(request(2)).getAppointmentId();
+        assertWithinBudget("POST /appointment/bulk-cancel (2 ids)", new Budget(2, 2),
+                post("/appointment/bulk-cancel").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("appointmentIds", List.of(appointmentId, second)))),
+                status().isOk());
+    }
+
+    @Test
+    void testListPage() throws Exception {
+        MvcResult page = assertWithinBudget("GET /appointment", new Budget(1, 1),
+                get("/appointment").param("limit", "20"), status().isOk());
+        String etag = page.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        assertWithinBudget("GET /appointment (If-None-Match)", new Budget(1, 1),
+                get("/appointment").param("limit", "20").header(HttpHeaders.IF_NONE_MATCH, etag),
+                status().isNotModified());
+    }
+
+    @Test
+    void testExport() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            appointmentService.bookAppointment(request(40 + i));
+        }
+        // A single streamed query, however many rows there are
+        assertWithinBudget("GET /appointment/export", new Budget(1, 1),
+                get("/appointment/export"), status().isOk());
+    }
+}
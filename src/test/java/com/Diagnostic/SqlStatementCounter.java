@@ -0,0 +1,101 @@
+package com.Diagnostic;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps a DataSource so every SQL statement sent through it is counted. A round trip is one
+ * {@code execute*} call; a JDBC batch is one round trip carrying as many statements as were added to it.
+ */
+class SqlStatementCounter {
+
+    private int statements;
+    private int roundTrips;
+    private final List<String> log = new ArrayList<>();
+
+    synchronized void reset() {
+        statements = 0;
+        roundTrips = 0;
+        log.clear();
+    }
+
+    synchronized int getStatements() {
+        return statements;
+    }
+
+    synchronized int getRoundTrips() {
+        return roundTrips;
+    }
+
+    synchronized List<String> getLog() {
+        return List.copyOf(log);
+    }
+
+    private synchronized void executed(String sql, int count) {
+        statements += count;
+        roundTrips++;
+        log.add(count == 1 ? sql : sql + " [batch of " + count + "]");
+    }
+
+    DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? wrap(connection) : result;
+        });
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement / prepareCall carry their SQL as the first argument
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                return wrap(statement, sql, method.getReturnType());
+            }
+            return result;
+        });
+    }
+
+    private Statement wrap(Statement statement, String preparedSql, Class<?> type) {
+        List<String> batch = new ArrayList<>();
+        return (Statement) proxy(type, statement, (target, method, args) -> {
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                batch.add(args != null && args.length == 1 ? (String) args[0] : preparedSql);
+            } else if (name.equals("clearBatch")) {
+                batch.clear();
+            } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                executed(batch.isEmpty() ? String.valueOf(preparedSql) : batch.get(0), batch.size());
+                batch.clear();
+            } else if (name.startsWith("execute")) {
+                executed(args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql, 1);
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return (T) Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[]{type}, invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
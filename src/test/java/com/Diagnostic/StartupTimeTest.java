@@ -0,0 +1,69 @@
+package com.Diagnostic;
+
+import com.Diagnostic.startup.StartupTimingReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application with the prod profile against a schema created by the migration scripts (as the
+ * out-of-band migration would) and checks how long it takes until the first request is answered. The budget can
+ * be raised on slow build machines with {@code -Dstartup.budget=60s}.
+ */
+class StartupTimeTest {
+
+    private static final Duration TIME_TO_FIRST_REQUEST_BUDGET =
+            DurationStyle.detectAndParse(System.getProperty("startup.budget", "30s"));
+    private static final String URL = "jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private ConfigurableApplicationContext context;
+
+    @AfterEach
+    void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void testProdProfileAnswersFirstRequestWithinBudget() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        SchemaMigrationTest.migrate(dataSource, SchemaMigrationTest.migrationScripts());
+
+        long start = System.nanoTime();
+        context = new SpringApplicationBuilder(DiagnosticApplication.class)
+                .profiles("prod")
+                .applicationStartup(new BufferingApplicationStartup(DiagnosticApplication.STARTUP_STEPS))
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + URL,
+                        // The migration scripts are written for MySQL, so validate with the MySQL dialect
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+                        "--appointment.booking.wal-directory=target/startup-test-wal");
+        String port = context.getEnvironment().getRequiredProperty("local.server.port");
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/appointment?limit=1")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        Duration timeToFirstRequest = Duration.ofNanos(System.nanoTime() - start);
+
+        assertEquals(200, response.statusCode(), response.body());
+        assertTrue(timeToFirstRequest.compareTo(TIME_TO_FIRST_REQUEST_BUDGET) < 0,
+                "First request answered after " + timeToFirstRequest.toMillis() + " ms, budget is "
+                        + TIME_TO_FIRST_REQUEST_BUDGET.toMillis() + " ms");
+
+        // The schema was validated, not created by Hibernate
+        assertEquals("validate", context.getEnvironment().getProperty("spring.jpa.hibernate.ddl-auto"));
+        assertFalse(context.getBean(StartupTimingReport.class).getSlowestBeans().isEmpty());
+    }
+}
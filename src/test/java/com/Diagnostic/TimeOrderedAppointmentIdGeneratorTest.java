@@ -0,0 +1,82 @@
+package com.Diagnostic;
+
+import com.Diagnostic.utility.TimeOrderedAppointmentIdGenerator;
+import com.Diagnostic.utility.UuidBinaryConverter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedAppointmentIdGeneratorTest {
+
+    private final TimeOrderedAppointmentIdGenerator generator = new TimeOrderedAppointmentIdGenerator(42);
+
+    @Test
+    void testNextId_ShouldBeCanonicalVersion7Uuid() {
+        String id = generator.nextId();
+        UUID uuid = UUID.fromString(id);
+
+        assertEquals(36, id.length());
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(42, (uuid.getLeastSignificantBits() >>> 46) & 0xFFFF);
+        long now = System.currentTimeMillis();
+        assertTrue(Math.abs(now - TimeOrderedAppointmentIdGenerator.timestampOf(id)) < 1_000);
+    }
+
+    @Test
+    void testNextId_ShouldBeStrictlyIncreasingWithinANode() {
+        UUID previous = generator.nextUuid();
+        // More IDs than the 12-bit sequence holds, so the sequence must carry into the next millisecond
+        for (int i = 0; i < 20_000; i++) {
+            UUID next = generator.nextUuid();
+            assertTrue(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testNextId_ConcurrentCallers_ShouldNotCollide() throws Exception {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(generator.nextId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    void testTimestampOf_NonVersion7Ids_ShouldBeUnknown() {
+        assertEquals(-1, TimeOrderedAppointmentIdGenerator.timestampOf(UUID.randomUUID().toString()));
+        assertEquals(-1, TimeOrderedAppointmentIdGenerator.timestampOf("not-an-id"));
+    }
+
+    @Test
+    void testUuidBinaryConverter_ShouldRoundTripAndKeepOrder() {
+        UuidBinaryConverter converter = new UuidBinaryConverter();
+        List<String> ids = List.of(generator.nextId(), generator.nextId());
+
+        byte[] first = converter.convertToDatabaseColumn(ids.get(0));
+        byte[] second = converter.convertToDatabaseColumn(ids.get(1));
+
+        assertEquals(16, first.length);
+        assertEquals(ids.get(0), converter.convertToEntityAttribute(first));
+        assertTrue(Arrays.compareUnsigned(first, second) < 0);
+        assertEquals(0, converter.convertToDatabaseColumn("not-an-id").length);
+    }
+}